@@ -0,0 +1,136 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.springframework.samples.petclinic.security.SecurityUtils.JWT_ALGORITHM;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.samples.petclinic.security.JwtTokenClassifier;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+/**
+ * Load test of the rejection of invalid bearer tokens, as sent by a token-stuffing client: expired, forged, truncated,
+ * unsecured and garbage tokens, with a valid token for every five invalid ones.
+ * <p>
+ * Compares classifying the failures of the {@link NimbusJwtDecoder} from the messages of its exceptions, as
+ * {@code SecurityJwtConfiguration} used to do, with the {@link JwtTokenClassifier} run before decoding. No container is
+ * started. Run with {@code ./gradlew jmh -PjmhIncludes=InvalidTokenBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class InvalidTokenBenchmark {
+
+    private static final String JWT_KEY =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final String OTHER_JWT_KEY =
+        "Xfd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private String[] tokens;
+
+    private NimbusJwtDecoder jwtDecoder;
+
+    private JwtTokenClassifier tokenClassifier;
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private int next;
+    }
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        String valid = token(JWT_KEY, now.plus(Duration.ofDays(1)));
+        java.util.Base64.Encoder encoder = java.util.Base64.getUrlEncoder().withoutPadding();
+        tokens = new String[] {
+            valid,
+            token(JWT_KEY, now.minus(Duration.ofHours(1))),
+            token(OTHER_JWT_KEY, now.plus(Duration.ofDays(1))),
+            valid.substring(1),
+            encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) +
+            "." +
+            encoder.encodeToString("{\"sub\":\"admin\"}".getBytes(StandardCharsets.UTF_8)) +
+            ".",
+            HexFormat.of().formatHex(valid.getBytes(StandardCharsets.US_ASCII), 0, 64),
+        };
+
+        jwtDecoder = NimbusJwtDecoder.withSecretKey(secretKey(JWT_KEY)).macAlgorithm(JWT_ALGORITHM).build();
+        tokenClassifier = new JwtTokenClassifier(secretKey(JWT_KEY), JWT_ALGORITHM, Duration.ofSeconds(60));
+    }
+
+    @Benchmark
+    public void exceptionMessages(Client client, Blackhole blackhole) {
+        try {
+            blackhole.consume(jwtDecoder.decode(nextToken(client)));
+        } catch (JwtException e) {
+            String message = e.getMessage();
+            if (message.contains("Invalid signature")) {
+                blackhole.consume(JwtTokenClassifier.Outcome.INVALID_SIGNATURE);
+            } else if (message.contains("Jwt expired at")) {
+                blackhole.consume(JwtTokenClassifier.Outcome.EXPIRED);
+            } else if (
+                message.contains("Invalid JWT serialization") ||
+                message.contains("Malformed token") ||
+                message.contains("Invalid unsecured/JWS/JWE")
+            ) {
+                blackhole.consume(JwtTokenClassifier.Outcome.MALFORMED);
+            } else {
+                blackhole.consume(JwtTokenClassifier.Outcome.UNSUPPORTED);
+            }
+        }
+    }
+
+    @Benchmark
+    public void classifier(Client client, Blackhole blackhole) {
+        String token = nextToken(client);
+        JwtTokenClassifier.Outcome outcome = tokenClassifier.classify(token);
+        blackhole.consume(outcome == JwtTokenClassifier.Outcome.VALID ? jwtDecoder.decode(token) : outcome);
+    }
+
+    private String nextToken(Client client) {
+        String token = tokens[client.next];
+        client.next = (client.next + 1) % tokens.length;
+        return token;
+    }
+
+    private static String token(String jwtKey, Instant expiresAt) {
+        JwtEncoder jwtEncoder = new NimbusJwtEncoder(new ImmutableSecret<>(secretKey(jwtKey)));
+        JwtClaimsSet claims = JwtClaimsSet.builder().issuedAt(expiresAt.minus(Duration.ofDays(1))).expiresAt(expiresAt).subject("user").build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims)).getTokenValue();
+    }
+
+    private static SecretKey secretKey(String jwtKey) {
+        byte[] keyBytes = Base64.from(jwtKey).decode();
+        return new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
+    }
+}
@@ -0,0 +1,121 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import static org.springframework.samples.petclinic.security.SecurityUtils.AUTHORITIES_KEY;
+import static org.springframework.samples.petclinic.security.SecurityUtils.JWT_ALGORITHM;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.util.Base64;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.samples.petclinic.config.SecurityJwtConfiguration;
+import org.springframework.samples.petclinic.security.CachingJwtDecoder;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Benchmarks authenticating a bearer token, i.e. decoding it and converting it to an authentication, with the plain
+ * {@link NimbusJwtDecoder} and converter, and with the {@link CachingJwtDecoder} and the converter of
+ * {@link SecurityJwtConfiguration}.
+ * <p>
+ * The tokens are those of {@code sessions} clients, each of them sending its token on every request. No container is
+ * started. Run with {@code ./gradlew jmh -PjmhIncludes=JwtDecoderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class JwtDecoderBenchmark {
+
+    private static final String JWT_KEY =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    @Param({ "100", "10000" })
+    public int sessions;
+
+    private String[] tokens;
+
+    private JwtDecoder nimbusJwtDecoder;
+
+    private JwtDecoder cachingJwtDecoder;
+
+    private JwtAuthenticationConverter plainConverter;
+
+    private JwtAuthenticationConverter cachingConverter;
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private int next;
+    }
+
+    @Setup
+    public void setUp() {
+        byte[] keyBytes = Base64.from(JWT_KEY).decode();
+        SecretKey secretKey = new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
+        JwtEncoder jwtEncoder = new NimbusJwtEncoder(new ImmutableSecret<>(secretKey));
+        Instant now = Instant.now();
+        tokens = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofDays(1)))
+                .subject("user" + i)
+                .claim(AUTHORITIES_KEY, i % 10 == 0 ? "ROLE_ADMIN ROLE_USER" : "ROLE_USER")
+                .build();
+            tokens[i] = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims)).getTokenValue();
+        }
+
+        nimbusJwtDecoder = NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(JWT_ALGORITHM).build();
+        cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder, 10000, new SimpleMeterRegistry());
+
+        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        grantedAuthoritiesConverter.setAuthorityPrefix("");
+        grantedAuthoritiesConverter.setAuthoritiesClaimName(AUTHORITIES_KEY);
+        plainConverter = new JwtAuthenticationConverter();
+        plainConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
+        cachingConverter = new SecurityJwtConfiguration().jwtAuthenticationConverter();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken nimbus(Client client) {
+        return plainConverter.convert(nimbusJwtDecoder.decode(nextToken(client)));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken cached(Client client) {
+        return cachingConverter.convert(cachingJwtDecoder.decode(nextToken(client)));
+    }
+
+    private String nextToken(Client client) {
+        String token = tokens[client.next];
+        client.next = (client.next + 1) % tokens.length;
+        return token;
+    }
+}
@@ -0,0 +1,68 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.samples.petclinic.web.rest.PetClinicKafkaResource;
+import org.springframework.samples.petclinic.web.rest.vm.PublishBatchResultVM;
+
+/**
+ * Benchmarks the throughput of publishing messages to the Kafka container, the same {@code cp-kafka} image as the one
+ * started by {@code @EmbeddedKafka} in the tests.
+ * <p>
+ * Each operation publishes {@code messages} messages, either one {@code publish} call per message or a single
+ * {@code publishBatch} call, so the message rate is the operation rate times {@code messages}. The database size does
+ * not matter here, run with {@code ./gradlew jmh -PjmhIncludes=KafkaPublishBenchmark -PjmhParams=owners=100000}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KafkaPublishBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int messages;
+
+    private PetClinicKafkaResource petClinicKafkaResource;
+
+    private List<String> payloads;
+
+    private List<JsonNode> batch;
+
+    @Setup
+    public void setUp(PetClinicBenchmarkState state) {
+        petClinicKafkaResource = state.getBean(PetClinicKafkaResource.class);
+        payloads = new ArrayList<>(messages);
+        batch = new ArrayList<>(messages);
+        for (int i = 0; i < messages; i++) {
+            String payload = "{\"petId\":" + i + ",\"event\":\"visit-scheduled\",\"date\":\"2024-04-01\"}";
+            payloads.add(payload);
+            batch.add(TextNode.valueOf(payload));
+        }
+    }
+
+    @Benchmark
+    public void publishOneByOne() {
+        payloads.forEach(petClinicKafkaResource::publish);
+    }
+
+    @Benchmark
+    public PublishBatchResultVM publishBatch() {
+        return petClinicKafkaResource.publishBatch(batch);
+    }
+}
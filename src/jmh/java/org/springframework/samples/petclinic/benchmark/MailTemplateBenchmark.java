@@ -0,0 +1,123 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.domain.User;
+import org.springframework.samples.petclinic.service.MailTemplateRenderer;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Benchmarks rendering 10k account emails, comparing Thymeleaf processing with a new context per email, as
+ * {@code MailService} used to do, with the templates compiled by {@link MailTemplateRenderer}.
+ * <p>
+ * Thymeleaf is set up as the application does, with its template cache, but without the application context, so no
+ * container is started. Run with {@code ./gradlew jmh -PjmhIncludes=MailTemplateBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    private static final int RENDERS = 10_000;
+
+    @Param({ MailTemplateRenderer.ACTIVATION_EMAIL_TEMPLATE, MailTemplateRenderer.PASSWORD_RESET_EMAIL_TEMPLATE })
+    public String templateName;
+
+    @Param({ "en", "es" })
+    public String language;
+
+    private SpringTemplateEngine templateEngine;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    private String baseUrl;
+
+    private Locale locale;
+
+    private User[] users;
+
+    @Setup
+    public void setUp() {
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        baseUrl = jHipsterProperties.getMail().getBaseUrl();
+        mailTemplateRenderer = new MailTemplateRenderer(
+            templateEngine,
+            messageSource,
+            jHipsterProperties,
+            new ThymeleafProperties(),
+            new ApplicationProperties()
+        );
+        locale = Locale.forLanguageTag(language);
+
+        users = new User[64];
+        for (int i = 0; i < users.length; i++) {
+            User user = new User();
+            user.setLogin("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setLangKey(language);
+            user.setActivationKey("activation" + i);
+            user.setResetKey("reset" + i);
+            users[i] = user;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RENDERS)
+    public void process(Blackhole blackhole) {
+        for (int i = 0; i < RENDERS; i++) {
+            Context context = new Context(locale);
+            context.setVariable("user", users[i % users.length]);
+            context.setVariable("baseUrl", baseUrl);
+            blackhole.consume(templateEngine.process(templateName, context));
+            blackhole.consume(messageSource.getMessage("email.activation.title", null, locale));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RENDERS)
+    public void renderCompiled(Blackhole blackhole) {
+        for (int i = 0; i < RENDERS; i++) {
+            blackhole.consume(mailTemplateRenderer.render(templateName, users[i % users.length], locale));
+            blackhole.consume(mailTemplateRenderer.subject("email.activation.title", locale));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.samples.petclinic.service.OwnerAutocompleteService;
+import org.springframework.samples.petclinic.service.OwnerQueryService;
+import org.springframework.samples.petclinic.service.criteria.OwnerCriteria;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.samples.petclinic.service.dto.OwnerSuggestionDTO;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Benchmarks the owner suggestions of a keystroke in the prefix tree, next to the {@code contains} filter of the owner
+ * criteria the pickers would query otherwise.
+ * <p>
+ * The seeded owners are inserted with SQL, so the tree is filled again before measuring, and the heap it takes is printed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnerAutocompleteBenchmark {
+
+    private static final int SUGGESTIONS = 10;
+
+    private OwnerAutocompleteService ownerAutocompleteService;
+
+    private OwnerQueryService ownerQueryService;
+
+    private OwnerCriteria lastNameContains;
+
+    @Setup
+    public void setUp(PetClinicBenchmarkState state) {
+        ownerAutocompleteService = state.getBean(OwnerAutocompleteService.class);
+        ownerQueryService = state.getBean(OwnerQueryService.class);
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        ownerAutocompleteService.load();
+        System.gc();
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%nLoaded %d owners, about %d MB of heap%n", state.owners, (usedAfter - usedBefore) / (1024 * 1024));
+
+        lastNameContains = new OwnerCriteria();
+        StringFilter lastName = new StringFilter();
+        lastName.setContains("last123");
+        lastNameContains.setLastName(lastName);
+    }
+
+    @Benchmark
+    public Page<OwnerDTO> criteriaContains() {
+        return ownerQueryService.findByCriteria(lastNameContains, PageRequest.of(0, SUGGESTIONS, Sort.by("lastName")));
+    }
+
+    @Benchmark
+    public List<OwnerSuggestionDTO> suggestLastName() {
+        return ownerAutocompleteService.suggest("last123", SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<OwnerSuggestionDTO> suggestFullName() {
+        return ownerAutocompleteService.suggest("First1234 La", SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<OwnerSuggestionDTO> suggestTelephone() {
+        return ownerAutocompleteService.suggest("555-00012", SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<OwnerSuggestionDTO> suggestSingleLetter() {
+        return ownerAutocompleteService.suggest("l", SUGGESTIONS);
+    }
+}
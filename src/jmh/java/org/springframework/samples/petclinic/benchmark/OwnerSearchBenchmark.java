@@ -0,0 +1,93 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.samples.petclinic.service.OwnerQueryService;
+import org.springframework.samples.petclinic.service.OwnerSearchService;
+import org.springframework.samples.petclinic.service.criteria.OwnerCriteria;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Benchmarks the searches of the front desk in the owner index, next to the {@code contains} filter of the owner
+ * criteria they replace.
+ * <p>
+ * The seeded owners are inserted with SQL, so the index is rebuilt once before measuring, and its duration is printed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OwnerSearchBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private OwnerSearchService ownerSearchService;
+
+    private OwnerQueryService ownerQueryService;
+
+    private OwnerCriteria lastNameContains;
+
+    @Setup
+    public void setUp(PetClinicBenchmarkState state) {
+        ownerSearchService = state.getBean(OwnerSearchService.class);
+        ownerQueryService = state.getBean(OwnerQueryService.class);
+
+        long start = System.nanoTime();
+        ownerSearchService.reindexAll();
+        if (!ownerSearchService.awaitIndexing(Duration.ofHours(1))) {
+            throw new IllegalStateException("The owners were not indexed within an hour");
+        }
+        System.out.printf(
+            "%nIndexed %d owners in %d ms%n",
+            state.owners,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
+
+        lastNameContains = new OwnerCriteria();
+        StringFilter lastName = new StringFilter();
+        lastName.setContains("ast1234");
+        lastNameContains.setLastName(lastName);
+    }
+
+    @Benchmark
+    public Page<OwnerDTO> criteriaContains() {
+        return ownerQueryService.findByCriteria(lastNameContains, PageRequest.of(0, 20, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Page<OwnerDTO> searchWord() {
+        return ownerSearchService.search("Last1234", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<OwnerDTO> searchPrefix() {
+        return ownerSearchService.search("last123", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<OwnerDTO> searchWithTypo() {
+        return ownerSearchService.search("lsat1234", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<OwnerDTO> searchTelephone() {
+        return ownerSearchService.search("555-00123", FIRST_PAGE);
+    }
+}
@@ -0,0 +1,97 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import java.util.Collections;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.PetClinicApp;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Shared benchmark state: boots the application against a PostgreSQL and a Kafka container
+ * and seeds the database with {@link #owners} owners, pets and visits.
+ * The application runs on platform or virtual threads depending on {@link #threads}.
+ * <p>
+ * The containers use the same images as the integration tests, so query plans match what production PostgreSQL does.
+ */
+@State(Scope.Benchmark)
+public class PetClinicBenchmarkState {
+
+    @Param({ "100000", "1000000" })
+    public int owners;
+
+    /**
+     * Either {@code platform} or {@code virtual}, the latter requires Java 21.
+     */
+    @Param({ "platform" })
+    public String threads;
+
+    private PostgreSQLContainer<?> postgreSQLContainer;
+
+    private KafkaContainer kafkaContainer;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgreSQLContainer = new PostgreSQLContainer<>("postgres:16.2")
+            .withDatabaseName("PetClinic")
+            .withTmpFs(Collections.singletonMap("/testtmpfs", "rw"));
+        postgreSQLContainer.start();
+        kafkaContainer = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.6.0"));
+        kafkaContainer.start();
+
+        context = new SpringApplicationBuilder(PetClinicApp.class).run(
+            "--spring.profiles.active=prod",
+            "--spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+            "--spring.datasource.username=" + postgreSQLContainer.getUsername(),
+            "--spring.datasource.password=" + postgreSQLContainer.getPassword(),
+            "--spring.cloud.stream.kafka.binder.brokers=" +
+            kafkaContainer.getHost() +
+            ':' +
+            kafkaContainer.getMappedPort(KafkaContainer.KAFKA_PORT),
+            "--server.port=0",
+            "--spring.threads.virtual.enabled=" + "virtual".equals(threads),
+            "--logging.level.ROOT=WARN",
+            "--logging.level.org.springframework.samples.petclinic=WARN"
+        );
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        new BenchmarkDataSeeder(jdbcTemplate, transactionManager).seed(owners);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (kafkaContainer != null) {
+            kafkaContainer.stop();
+        }
+        if (postgreSQLContainer != null) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int getPort() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public int getVets() {
+        return BenchmarkDataSeeder.vetsFor(owners);
+    }
+}
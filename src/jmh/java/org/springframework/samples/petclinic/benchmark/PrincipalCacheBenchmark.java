@@ -0,0 +1,85 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.samples.petclinic.domain.User;
+import org.springframework.samples.petclinic.repository.UserRepository;
+import org.springframework.samples.petclinic.security.PrincipalCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * Benchmarks the lookup of the principal of a login by the {@code DomainUserDetailsService}.
+ * <p>
+ * {@code cached} reads the principal from the {@link PrincipalCache}, {@code uncached} evicts it before each call, so
+ * that the user and its authorities are read from the database. The footprint of a cached principal is printed once,
+ * next to the footprint of the {@link User} entity with its authorities the former cache held, both measured as their
+ * serialized size, which is what a distributed cache stores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrincipalCacheBenchmark {
+
+    private static final String LOGIN = "admin";
+
+    private UserDetailsService userDetailsService;
+
+    private Cache principals;
+
+    @Setup
+    public void setUp(PetClinicBenchmarkState state) {
+        userDetailsService = state.getBean(UserDetailsService.class);
+        principals = state.getBean(CacheManager.class).getCache(PrincipalCache.PRINCIPALS_CACHE);
+
+        userDetailsService.loadUserByUsername(LOGIN);
+        PrincipalCache.CachedPrincipal principal = state.getBean(PrincipalCache.class).getIfPresent(LOGIN).orElseThrow();
+        User user = state.getBean(UserRepository.class).findOneWithAuthoritiesByLogin(LOGIN).orElseThrow();
+        System.out.printf(
+            "%nSerialized footprint of %s: principal=%d bytes, user=%d bytes%n",
+            LOGIN,
+            serializedSize(principal),
+            serializedSize(user)
+        );
+    }
+
+    @Benchmark
+    public UserDetails cached() {
+        return userDetailsService.loadUserByUsername(LOGIN);
+    }
+
+    @Benchmark
+    public UserDetails uncached() {
+        principals.evict(LOGIN);
+        return userDetailsService.loadUserByUsername(LOGIN);
+    }
+
+    private static int serializedSize(Serializable value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.size();
+    }
+}
@@ -0,0 +1,175 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.samples.petclinic.service.OwnerQueryService;
+import org.springframework.samples.petclinic.service.PetQueryService;
+import org.springframework.samples.petclinic.service.PetTypeQueryService;
+import org.springframework.samples.petclinic.service.SpecialityQueryService;
+import org.springframework.samples.petclinic.service.VetQueryService;
+import org.springframework.samples.petclinic.service.VisitQueryService;
+import org.springframework.samples.petclinic.service.criteria.OwnerCriteria;
+import org.springframework.samples.petclinic.service.criteria.PetCriteria;
+import org.springframework.samples.petclinic.service.criteria.PetTypeCriteria;
+import org.springframework.samples.petclinic.service.criteria.SpecialityCriteria;
+import org.springframework.samples.petclinic.service.criteria.VetCriteria;
+import org.springframework.samples.petclinic.service.criteria.VisitCriteria;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.samples.petclinic.service.dto.PetDTO;
+import org.springframework.samples.petclinic.service.dto.PetTypeDTO;
+import org.springframework.samples.petclinic.service.dto.SpecialityDTO;
+import org.springframework.samples.petclinic.service.dto.VetDTO;
+import org.springframework.samples.petclinic.service.dto.VisitDTO;
+
+/**
+ * Benchmarks {@code findByCriteria} and {@code countByCriteria} of every {@code *QueryService}
+ * with the filters the web client sends most often.
+ * <p>
+ * Run with {@code ./gradlew jmh}, results are written to {@code build/reports/jmh/results.json}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryServiceBenchmark {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("id"));
+
+    private OwnerQueryService ownerQueryService;
+
+    private PetQueryService petQueryService;
+
+    private VisitQueryService visitQueryService;
+
+    private VetQueryService vetQueryService;
+
+    private PetTypeQueryService petTypeQueryService;
+
+    private SpecialityQueryService specialityQueryService;
+
+    private int owners;
+
+    private int vets;
+
+    @Setup
+    public void setUp(PetClinicBenchmarkState state) {
+        ownerQueryService = state.getBean(OwnerQueryService.class);
+        petQueryService = state.getBean(PetQueryService.class);
+        visitQueryService = state.getBean(VisitQueryService.class);
+        vetQueryService = state.getBean(VetQueryService.class);
+        petTypeQueryService = state.getBean(PetTypeQueryService.class);
+        specialityQueryService = state.getBean(SpecialityQueryService.class);
+        owners = state.owners;
+        vets = state.getVets();
+    }
+
+    @Benchmark
+    public Page<OwnerDTO> findOwnersByLastNameContains() {
+        return ownerQueryService.findByCriteria(ownerCriteria(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public long countOwnersByLastNameContains() {
+        return ownerQueryService.countByCriteria(ownerCriteria());
+    }
+
+    @Benchmark
+    public Page<PetDTO> findPetsByOwner() {
+        return petQueryService.findByCriteria(petCriteria(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public long countPetsByOwner() {
+        return petQueryService.countByCriteria(petCriteria());
+    }
+
+    @Benchmark
+    public Page<VisitDTO> findVisitsByVetAndDateRange() {
+        return visitQueryService.findByCriteria(visitCriteria(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public long countVisitsByVetAndDateRange() {
+        return visitQueryService.countByCriteria(visitCriteria());
+    }
+
+    @Benchmark
+    public Page<VetDTO> findVetsByLastNameContains() {
+        return vetQueryService.findByCriteria(vetCriteria(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public long countVetsByLastNameContains() {
+        return vetQueryService.countByCriteria(vetCriteria());
+    }
+
+    @Benchmark
+    public Page<PetTypeDTO> findAllPetTypes() {
+        return petTypeQueryService.findByCriteria(new PetTypeCriteria(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public long countAllPetTypes() {
+        return petTypeQueryService.countByCriteria(new PetTypeCriteria());
+    }
+
+    @Benchmark
+    public Page<SpecialityDTO> findSpecialitiesByVet() {
+        return specialityQueryService.findByCriteria(specialityCriteria(), FIRST_PAGE);
+    }
+
+    @Benchmark
+    public long countSpecialitiesByVet() {
+        return specialityQueryService.countByCriteria(specialityCriteria());
+    }
+
+    private OwnerCriteria ownerCriteria() {
+        OwnerCriteria criteria = new OwnerCriteria();
+        criteria.lastName().setContains("Last" + ThreadLocalRandom.current().nextInt(10000));
+        return criteria;
+    }
+
+    private PetCriteria petCriteria() {
+        PetCriteria criteria = new PetCriteria();
+        criteria.ownerId().setEquals(1L + ThreadLocalRandom.current().nextInt(owners));
+        return criteria;
+    }
+
+    private VisitCriteria visitCriteria() {
+        VisitCriteria criteria = new VisitCriteria();
+        LocalDate from = LocalDate.of(2015, 1, 1).plusDays(ThreadLocalRandom.current().nextInt(3000));
+        criteria.date().setGreaterThanOrEqual(from);
+        criteria.date().setLessThan(from.plusDays(30));
+        criteria.vetId().setEquals(1L + ThreadLocalRandom.current().nextInt(vets));
+        return criteria;
+    }
+
+    private VetCriteria vetCriteria() {
+        VetCriteria criteria = new VetCriteria();
+        criteria.lastName().setContains("Vet" + ThreadLocalRandom.current().nextInt(500));
+        return criteria;
+    }
+
+    private SpecialityCriteria specialityCriteria() {
+        SpecialityCriteria criteria = new SpecialityCriteria();
+        criteria.vetId().setEquals(1L + ThreadLocalRandom.current().nextInt(vets));
+        return criteria;
+    }
+}
@@ -0,0 +1,79 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Load test of the REST API through Undertow, with 200 concurrent clients, to compare the platform and virtual thread
+ * modes of the application.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhIncludes=ThreadModeLoadBenchmark -PjmhParams="owners=100000;threads=platform,virtual"}
+ * on Java 21. The requests mostly wait on PostgreSQL, so throughput is bounded by the HikariCP pool size in both modes;
+ * the difference shows in the latency under load once the clients outnumber the Undertow worker threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(200)
+@Fork(1)
+public class ThreadModeLoadBenchmark {
+
+    private HttpClient httpClient;
+
+    private String baseUrl;
+
+    private String authorization;
+
+    private int owners;
+
+    @Setup
+    public void setUp(PetClinicBenchmarkState state) throws IOException, InterruptedException {
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        baseUrl = "http://localhost:" + state.getPort();
+        owners = state.owners;
+
+        HttpRequest authenticate = HttpRequest.newBuilder(URI.create(baseUrl + "/api/authenticate"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin\"}"))
+            .build();
+        HttpResponse<String> response = httpClient.send(authenticate, HttpResponse.BodyHandlers.ofString());
+        JsonNode token = new ObjectMapper().readTree(response.body()).get("id_token");
+        authorization = "Bearer " + token.asText();
+    }
+
+    @Benchmark
+    public int getOwner() throws IOException, InterruptedException {
+        return send("/api/owners/" + (1 + ThreadLocalRandom.current().nextInt(owners)));
+    }
+
+    @Benchmark
+    public int getPetsOfOwner() throws IOException, InterruptedException {
+        return send("/api/pets?ownerId.equals=" + (1 + ThreadLocalRandom.current().nextInt(owners)));
+    }
+
+    private int send(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", authorization).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
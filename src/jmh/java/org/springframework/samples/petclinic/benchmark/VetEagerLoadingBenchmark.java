@@ -0,0 +1,118 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import jakarta.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.samples.petclinic.domain.Vet;
+import org.springframework.samples.petclinic.repository.VetRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks the eager loading of the specialities of a page of vets.
+ * <p>
+ * {@code joinFetch} is the former strategy, which selected the page of vets again with a join fetch and sorted the result
+ * back in page order. {@code batchFetch} is {@link VetRepository#findAllWithEagerRelationships(Pageable)}, which batch
+ * fetches the specialities, with the specialities collection cache either warm or evicted before each call. The number
+ * of SQL statements of each strategy is printed once per page size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VetEagerLoadingBenchmark {
+
+    private static final String SPECIALITIES_REGION = Vet.class.getName() + ".specialities";
+
+    @Param({ "20", "200", "2000" })
+    public int pageSize;
+
+    private VetRepository vetRepository;
+
+    private EntityManager entityManager;
+
+    private SessionFactory sessionFactory;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Pageable page;
+
+    @Setup
+    public void setUp(PetClinicBenchmarkState state) {
+        vetRepository = state.getBean(VetRepository.class);
+        entityManager = state.getBean(EntityManager.class);
+        sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        transactionTemplate = new TransactionTemplate(state.getBean(PlatformTransactionManager.class));
+        page = PageRequest.of(0, pageSize, Sort.by("id"));
+
+        System.out.printf(
+            "%nSQL statements for a page of %d vets: joinFetch=%d, batchFetch=%d, batchFetchColdCache=%d%n",
+            pageSize,
+            countStatements(this::joinFetch),
+            countStatements(this::batchFetch),
+            countStatements(this::batchFetchColdCache)
+        );
+    }
+
+    @Benchmark
+    public List<Vet> joinFetch() {
+        return transactionTemplate.execute(status -> {
+            List<Vet> vets = vetRepository.findAll(page).getContent();
+            Map<Long, Integer> order = new HashMap<>();
+            for (int i = 0; i < vets.size(); i++) {
+                order.put(vets.get(i).getId(), i);
+            }
+            List<Vet> result = entityManager
+                .createQuery("select vet from Vet vet left join fetch vet.specialities where vet in :vets", Vet.class)
+                .setParameter("vets", vets)
+                .getResultList();
+            result.sort((o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
+            return result;
+        });
+    }
+
+    @Benchmark
+    public List<Vet> batchFetch() {
+        return transactionTemplate.execute(status -> vetRepository.findAllWithEagerRelationships(page).getContent());
+    }
+
+    @Benchmark
+    public List<Vet> batchFetchColdCache() {
+        sessionFactory.getCache().evictCollectionData(SPECIALITIES_REGION);
+        return batchFetch();
+    }
+
+    private long countStatements(Supplier<List<Vet>> strategy) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            strategy.get();
+            statistics.clear();
+            strategy.get();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+}
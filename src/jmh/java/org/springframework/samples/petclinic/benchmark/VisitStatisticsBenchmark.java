@@ -0,0 +1,87 @@
+package org.springframework.samples.petclinic.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.service.VisitStatisticsService;
+import org.springframework.samples.petclinic.service.dto.VisitCountDTO;
+
+/**
+ * Benchmarks the visit statistics over the ten years of seeded visits, read from the daily rollups, next to the same
+ * counts aggregated from the visits.
+ * <p>
+ * The seeded visits are inserted with SQL, so the rollups are rebuilt once before measuring, and its duration is printed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VisitStatisticsBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2015, 1, 1);
+
+    private static final LocalDate TO = LocalDate.of(2025, 1, 1);
+
+    private VisitStatisticsService visitStatisticsService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setUp(PetClinicBenchmarkState state) {
+        visitStatisticsService = state.getBean(VisitStatisticsService.class);
+        jdbcTemplate = state.getBean(JdbcTemplate.class);
+
+        long start = System.nanoTime();
+        visitStatisticsService.rebuild();
+        System.out.printf("%nCounted %d visits in %d ms%n", state.owners, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Benchmark
+    public List<VisitCountDTO> rollupByVetPerMonth() {
+        return visitStatisticsService.countByVet(FROM, TO, VisitStatisticsService.Period.MONTH);
+    }
+
+    @Benchmark
+    public List<VisitCountDTO> rollupByPetTypePerWeek() {
+        return visitStatisticsService.countByPetType(FROM, TO, VisitStatisticsService.Period.WEEK);
+    }
+
+    @Benchmark
+    public List<VisitCountDTO> rollupBusiestCities() {
+        return visitStatisticsService.findBusiestCities(FROM, TO, 10);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> scanByVetPerMonth() {
+        return jdbcTemplate.queryForList(
+            "select cast(date_trunc('month', cast(v.date as timestamp)) as date) as period, v.vet_id, count(*) as visits" +
+            " from visit v where v.date >= ? and v.date < ? group by 1, 2 order by 1, 3 desc",
+            FROM,
+            TO
+        );
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> scanBusiestCities() {
+        return jdbcTemplate.queryForList(
+            "select o.city, count(*) as visits from visit v join pet p on p.id = v.pet_id join owner o on o.id = p.owner_id" +
+            " where v.date >= ? and v.date < ? group by o.city order by 2 desc limit 10",
+            FROM,
+            TO
+        );
+    }
+}
@@ -0,0 +1,256 @@
+package org.springframework.samples.petclinic.broker;
+
+import static org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.config.ApplicationProperties.Sse.OverflowPolicy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * Fans messages out to the registered server-sent events subscribers.
+ * <p>
+ * Publishing only enqueues the message in the bounded queue of each subscriber. The queues are drained by a dedicated
+ * executor, with at most one task per subscriber at a time, so a slow client delays its own messages and not the others.
+ * When a queue is full the configured {@link OverflowPolicy} applies. Idle subscribers get a heartbeat comment, which
+ * also detects dead connections, and subscribers whose connection failed or timed out are evicted.
+ */
+@Component
+public class SseFanOutHub implements DisposableBean {
+
+    public static final String SUBSCRIBERS_METER_NAME = "sse.subscribers";
+    public static final String QUEUE_DEPTH_METER_NAME = "sse.queue.depth";
+    public static final String DROPPED_METER_NAME = "sse.messages.dropped";
+    public static final String EVICTED_METER_NAME = "sse.subscribers.evicted";
+    public static final String EVICTED_METER_REASON_DIMENSION = "reason";
+
+    /**
+     * Maximum number of events sent by a drain task before it yields its thread to the other subscribers.
+     */
+    private static final int MAX_EVENTS_PER_DRAIN = 64;
+
+    private final Logger log = LoggerFactory.getLogger(SseFanOutHub.class);
+
+    private final Map<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    private final ApplicationProperties.Sse properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter droppedCounter;
+
+    private final ExecutorService sendExecutor;
+
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    public SseFanOutHub(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getSse();
+        this.meterRegistry = meterRegistry;
+        this.droppedCounter = Counter.builder(DROPPED_METER_NAME)
+            .description("Messages discarded because the queue of a subscriber was full")
+            .baseUnit("messages")
+            .register(meterRegistry);
+        Gauge.builder(SUBSCRIBERS_METER_NAME, subscribers, Map::size)
+            .description("Registered server-sent events subscribers")
+            .register(meterRegistry);
+        Gauge.builder(QUEUE_DEPTH_METER_NAME, this, SseFanOutHub::queueDepth)
+            .description("Messages waiting in the queues of the subscribers")
+            .baseUnit("messages")
+            .register(meterRegistry);
+
+        this.sendExecutor = Executors.newFixedThreadPool(properties.getSendThreads(), new CustomizableThreadFactory("sse-send-"));
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("sse-heartbeat-"));
+        long heartbeatInterval = properties.getHeartbeatInterval().toMillis();
+        heartbeatExecutor.scheduleAtFixedRate(this::heartbeat, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Register a subscriber, replacing any subscriber previously registered with the same key.
+     *
+     * @param key the key of the subscriber.
+     * @return the emitter to return to the client.
+     */
+    public SseEmitter register(String key) {
+        return register(key, new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    SseEmitter register(String key, SseEmitter emitter) {
+        log.debug("Registering sse client for {}", key);
+        Subscriber subscriber = new Subscriber(key, emitter, properties.getQueueCapacity());
+        emitter.onCompletion(() -> remove(subscriber, null));
+        emitter.onTimeout(() -> {
+            remove(subscriber, "timeout");
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(subscriber, "error"));
+        Subscriber previous = subscribers.put(key, subscriber);
+        if (previous != null) {
+            previous.close();
+            previous.emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * Unregister a subscriber and complete its emitter.
+     *
+     * @param key the key of the subscriber.
+     */
+    public void unregister(String key) {
+        log.debug("Unregistering sse emitter for: {}", key);
+        Subscriber subscriber = subscribers.get(key);
+        if (subscriber != null) {
+            remove(subscriber, null);
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * Enqueue a message for every subscriber, without waiting for it to be sent.
+     *
+     * @param message the message.
+     */
+    public void publish(String message) {
+        subscribers.values().forEach(subscriber -> subscriber.offer(event().data(message, MediaType.TEXT_PLAIN)));
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private double queueDepth() {
+        return subscribers.values().stream().mapToInt(subscriber -> subscriber.queue.size()).sum();
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(Subscriber::offerHeartbeat);
+    }
+
+    private void remove(Subscriber subscriber, String evictionReason) {
+        if (subscribers.remove(subscriber.key, subscriber) && evictionReason != null) {
+            log.debug("Evicting sse client {}: {}", subscriber.key, evictionReason);
+            Counter.builder(EVICTED_METER_NAME)
+                .description("Subscribers removed because of an error, a timeout or a full queue")
+                .tag(EVICTED_METER_REASON_DIMENSION, evictionReason)
+                .register(meterRegistry)
+                .increment();
+        }
+        subscriber.close();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeatExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
+        subscribers.values().forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private final class Subscriber {
+
+        private final String key;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<SseEventBuilder> queue;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private Subscriber(String key, SseEmitter emitter, int queueCapacity) {
+            this.key = key;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private void offer(SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                switch (properties.getOverflowPolicy()) {
+                    case DROP_OLDEST -> {
+                        do {
+                            if (queue.poll() != null) {
+                                droppedCounter.increment();
+                            }
+                        } while (!queue.offer(event));
+                    }
+                    case DROP_NEWEST -> {
+                        droppedCounter.increment();
+                        return;
+                    }
+                    case DISCONNECT -> {
+                        droppedCounter.increment();
+                        remove(this, "overflow");
+                        emitter.complete();
+                        return;
+                    }
+                }
+            }
+            schedule();
+        }
+
+        private void offerHeartbeat() {
+            // A heartbeat is only needed when nothing else is about to be sent, and must never push a message out
+            if (!closed && queue.isEmpty() && queue.offer(event().comment("heartbeat"))) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sendExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEventBuilder event;
+                for (int sent = 0; sent < MAX_EVENTS_PER_DRAIN && !closed && (event = queue.poll()) != null; sent++) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("error sending sse message to {}: {}", key, e.getMessage());
+                remove(this, "error");
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // Messages offered while this task was finishing are not lost: they are picked up by a new task
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            queue.clear();
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package org.springframework.samples.petclinic.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Pet Clinic.
@@ -13,12 +19,54 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Sse sse = new Sse();
+
+    private final Outbox outbox = new Outbox();
+
+    private final Cache cache = new Cache();
+
+    private final Mail mail = new Mail();
+
+    private final Security security = new Security();
+
+    private final Search search = new Search();
+
+    private final Statistics statistics = new Statistics();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Sse getSse() {
+        return sse;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Statistics getStatistics() {
+        return statistics;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +81,610 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Sse {
+
+        /**
+         * What to do with a message sent to a subscriber whose queue is full.
+         */
+        public enum OverflowPolicy {
+            /** Discard the oldest queued message to make room for the new one. */
+            DROP_OLDEST,
+            /** Discard the new message. */
+            DROP_NEWEST,
+            /** Disconnect the subscriber, which is expected to reconnect. */
+            DISCONNECT,
+        }
+
+        private int queueCapacity = 256;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+        private int sendThreads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        private Duration timeout = Duration.ofMinutes(30);
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getSendThreads() {
+            return sendThreads;
+        }
+
+        public void setSendThreads(int sendThreads) {
+            this.sendThreads = sendThreads;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Outbox {
+
+        private int batchSize = 500;
+
+        /**
+         * Delay between two relay runs, read by the schedule of the relay.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+    }
+
+    public static class Cache {
+
+        public enum Provider {
+            /**
+             * A local Ehcache per node, the entities updated by another node stay stale until they expire.
+             */
+            EHCACHE,
+            /**
+             * An embedded Infinispan cluster, the nodes discover each other and keep their caches consistent.
+             */
+            INFINISPAN,
+        }
+
+        private Provider provider = Provider.EHCACHE;
+
+        private final Infinispan infinispan = new Infinispan();
+
+        /**
+         * Settings of the caches, keyed by cache name relative to the domain package, e.g. {@code Visit} or
+         * {@code [Owner.pets]}. Unset settings default to {@code jhipster.cache.ehcache}.
+         */
+        private final Map<String, Region> regions = new HashMap<>();
+
+        public Provider getProvider() {
+            return provider;
+        }
+
+        public void setProvider(Provider provider) {
+            this.provider = provider;
+        }
+
+        public Infinispan getInfinispan() {
+            return infinispan;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Infinispan {
+
+            private String clusterName = "petclinic";
+
+            /**
+             * Address the JGroups transport listens on.
+             */
+            private String bindAddress = "127.0.0.1";
+
+            private int bindPort = 7800;
+
+            /**
+             * Number of ports tried after {@link #bindPort} when it is taken, also probed on each initial host.
+             */
+            private int portRange = 10;
+
+            /**
+             * Members contacted to join the cluster, as {@code host:port}.
+             */
+            private List<String> initialHosts = new ArrayList<>(List.of("127.0.0.1:7800"));
+
+            /**
+             * Number of nodes owning each entry.
+             */
+            private int numOwners = 2;
+
+            public String getClusterName() {
+                return clusterName;
+            }
+
+            public void setClusterName(String clusterName) {
+                this.clusterName = clusterName;
+            }
+
+            public String getBindAddress() {
+                return bindAddress;
+            }
+
+            public void setBindAddress(String bindAddress) {
+                this.bindAddress = bindAddress;
+            }
+
+            public int getBindPort() {
+                return bindPort;
+            }
+
+            public void setBindPort(int bindPort) {
+                this.bindPort = bindPort;
+            }
+
+            public int getPortRange() {
+                return portRange;
+            }
+
+            public void setPortRange(int portRange) {
+                this.portRange = portRange;
+            }
+
+            public List<String> getInitialHosts() {
+                return initialHosts;
+            }
+
+            public void setInitialHosts(List<String> initialHosts) {
+                this.initialHosts = initialHosts;
+            }
+
+            public int getNumOwners() {
+                return numOwners;
+            }
+
+            public void setNumOwners(int numOwners) {
+                this.numOwners = numOwners;
+            }
+        }
+
+        public static class Region {
+
+            /**
+             * Number of entries held on the heap.
+             */
+            private Long maxEntries;
+
+            /**
+             * Size of the off-heap tier, none when unset. Entries overflowing the heap are serialized there, outside of
+             * the garbage collected heap, so {@code -XX:MaxDirectMemorySize} must leave room for it.
+             */
+            private DataSize offheap;
+
+            private Duration timeToLive;
+
+            /**
+             * Expire the entries which were not accessed for this duration, instead of applying {@link #timeToLive}.
+             */
+            private Duration timeToIdle;
+
+            /**
+             * With the {@code INFINISPAN} provider, keep a local copy of the entries read from other nodes, invalidated
+             * when they are written, so that hot regions are read without a network round trip.
+             */
+            private boolean nearCache;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public DataSize getOffheap() {
+                return offheap;
+            }
+
+            public void setOffheap(DataSize offheap) {
+                this.offheap = offheap;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+
+            public boolean isNearCache() {
+                return nearCache;
+            }
+
+            public void setNearCache(boolean nearCache) {
+                this.nearCache = nearCache;
+            }
+        }
+    }
+
+    public static class Mail {
+
+        /**
+         * Maximum number of emails waiting to be sent, emails queued beyond it are rejected.
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Maximum number of emails sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Maximum number of emails sent per second, unlimited when not positive.
+         */
+        private double rateLimit = 10;
+
+        /**
+         * Number of attempts to send an email before it is moved to the dead letters.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Delay before the first retry, doubled on each attempt up to {@link #maxBackoff}.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(10);
+
+        private Duration maxBackoff = Duration.ofMinutes(10);
+
+        /**
+         * Maximum number of dead letters kept, the oldest are discarded beyond it.
+         */
+        private int deadLetterCapacity = 1000;
+
+        /**
+         * Languages the mail templates are compiled for at startup, the others are compiled on first use.
+         */
+        private List<String> templateLanguages = new ArrayList<>(List.of("en", "es"));
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public double getRateLimit() {
+            return rateLimit;
+        }
+
+        public void setRateLimit(double rateLimit) {
+            this.rateLimit = rateLimit;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public int getDeadLetterCapacity() {
+            return deadLetterCapacity;
+        }
+
+        public void setDeadLetterCapacity(int deadLetterCapacity) {
+            this.deadLetterCapacity = deadLetterCapacity;
+        }
+
+        public List<String> getTemplateLanguages() {
+            return templateLanguages;
+        }
+
+        public void setTemplateLanguages(List<String> templateLanguages) {
+            this.templateLanguages = templateLanguages;
+        }
+    }
+
+    public static class Security {
+
+        private final JwtCache jwtCache = new JwtCache();
+
+        private final Password password = new Password();
+
+        public JwtCache getJwtCache() {
+            return jwtCache;
+        }
+
+        public Password getPassword() {
+            return password;
+        }
+
+        public static class JwtCache {
+
+            /**
+             * Maximum number of decoded tokens kept, the least recently used are evicted beyond it. Disabled when not
+             * positive.
+             */
+            private int maxEntries = 10000;
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+
+        public static class Password {
+
+            public enum Algorithm {
+                BCRYPT,
+                PBKDF2,
+            }
+
+            /**
+             * Algorithm of the new password hashes. The hashes of another algorithm, or of a lower cost, are rehashed
+             * when their user logs in.
+             */
+            private Algorithm algorithm = Algorithm.BCRYPT;
+
+            /**
+             * Log rounds of BCrypt, from 4 to 31.
+             */
+            private int bcryptStrength = 10;
+
+            /**
+             * Iterations of PBKDF2 with HMAC-SHA256.
+             */
+            private int pbkdf2Iterations = 310000;
+
+            /**
+             * Threads hashing the passwords, so that a login spike does not take the CPU of the other requests.
+             */
+            private int hashingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+            /**
+             * Passwords waiting to be hashed, the requests beyond it are rejected with a 503 status.
+             */
+            private int hashingQueueCapacity = 200;
+
+            public Algorithm getAlgorithm() {
+                return algorithm;
+            }
+
+            public void setAlgorithm(Algorithm algorithm) {
+                this.algorithm = algorithm;
+            }
+
+            public int getBcryptStrength() {
+                return bcryptStrength;
+            }
+
+            public void setBcryptStrength(int bcryptStrength) {
+                this.bcryptStrength = bcryptStrength;
+            }
+
+            public int getPbkdf2Iterations() {
+                return pbkdf2Iterations;
+            }
+
+            public void setPbkdf2Iterations(int pbkdf2Iterations) {
+                this.pbkdf2Iterations = pbkdf2Iterations;
+            }
+
+            public int getHashingThreads() {
+                return hashingThreads;
+            }
+
+            public void setHashingThreads(int hashingThreads) {
+                this.hashingThreads = hashingThreads;
+            }
+
+            public int getHashingQueueCapacity() {
+                return hashingQueueCapacity;
+            }
+
+            public void setHashingQueueCapacity(int hashingQueueCapacity) {
+                this.hashingQueueCapacity = hashingQueueCapacity;
+            }
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Directory of the Lucene index of the owners, kept in memory when not set. The index is rebuilt on startup either
+         * way, and stays searchable meanwhile when kept in a directory.
+         */
+        private String indexDirectory;
+
+        /**
+         * Owners loaded from the database and indexed per transaction.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Best matches which can be paged through, the deeper pages are empty.
+         */
+        private int maxResults = 1000;
+
+        private final Autocomplete autocomplete = new Autocomplete();
+
+        public String getIndexDirectory() {
+            return indexDirectory;
+        }
+
+        public void setIndexDirectory(String indexDirectory) {
+            this.indexDirectory = indexDirectory;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        public Autocomplete getAutocomplete() {
+            return autocomplete;
+        }
+
+        public static class Autocomplete {
+
+            /**
+             * Owners loaded from the database per transaction, when the prefix tree is filled on startup.
+             */
+            private int batchSize = 5000;
+
+            /**
+             * Suggestions returned at most for a prefix.
+             */
+            private int maxSuggestions = 20;
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getMaxSuggestions() {
+                return maxSuggestions;
+            }
+
+            public void setMaxSuggestions(int maxSuggestions) {
+                this.maxSuggestions = maxSuggestions;
+            }
+        }
+    }
+
+    public static class Statistics {
+
+        /**
+         * Cron expression of the rebuild of the visit rollups, which corrects the counts after pets or owners changed,
+         * "-" to disable it.
+         */
+        private String rebuildCron = "0 30 2 * * ?";
+
+        /**
+         * Time during which the other nodes skip the rebuild, which must exceed the differences between the clocks of the
+         * nodes and be shorter than the interval between two rebuilds.
+         */
+        private Duration rebuildLockDuration = Duration.ofMinutes(10);
+
+        /**
+         * Periods returned at most by a query of the visit statistics.
+         */
+        private int maxPeriods = 1000;
+
+        public String getRebuildCron() {
+            return rebuildCron;
+        }
+
+        public void setRebuildCron(String rebuildCron) {
+            this.rebuildCron = rebuildCron;
+        }
+
+        public Duration getRebuildLockDuration() {
+            return rebuildLockDuration;
+        }
+
+        public void setRebuildLockDuration(Duration rebuildLockDuration) {
+            this.rebuildLockDuration = rebuildLockDuration;
+        }
+
+        public int getMaxPeriods() {
+            return maxPeriods;
+        }
+
+        public void setMaxPeriods(int maxPeriods) {
+            this.maxPeriods = maxPeriods;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,9 +1,17 @@
 package org.springframework.samples.petclinic.config;
 
 import java.time.Duration;
+import java.util.Map;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.infinispan.commons.dataconversion.MediaType;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -19,22 +27,18 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final String DOMAIN_PREFIX = org.springframework.samples.petclinic.domain.Owner.class.getPackageName() + ".";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(
-                Object.class,
-                Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries())
-            )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build()
-        );
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Cache cache;
+    private final Map<String, ApplicationProperties.Cache.Region> regions;
+
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.cache = applicationProperties.getCache();
+        this.regions = applicationProperties.getCache().getRegions();
     }
 
     @Bean
@@ -45,8 +49,7 @@ public class CacheConfiguration {
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
-            createCache(cm, org.springframework.samples.petclinic.repository.UserRepository.USERS_BY_LOGIN_CACHE);
-            createCache(cm, org.springframework.samples.petclinic.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, org.springframework.samples.petclinic.security.PrincipalCache.PRINCIPALS_CACHE);
             createCache(cm, org.springframework.samples.petclinic.domain.User.class.getName());
             createCache(cm, org.springframework.samples.petclinic.domain.Authority.class.getName());
             createCache(cm, org.springframework.samples.petclinic.domain.User.class.getName() + ".authorities");
@@ -61,17 +64,107 @@ public class CacheConfiguration {
             createCache(cm, org.springframework.samples.petclinic.domain.Owner.class.getName());
             createCache(cm, org.springframework.samples.petclinic.domain.Owner.class.getName() + ".pets");
             createCache(cm, org.springframework.samples.petclinic.domain.Visit.class.getName());
+            createCache(cm, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME);
+            createCache(cm, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+            createCache(cm, org.springframework.samples.petclinic.repository.PetTypeRepository.QUERY_CACHE);
+            createCache(cm, org.springframework.samples.petclinic.repository.SpecialityRepository.QUERY_CACHE);
             // jhipster-needle-ehcache-add-entry
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
-        javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
-        if (cache != null) {
-            cache.clear();
+        if (cache.getProvider() == ApplicationProperties.Cache.Provider.INFINISPAN) {
+            // The entries are shared with the other nodes of the cluster, so the cache is not cleared when this node starts
+            EmbeddedCacheManager embeddedCacheManager = cm.unwrap(EmbeddedCacheManager.class);
+            if (embeddedCacheManager.getCacheConfiguration(cacheName) == null) {
+                embeddedCacheManager.defineConfiguration(cacheName, infinispanConfiguration(cacheName));
+            }
+            cm.getCache(cacheName);
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            javax.cache.Cache<Object, Object> existing = cm.getCache(cacheName);
+            if (existing != null) {
+                existing.clear();
+            } else {
+                cm.createCache(cacheName, jcacheConfiguration(cacheName, cm.getClassLoader()));
+            }
+        }
+        // Publishes the hit, miss, put and eviction counters read by JCacheMetrics and the jhicaches endpoint
+        cm.enableStatistics(cacheName, true);
+    }
+
+    /**
+     * Build the configuration of a cache from its {@code application.cache.regions} entry, if any, falling back to the
+     * {@code jhipster.cache.ehcache} settings.
+     * <p>
+     * The entries of an off-heap tier are stored serialized, with Java serialization since the keys and values are only
+     * known as objects. The Hibernate cache keys and entries are serializable.
+     */
+    private javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(String cacheName, ClassLoader classLoader) {
+        ApplicationProperties.Cache.Region region = region(cacheName);
+
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(maxEntries(region));
+        if (region.getOffheap() != null) {
+            resourcePools = resourcePools.offheap(region.getOffheap().toMegabytes(), MemoryUnit.MB);
+        }
+
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(
+            Object.class,
+            Object.class,
+            resourcePools
+        ).withExpiry(
+            region.getTimeToIdle() != null
+                ? ExpiryPolicyBuilder.timeToIdleExpiration(region.getTimeToIdle())
+                : ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive(region))
+        );
+        if (region.getOffheap() != null) {
+            builder = builder
+                .withKeySerializer(new PlainJavaSerializer<>(classLoader))
+                .withValueSerializer(new PlainJavaSerializer<>(classLoader));
         }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(builder.build());
+    }
+
+    /**
+     * Build the configuration of a cache distributed over the Infinispan cluster from its {@code application.cache.regions}
+     * entry. The off-heap tier of the region does not apply, the entries stay on the heap of their owners.
+     * <p>
+     * The update timestamps region is replicated to every node instead, and never evicted nor expired: a query result is
+     * served from the cache unless a table it read was written since, and a missing timestamp counts as no write.
+     */
+    private org.infinispan.configuration.cache.Configuration infinispanConfiguration(String cacheName) {
+        ApplicationProperties.Cache.Region region = region(cacheName);
+
+        ConfigurationBuilder builder = new ConfigurationBuilder();
+        builder.encoding().mediaType(MediaType.APPLICATION_OBJECT_TYPE);
+        builder.statistics().enable();
+        if (RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME.equals(cacheName)) {
+            builder.clustering().cacheMode(CacheMode.REPL_SYNC);
+            return builder.build();
+        }
+        builder.clustering().cacheMode(CacheMode.DIST_SYNC).hash().numOwners(cache.getInfinispan().getNumOwners());
+        if (region.isNearCache()) {
+            builder.clustering().l1().enable().lifespan(timeToLive(region).toMillis());
+        }
+        builder.memory().maxCount(maxEntries(region));
+        if (region.getTimeToIdle() != null) {
+            builder.expiration().maxIdle(region.getTimeToIdle().toMillis());
+        } else {
+            builder.expiration().lifespan(timeToLive(region).toMillis());
+        }
+        return builder.build();
+    }
+
+    private ApplicationProperties.Cache.Region region(String cacheName) {
+        String regionName = cacheName.startsWith(DOMAIN_PREFIX) ? cacheName.substring(DOMAIN_PREFIX.length()) : cacheName;
+        return regions.getOrDefault(regionName, new ApplicationProperties.Cache.Region());
+    }
+
+    private long maxEntries(ApplicationProperties.Cache.Region region) {
+        return region.getMaxEntries() != null ? region.getMaxEntries() : ehcache.getMaxEntries();
+    }
+
+    private Duration timeToLive(ApplicationProperties.Cache.Region region) {
+        return region.getTimeToLive() != null ? region.getTimeToLive() : Duration.ofSeconds(ehcache.getTimeToLiveSeconds());
     }
 
     @Autowired(required = false)
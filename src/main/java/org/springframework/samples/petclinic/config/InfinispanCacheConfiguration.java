@@ -0,0 +1,159 @@
+package org.springframework.samples.petclinic.config;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.cache.Caching;
+import org.infinispan.commons.marshall.JavaSerializationMarshaller;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.jcache.embedded.JCacheManager;
+import org.infinispan.jcache.embedded.JCachingProvider;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.jgroups.JGroupsTransport;
+import org.jgroups.JChannel;
+import org.jgroups.protocols.FD_ALL3;
+import org.jgroups.protocols.FRAG2;
+import org.jgroups.protocols.MERGE3;
+import org.jgroups.protocols.MFC;
+import org.jgroups.protocols.TCP;
+import org.jgroups.protocols.TCPPING;
+import org.jgroups.protocols.UFC;
+import org.jgroups.protocols.UNICAST3;
+import org.jgroups.protocols.VERIFY_SUSPECT;
+import org.jgroups.protocols.pbcast.GMS;
+import org.jgroups.protocols.pbcast.NAKACK2;
+import org.jgroups.protocols.pbcast.STABLE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the local Ehcache by an embedded Infinispan cluster when {@code application.cache.provider} is
+ * {@code infinispan}, so that the second level cache stays consistent across the nodes of a multi-node deployment.
+ * <p>
+ * The nodes discover each other over TCP from the {@code application.cache.infinispan.initial-hosts}, no multicast is
+ * needed. The caches themselves are defined by {@link CacheConfiguration}.
+ * <p>
+ * The entries are sent between the nodes with Java serialization, restricted to the {@link #ALLOWED_CLASSES}: the
+ * Hibernate cache entries, the entities they disassemble and the cached principals.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.cache", name = "provider", havingValue = "infinispan")
+public class InfinispanCacheConfiguration {
+
+    /**
+     * Classes a node deserializes from the others, any other is rejected. The transport is not authenticated, so only the
+     * concrete classes the caches hold are allowed, not whole packages whose classes could be abused as gadgets. The
+     * patterns are anchored, so that they match whole class names.
+     */
+    private static final String[] ALLOWED_CLASSES = {
+        // The values of the disassembled entities, the timestamps and the ids
+        "^java\\.lang\\.(String|Boolean|Byte|Character|Short|Integer|Long|Float|Double|Number|Enum)$",
+        "^java\\.math\\.(BigDecimal|BigInteger)$",
+        // Every java.time value is written as its replacement
+        "^java\\.time\\.Ser$",
+        // The result lists and enabled filters of the query cache, the lock ids and the authority lists
+        "^java\\.util\\.(ArrayList|HashMap|HashSet|UUID|CollSer)$",
+        "^java\\.util\\.Collections\\$(EmptyList|EmptySet|EmptyMap|UnmodifiableCollection|UnmodifiableList|UnmodifiableRandomAccessList|UnmodifiableSet)$",
+        // The Serializable[] and Object[] of the disassembled entities, collections and query results
+        "^\\[Ljava\\.(io\\.Serializable|lang\\.Object);$",
+        // Cache keys, read-write items and entries of the second level cache
+        "^org\\.hibernate\\.cache\\.internal\\.(BasicCacheKeyImplementation|CacheKeyImplementation|NaturalIdCacheKey)$",
+        "^org\\.hibernate\\.cache\\.spi\\.support\\.AbstractReadWriteAccess\\$(Item|SoftLockImpl)$",
+        "^org\\.hibernate\\.cache\\.spi\\.entry\\.(StandardCacheEntryImpl|CollectionCacheEntry)$",
+        // Query keys and the cached query results
+        "^org\\.hibernate\\.cache\\.spi\\.QueryKey$",
+        "^org\\.hibernate\\.cache\\.internal\\.QueryResultsCacheImpl\\$CacheItem$",
+        "^org\\.hibernate\\.query\\.(internal\\.QueryParameterBindingsImpl|spi\\.QueryParameterBindings)\\$\\w+$",
+        "^org\\.springframework\\.samples\\.petclinic\\.domain\\.(AbstractAuditingEntity|Authority|Owner|Pet|PetType|Speciality|User|Vet|Visit)$",
+        "^org\\.springframework\\.samples\\.petclinic\\.security\\.PrincipalCache\\$CachedPrincipal$",
+        "^org\\.springframework\\.security\\.core\\.authority\\.SimpleGrantedAuthority$",
+        "^org\\.springframework\\.cache\\.support\\.NullValue$",
+    };
+
+    private final Logger log = LoggerFactory.getLogger(InfinispanCacheConfiguration.class);
+
+    private final ApplicationProperties.Cache.Infinispan infinispan;
+
+    public InfinispanCacheConfiguration(ApplicationProperties applicationProperties) {
+        this.infinispan = applicationProperties.getCache().getInfinispan();
+    }
+
+    @Bean(destroyMethod = "stop")
+    public EmbeddedCacheManager embeddedCacheManager() throws Exception {
+        GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+        global.transport().transport(new JGroupsTransport(channel())).clusterName(infinispan.getClusterName());
+        // The default ProtoStream marshaller only knows the classes it has a schema for, not the cached entities
+        global.serialization().marshaller(new JavaSerializationMarshaller()).allowList().addRegexps(ALLOWED_CLASSES);
+        DefaultCacheManager cacheManager = new DefaultCacheManager(global.build());
+        log.info("Joined the Infinispan cluster {} as {}", infinispan.getClusterName(), cacheManager.getAddress());
+        return cacheManager;
+    }
+
+    /**
+     * The JCache view of the {@link EmbeddedCacheManager}, used by Spring and Hibernate instead of the Ehcache one.
+     * Spring Boot only customizes the cache managers it creates, so the {@link JCacheManagerCustomizer}s are applied here.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(
+        EmbeddedCacheManager embeddedCacheManager,
+        ObjectProvider<JCacheManagerCustomizer> customizers
+    ) {
+        // The URI names the JMX statistics of the caches, it must differ between nodes sharing a JVM
+        javax.cache.CacheManager cacheManager = new JCacheManager(
+            URI.create(JCacheManager.class.getName() + "/" + embeddedCacheManager.getAddress()),
+            embeddedCacheManager,
+            Caching.getCachingProvider(JCachingProvider.class.getName())
+        );
+        customizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    private JChannel channel() throws Exception {
+        TCP tcp = new TCP();
+        tcp.setBindAddress(InetAddress.getByName(infinispan.getBindAddress()));
+        tcp.setBindPort(infinispan.getBindPort());
+        tcp.setPortRange(infinispan.getPortRange());
+
+        TCPPING tcpping = new TCPPING();
+        tcpping.setInitialHosts(initialHosts());
+        tcpping.setPortRange(infinispan.getPortRange());
+
+        return new JChannel(
+            tcp,
+            tcpping,
+            new MERGE3(),
+            new FD_ALL3(),
+            new VERIFY_SUSPECT(),
+            new NAKACK2(),
+            new UNICAST3(),
+            new STABLE(),
+            new GMS(),
+            new UFC(),
+            new MFC(),
+            new FRAG2()
+        );
+    }
+
+    private List<InetSocketAddress> initialHosts() throws UnknownHostException {
+        List<InetSocketAddress> initialHosts = new ArrayList<>();
+        for (String initialHost : infinispan.getInitialHosts()) {
+            int separator = initialHost.lastIndexOf(':');
+            initialHosts.add(
+                new InetSocketAddress(
+                    InetAddress.getByName(initialHost.substring(0, separator)),
+                    Integer.parseInt(initialHost.substring(separator + 1))
+                )
+            );
+        }
+        return initialHosts;
+    }
+}
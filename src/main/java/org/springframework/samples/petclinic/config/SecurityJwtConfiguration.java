@@ -5,6 +5,12 @@ import static org.springframework.samples.petclinic.security.SecurityUtils.JWT_A
 
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
@@ -13,8 +19,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.samples.petclinic.management.SecurityMetersService;
+import org.springframework.samples.petclinic.security.CachingJwtDecoder;
+import org.springframework.samples.petclinic.security.InvalidJwtException;
+import org.springframework.samples.petclinic.security.JwtTokenClassifier;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
@@ -25,32 +36,43 @@ public class SecurityJwtConfiguration {
 
     private final Logger log = LoggerFactory.getLogger(SecurityJwtConfiguration.class);
 
+    /**
+     * Distinct values of the authorities claim whose authorities are kept, there is one per combination of roles.
+     */
+    private static final int MAX_CACHED_AUTHORITIES = 256;
+
+    /**
+     * The clock skew of the default validator of {@link NimbusJwtDecoder}.
+     */
+    private static final Duration JWT_CLOCK_SKEW = Duration.ofSeconds(60);
+
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public JwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        JwtTokenClassifier tokenClassifier = new JwtTokenClassifier(getSecretKey(), JWT_ALGORITHM, JWT_CLOCK_SKEW);
+        // The invalid tokens are classified before decoding, so that they are rejected without parsing them
+        JwtDecoder classifyingJwtDecoder = token -> {
+            JwtTokenClassifier.Outcome outcome = tokenClassifier.classify(token);
+            if (outcome != JwtTokenClassifier.Outcome.VALID) {
+                metersService.trackInvalidToken(outcome);
+                throw new InvalidJwtException(outcome);
+            }
             try {
                 return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (
-                    e.getMessage().contains("Invalid JWT serialization") ||
-                    e.getMessage().contains("Malformed token") ||
-                    e.getMessage().contains("Invalid unsecured/JWS/JWE")
-                ) {
-                    metersService.trackTokenMalformed();
-                } else {
-                    log.error("Unknown JWT error {}", e.getMessage());
-                }
+            } catch (JwtException e) {
+                log.error("Unknown JWT error {}", e.getMessage());
                 throw e;
             }
         };
+        int maxEntries = applicationProperties.getSecurity().getJwtCache().getMaxEntries();
+        return maxEntries > 0 ? new CachingJwtDecoder(classifyingJwtDecoder, maxEntries, meterRegistry) : classifyingJwtDecoder;
     }
 
     @Bean
@@ -64,8 +86,23 @@ public class SecurityJwtConfiguration {
         grantedAuthoritiesConverter.setAuthorityPrefix("");
         grantedAuthoritiesConverter.setAuthoritiesClaimName(AUTHORITIES_KEY);
 
+        // The authorities only depend on the claim, which is the same for all the users having the same roles
+        Map<Object, Collection<GrantedAuthority>> authorities = new ConcurrentHashMap<>();
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
+        jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwt -> {
+            Object claim = jwt.getClaim(AUTHORITIES_KEY);
+            if (claim == null) {
+                return grantedAuthoritiesConverter.convert(jwt);
+            }
+            Collection<GrantedAuthority> cached = authorities.get(claim);
+            if (cached == null) {
+                cached = List.copyOf(grantedAuthoritiesConverter.convert(jwt));
+                if (authorities.size() < MAX_CACHED_AUTHORITIES) {
+                    authorities.put(claim, cached);
+                }
+            }
+            return cached;
+        });
         return jwtAuthenticationConverter;
     }
 
@@ -0,0 +1,33 @@
+package org.springframework.samples.petclinic.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Runs the servlet requests of Undertow on virtual threads when {@code spring.threads.virtual.enabled} is set on Java 21.
+ * <p>
+ * Spring Boot only switches Tomcat and Jetty to virtual threads. Undertow keeps its XNIO I/O threads, but dispatches
+ * the blocking servlet invocations to the executor of the deployment instead of its worker pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class UndertowVirtualThreadsConfiguration {
+
+    private static final String THREAD_NAME_PREFIX = "undertow-";
+
+    private final Logger log = LoggerFactory.getLogger(UndertowVirtualThreadsConfiguration.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreadsCustomizer() {
+        log.debug("Dispatching Undertow requests to virtual threads");
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor(THREAD_NAME_PREFIX);
+        return factory -> factory.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor));
+    }
+}
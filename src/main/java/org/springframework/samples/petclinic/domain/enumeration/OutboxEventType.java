@@ -0,0 +1,10 @@
+package org.springframework.samples.petclinic.domain.enumeration;
+
+/**
+ * The OutboxEventType enumeration.
+ */
+public enum OutboxEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+}
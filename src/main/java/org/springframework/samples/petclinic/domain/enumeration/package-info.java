@@ -0,0 +1,4 @@
+/**
+ * Domain enumerations.
+ */
+package org.springframework.samples.petclinic.domain.enumeration;
@@ -0,0 +1,59 @@
+package org.springframework.samples.petclinic.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the latencies of every cache to Micrometer.
+ * <p>
+ * The hit, miss, put, removal and eviction meters ({@code cache.gets}, {@code cache.puts}, ...) are bound by Spring Boot
+ * for every cache of the {@code cacheManager}, this binder adds the meters which {@code JCacheMetrics} does not provide,
+ * with the same tags. There is no size meter, JCache does not expose the number of entries of a cache.
+ */
+@Component
+public class CacheMetersBinder implements MeterBinder {
+
+    public static final String LATENCY_METER_NAME = "cache.latency";
+
+    private static final String CACHE_MANAGER_NAME = "cacheManager";
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public CacheMetersBinder(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String cacheName : cacheStatisticsService.getCacheNames()) {
+            Tags tags = Tags.of("cache", cacheName, "cache.manager", CACHE_MANAGER_NAME);
+            TimeGauge.builder(
+                LATENCY_METER_NAME,
+                cacheStatisticsService,
+                TimeUnit.MICROSECONDS,
+                statistic(cacheName, CacheRegionStatistics::averageGetMicros)
+            )
+                .tags(tags.and("operation", "get"))
+                .description("The average duration of an operation on this cache")
+                .register(registry);
+            TimeGauge.builder(
+                LATENCY_METER_NAME,
+                cacheStatisticsService,
+                TimeUnit.MICROSECONDS,
+                statistic(cacheName, CacheRegionStatistics::averagePutMicros)
+            )
+                .tags(tags.and("operation", "put"))
+                .description("The average duration of an operation on this cache")
+                .register(registry);
+        }
+    }
+
+    private static ToDoubleFunction<CacheStatisticsService> statistic(String cacheName, ToDoubleFunction<CacheRegionStatistics> value) {
+        return service -> service.getStatistics(cacheName).map(value::applyAsDouble).orElse(Double.NaN);
+    }
+}
@@ -0,0 +1,60 @@
+package org.springframework.samples.petclinic.management;
+
+/**
+ * Statistics of a cache region, read from its JCache statistics.
+ * <p>
+ * JCache does not expose the number of entries of a cache nor their size: an overwrite counts as a put, and the expired
+ * entries are not counted at all, so no entry count can be derived from the counters. The regions are compared by the
+ * hits each put brought instead.
+ *
+ * @param name the name of the cache.
+ * @param hits the number of gets served from the cache.
+ * @param misses the number of gets not found in the cache, each of them costing a load from the database.
+ * @param hitRatio the ratio of hits among the gets.
+ * @param puts the number of entries stored in the cache.
+ * @param removals the number of entries removed from the cache.
+ * @param evictions the number of entries evicted from the cache because it was full.
+ * @param averageGetMicros the average duration of a get, in microseconds.
+ * @param averagePutMicros the average duration of a put, in microseconds.
+ * @param hitsPerPut the number of hits per entry stored, below 1 when most of the entries are stored for nothing.
+ * @param capacityMisses the misses which a larger cache could have avoided, bounded by the evictions.
+ */
+public record CacheRegionStatistics(
+    String name,
+    long hits,
+    long misses,
+    double hitRatio,
+    long puts,
+    long removals,
+    long evictions,
+    float averageGetMicros,
+    float averagePutMicros,
+    double hitsPerPut,
+    long capacityMisses
+) {
+    static CacheRegionStatistics of(
+        String name,
+        long hits,
+        long misses,
+        long puts,
+        long removals,
+        long evictions,
+        float averageGetMicros,
+        float averagePutMicros
+    ) {
+        long gets = hits + misses;
+        return new CacheRegionStatistics(
+            name,
+            hits,
+            misses,
+            gets == 0 ? 0 : (double) hits / gets,
+            puts,
+            removals,
+            evictions,
+            averageGetMicros,
+            averagePutMicros,
+            puts == 0 ? 0 : (double) hits / puts,
+            Math.min(misses, evictions)
+        );
+    }
+}
@@ -0,0 +1,57 @@
+package org.springframework.samples.petclinic.management;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint ranking the cache regions, to size them from their actual usage:
+ * <ul>
+ *     <li>{@code byWastedMemory}: the regions with the fewest hits per entry stored, which could shrink, the regions
+ *     never written to last;</li>
+ *     <li>{@code byMissCost}: the regions with the most misses caused by evictions, which would benefit from growing.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "jhicaches")
+public class CacheRegionsEndpoint {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public CacheRegionsEndpoint(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @ReadOperation
+    public Map<String, List<CacheRegionStatistics>> regions() {
+        List<CacheRegionStatistics> statistics = cacheStatisticsService.getStatistics();
+        Map<String, List<CacheRegionStatistics>> rankings = new LinkedHashMap<>();
+        rankings.put(
+            "byWastedMemory",
+            statistics
+                .stream()
+                .sorted(
+                    Comparator.comparing((CacheRegionStatistics region) -> region.puts() == 0)
+                        .thenComparingDouble(CacheRegionStatistics::hitsPerPut)
+                        .thenComparing(Comparator.comparingLong(CacheRegionStatistics::puts).reversed())
+                )
+                .toList()
+        );
+        rankings.put(
+            "byMissCost",
+            statistics
+                .stream()
+                .sorted(
+                    Comparator.comparingLong(CacheRegionStatistics::capacityMisses)
+                        .thenComparingLong(CacheRegionStatistics::misses)
+                        .reversed()
+                )
+                .toList()
+        );
+        return rankings;
+    }
+}
@@ -0,0 +1,81 @@
+package org.springframework.samples.petclinic.management;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reads the JCache statistics of the caches, which {@code CacheConfiguration} enables for every cache.
+ * <p>
+ * The statistics are published by the cache provider as {@code CacheStatisticsMXBean}s in the platform MBean server.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private final Logger log = LoggerFactory.getLogger(CacheStatisticsService.class);
+
+    private final CacheManager cacheManager;
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public CacheStatisticsService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public Iterable<String> getCacheNames() {
+        return cacheManager.getCacheNames();
+    }
+
+    public List<CacheRegionStatistics> getStatistics() {
+        List<CacheRegionStatistics> statistics = new ArrayList<>();
+        StreamSupport.stream(getCacheNames().spliterator(), false).forEach(name -> getStatistics(name).ifPresent(statistics::add));
+        return statistics;
+    }
+
+    public Optional<CacheRegionStatistics> getStatistics(String cacheName) {
+        try {
+            ObjectName objectName = objectName(cacheName);
+            if (!mBeanServer.isRegistered(objectName)) {
+                return Optional.empty();
+            }
+            return Optional.of(
+                CacheRegionStatistics.of(
+                    cacheName,
+                    (Long) mBeanServer.getAttribute(objectName, "CacheHits"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheMisses"),
+                    (Long) mBeanServer.getAttribute(objectName, "CachePuts"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheRemovals"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheEvictions"),
+                    (Float) mBeanServer.getAttribute(objectName, "AverageGetTime"),
+                    (Float) mBeanServer.getAttribute(objectName, "AveragePutTime")
+                )
+            );
+        } catch (JMException e) {
+            log.debug("Could not read the statistics of cache {}: {}", cacheName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The name under which JSR-107 providers register the statistics of a cache, see
+     * {@link io.micrometer.core.instrument.binder.cache.JCacheMetrics}.
+     */
+    private ObjectName objectName(String cacheName) throws JMException {
+        return new ObjectName(
+            "javax.cache:type=CacheStatistics,CacheManager=" + sanitize(cacheManager.getURI().toString()) + ",Cache=" + sanitize(cacheName)
+        );
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll(",|:|=|\n", ".");
+    }
+}
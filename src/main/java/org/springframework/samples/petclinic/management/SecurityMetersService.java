@@ -2,6 +2,7 @@ package org.springframework.samples.petclinic.management;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.samples.petclinic.security.JwtTokenClassifier;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -32,6 +33,21 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    /**
+     * Track an invalid token, from the outcome of its classification.
+     *
+     * @param outcome the outcome, nothing is tracked for a valid token.
+     */
+    public void trackInvalidToken(JwtTokenClassifier.Outcome outcome) {
+        switch (outcome) {
+            case MALFORMED -> trackTokenMalformed();
+            case UNSUPPORTED -> trackTokenUnsupported();
+            case EXPIRED -> trackTokenExpired();
+            case INVALID_SIGNATURE -> trackTokenInvalidSignature();
+            case VALID -> {}
+        }
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
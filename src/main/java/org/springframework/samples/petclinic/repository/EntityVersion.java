@@ -0,0 +1,12 @@
+package org.springframework.samples.petclinic.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection on the version of an entity, read without loading the entity nor its relationships.
+ */
+public interface EntityVersion {
+    Long getVersion();
+
+    Instant getLastModifiedDate();
+}
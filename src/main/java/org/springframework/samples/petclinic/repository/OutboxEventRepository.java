@@ -0,0 +1,23 @@
+package org.springframework.samples.petclinic.repository;
+
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.samples.petclinic.domain.OutboxEvent;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Lock the oldest events, skipping the ones locked by another relay, so that several instances can drain the outbox
+     * concurrently without relaying an event twice.
+     *
+     * @param limit the maximum number of events to lock.
+     * @return the locked events, by id, which is only about their creation order since each node has its own block of ids.
+     */
+    @Query(value = "select * from outbox_event order by id limit :limit for update skip locked", nativeQuery = true)
+    List<OutboxEvent> findNextBatchForUpdate(@Param("limit") int limit);
+}
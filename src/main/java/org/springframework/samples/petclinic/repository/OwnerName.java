@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.repository;
+
+/**
+ * Projection on the names and telephone of an owner, read without loading the owner nor its pets.
+ */
+public interface OwnerName {
+    Long getId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getTelephone();
+
+    Long getVersion();
+}
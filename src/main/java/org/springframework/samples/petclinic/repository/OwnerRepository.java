@@ -1,6 +1,11 @@
 package org.springframework.samples.petclinic.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.samples.petclinic.domain.Owner;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +14,18 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OwnerRepository extends JpaRepository<Owner, Long>, JpaSpecificationExecutor<Owner> {}
+public interface OwnerRepository extends OwnerRepositoryWithProjections, JpaRepository<Owner, Long>, JpaSpecificationExecutor<Owner> {
+    Optional<EntityVersion> findVersionById(Long id);
+
+    @EntityGraph(attributePaths = "pets")
+    List<Owner> findAllWithPetsByIdIn(Collection<Long> ids);
+
+    @Query("select owner.id from Owner owner where owner.id > :id order by owner.id")
+    List<Long> findIdsAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query(
+        "select owner.id as id, owner.firstName as firstName, owner.lastName as lastName, owner.telephone as telephone," +
+        " owner.version as version from Owner owner where owner.id > :id order by owner.id"
+    )
+    List<OwnerName> findNamesAfter(@Param("id") Long id, Pageable pageable);
+}
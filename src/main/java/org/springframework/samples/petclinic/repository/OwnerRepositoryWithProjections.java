@@ -0,0 +1,19 @@
+package org.springframework.samples.petclinic.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.samples.petclinic.domain.Owner;
+
+public interface OwnerRepositoryWithProjections {
+    /**
+     * Find a page of the owners matching the specification, as tuples of their columns aliased with the
+     * {@link org.springframework.samples.petclinic.domain.Owner_} attribute names.
+     *
+     * @param specification the specification the owners must match.
+     * @param pageable the page to return.
+     * @return the page of tuples.
+     */
+    Page<Tuple> findAllProjected(Specification<Owner> specification, Pageable pageable);
+}
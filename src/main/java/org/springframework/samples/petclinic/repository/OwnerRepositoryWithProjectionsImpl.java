@@ -0,0 +1,44 @@
+package org.springframework.samples.petclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.samples.petclinic.domain.Owner;
+import org.springframework.samples.petclinic.domain.Owner_;
+
+/**
+ * Utility repository to read owners as tuples, without hydrating entities.
+ */
+public class OwnerRepositoryWithProjectionsImpl implements OwnerRepositoryWithProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> findAllProjected(Specification<Owner> specification, Pageable pageable) {
+        return tupleQuery().findAll(specification, pageable);
+    }
+
+    private SpecificationTupleQuery<Owner> tupleQuery() {
+        return new SpecificationTupleQuery<>(
+            entityManager,
+            Owner.class,
+            root ->
+                List.of(
+                    root.get(Owner_.id).alias(Owner_.ID),
+                    root.get(Owner_.firstName).alias(Owner_.FIRST_NAME),
+                    root.get(Owner_.lastName).alias(Owner_.LAST_NAME),
+                    root.get(Owner_.email).alias(Owner_.EMAIL),
+                    root.get(Owner_.address).alias(Owner_.ADDRESS),
+                    root.get(Owner_.city).alias(Owner_.CITY),
+                    root.get(Owner_.telephone).alias(Owner_.TELEPHONE),
+                    root.get(Owner_.version).alias(Owner_.VERSION),
+                    root.get(Owner_.lastModifiedDate).alias(Owner_.LAST_MODIFIED_DATE)
+                )
+        );
+    }
+}
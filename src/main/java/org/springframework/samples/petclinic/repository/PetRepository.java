@@ -1,5 +1,6 @@
 package org.springframework.samples.petclinic.repository;
 
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.samples.petclinic.domain.Pet;
 import org.springframework.stereotype.Repository;
@@ -9,4 +10,6 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PetRepository extends JpaRepository<Pet, Long>, JpaSpecificationExecutor<Pet> {}
+public interface PetRepository extends PetRepositoryWithProjections, JpaRepository<Pet, Long>, JpaSpecificationExecutor<Pet> {
+    Optional<EntityVersion> findVersionById(Long id);
+}
@@ -0,0 +1,36 @@
+package org.springframework.samples.petclinic.repository;
+
+import jakarta.persistence.Tuple;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.samples.petclinic.domain.Pet;
+
+public interface PetRepositoryWithProjections {
+    String TYPE_ID = "typeId";
+
+    String OWNER_ID = "ownerId";
+
+    /**
+     * Find a page of the pets matching the specification, as tuples of their columns aliased with the
+     * {@link org.springframework.samples.petclinic.domain.Pet_} attribute names, plus {@link #TYPE_ID} and {@link #OWNER_ID}.
+     *
+     * @param specification the specification the pets must match.
+     * @param pageable the page to return.
+     * @return the page of tuples.
+     */
+    Page<Tuple> findAllProjected(Specification<Pet> specification, Pageable pageable);
+
+    /**
+     * Find the first pets matching the specification, as tuples of their columns aliased with the
+     * {@link org.springframework.samples.petclinic.domain.Pet_} attribute names, plus {@link #TYPE_ID} and {@link #OWNER_ID}.
+     *
+     * @param specification the specification the pets must match.
+     * @param sort the order of the pets.
+     * @param limit the maximum number of pets to return.
+     * @return the list of tuples.
+     */
+    List<Tuple> findAllProjected(Specification<Pet> specification, Sort sort, int limit);
+}
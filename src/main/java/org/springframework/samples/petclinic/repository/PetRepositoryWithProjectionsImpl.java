@@ -0,0 +1,51 @@
+package org.springframework.samples.petclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.samples.petclinic.domain.Owner_;
+import org.springframework.samples.petclinic.domain.Pet;
+import org.springframework.samples.petclinic.domain.PetType_;
+import org.springframework.samples.petclinic.domain.Pet_;
+
+/**
+ * Utility repository to read pets as tuples, without hydrating entities.
+ */
+public class PetRepositoryWithProjectionsImpl implements PetRepositoryWithProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> findAllProjected(Specification<Pet> specification, Pageable pageable) {
+        return tupleQuery().findAll(specification, pageable);
+    }
+
+    @Override
+    public List<Tuple> findAllProjected(Specification<Pet> specification, Sort sort, int limit) {
+        return tupleQuery().findAll(specification, sort, limit);
+    }
+
+    private SpecificationTupleQuery<Pet> tupleQuery() {
+        // The ids of the relationships are read from the foreign key columns, without joining the related tables
+        return new SpecificationTupleQuery<>(
+            entityManager,
+            Pet.class,
+            root ->
+                List.of(
+                    root.get(Pet_.id).alias(Pet_.ID),
+                    root.get(Pet_.name).alias(Pet_.NAME),
+                    root.get(Pet_.birthDate).alias(Pet_.BIRTH_DATE),
+                    root.get(Pet_.type).get(PetType_.id).alias(TYPE_ID),
+                    root.get(Pet_.owner).get(Owner_.id).alias(OWNER_ID),
+                    root.get(Pet_.version).alias(Pet_.VERSION),
+                    root.get(Pet_.lastModifiedDate).alias(Pet_.LAST_MODIFIED_DATE)
+                )
+        );
+    }
+}
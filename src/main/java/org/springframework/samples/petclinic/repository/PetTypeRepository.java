@@ -1,12 +1,44 @@
 package org.springframework.samples.petclinic.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.samples.petclinic.domain.PetType;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the PetType entity.
+ * <p>
+ * The pet types are reference data read by every form and rarely written, so the criteria queries and their counts are
+ * stored in the {@link #QUERY_CACHE} query cache region. Hibernate invalidates them whenever the tables they read are
+ * written, through the update timestamps region.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PetTypeRepository extends JpaRepository<PetType, Long>, JpaSpecificationExecutor<PetType> {}
+public interface PetTypeRepository extends JpaRepository<PetType, Long>, JpaSpecificationExecutor<PetType> {
+    String QUERY_CACHE = "query.PetType";
+
+    @Override
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE)
+        }
+    )
+    Page<PetType> findAll(Specification<PetType> spec, Pageable pageable);
+
+    @Override
+    @QueryHints(
+        {
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE)
+        }
+    )
+    long count(Specification<PetType> spec);
+
+    Optional<EntityVersion> findVersionById(Long id);
+}
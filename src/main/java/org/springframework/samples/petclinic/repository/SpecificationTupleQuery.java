@@ -0,0 +1,80 @@
+package org.springframework.samples.petclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+/**
+ * Criteria query selecting a {@link Tuple} of columns, instead of the entity, for the rows matching a {@link Specification}.
+ * <p>
+ * No entity is hydrated: there is no persistence context snapshot, no second level cache put and no proxy for the
+ * relationships, whose ids are read from the foreign key columns.
+ *
+ * @param <T> the type of the queried entity.
+ */
+class SpecificationTupleQuery<T> {
+
+    private final EntityManager entityManager;
+
+    private final Class<T> domainClass;
+
+    private final Function<Root<T>, List<Selection<?>>> selection;
+
+    SpecificationTupleQuery(EntityManager entityManager, Class<T> domainClass, Function<Root<T>, List<Selection<?>>> selection) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+        this.selection = selection;
+    }
+
+    Page<Tuple> findAll(Specification<T> specification, Pageable pageable) {
+        List<Tuple> content = createQuery(specification, pageable.getSort())
+            .setFirstResult(pageable.isPaged() ? (int) pageable.getOffset() : 0)
+            .setMaxResults(pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE)
+            .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    List<Tuple> findAll(Specification<T> specification, Sort sort, int limit) {
+        return createQuery(specification, sort).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<Tuple> createQuery(Specification<T> specification, Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(selection.apply(root));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<T> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? builder.countDistinct(root) : builder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -27,4 +27,6 @@ public interface VetRepository extends VetRepositoryWithBagRelationships, JpaRep
     default Page<Vet> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    Optional<EntityVersion> findVersionById(Long id);
 }
@@ -1,27 +1,22 @@
 package org.springframework.samples.petclinic.repository;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.samples.petclinic.domain.Vet;
 
 /**
  * Utility repository to load bag relationships based on https://vladmihalcea.com/hibernate-multiplebagfetchexception/
+ * <p>
+ * The vets are already loaded, so only their specialities are fetched: {@link Vet#getSpecialities()} is batch fetched,
+ * which initializes the collections of all the loaded vets with a single query keyed on their ids, or with none when
+ * they are in the second level cache. The vets are neither selected a second time nor re-sorted.
  */
 public class VetRepositoryWithBagRelationshipsImpl implements VetRepositoryWithBagRelationships {
 
-    private static final String ID_PARAMETER = "id";
-    private static final String VETS_PARAMETER = "vets";
-
-    @PersistenceContext
-    private EntityManager entityManager;
-
     @Override
     public Optional<Vet> fetchBagRelationships(Optional<Vet> vet) {
         return vet.map(this::fetchSpecialities);
@@ -38,20 +33,13 @@ public class VetRepositoryWithBagRelationshipsImpl implements VetRepositoryWithB
     }
 
     Vet fetchSpecialities(Vet result) {
-        return entityManager
-            .createQuery("select vet from Vet vet left join fetch vet.specialities where vet.id = :id", Vet.class)
-            .setParameter(ID_PARAMETER, result.getId())
-            .getSingleResult();
+        Hibernate.initialize(result.getSpecialities());
+        return result;
     }
 
     List<Vet> fetchSpecialities(List<Vet> vets) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, vets.size()).forEach(index -> order.put(vets.get(index).getId(), index));
-        List<Vet> result = entityManager
-            .createQuery("select vet from Vet vet left join fetch vet.specialities where vet in :vets", Vet.class)
-            .setParameter(VETS_PARAMETER, vets)
-            .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+        // The first initialization batch loads the specialities of the other vets, the next ones are no-ops
+        vets.forEach(vet -> Hibernate.initialize(vet.getSpecialities()));
+        return vets;
     }
 }
@@ -0,0 +1,18 @@
+package org.springframework.samples.petclinic.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection on what a visit is counted by in the visit rollups, read without loading the visit nor its relationships.
+ */
+public interface VisitBuckets {
+    Long getId();
+
+    LocalDate getVisitDate();
+
+    Long getVetId();
+
+    Long getPetTypeId();
+
+    String getCity();
+}
@@ -0,0 +1,16 @@
+package org.springframework.samples.petclinic.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection on the number of visits of a period, read from the visit rollups.
+ */
+public interface VisitCount {
+    LocalDate getPeriod();
+
+    Long getId();
+
+    String getName();
+
+    Long getVisits();
+}
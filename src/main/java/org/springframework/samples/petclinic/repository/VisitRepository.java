@@ -1,5 +1,6 @@
 package org.springframework.samples.petclinic.repository;
 
+import java.util.Optional;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.samples.petclinic.domain.Visit;
 import org.springframework.stereotype.Repository;
@@ -9,4 +10,7 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface VisitRepository extends JpaRepository<Visit, Long>, JpaSpecificationExecutor<Visit> {}
+public interface VisitRepository
+    extends VisitRepositoryWithStreaming, VisitRepositoryWithProjections, JpaRepository<Visit, Long>, JpaSpecificationExecutor<Visit> {
+    Optional<EntityVersion> findVersionById(Long id);
+}
@@ -0,0 +1,36 @@
+package org.springframework.samples.petclinic.repository;
+
+import jakarta.persistence.Tuple;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.samples.petclinic.domain.Visit;
+
+public interface VisitRepositoryWithProjections {
+    String VET_ID = "vetId";
+
+    String PET_ID = "petId";
+
+    /**
+     * Find a page of the visits matching the specification, as tuples of their columns aliased with the
+     * {@link org.springframework.samples.petclinic.domain.Visit_} attribute names, plus {@link #VET_ID} and {@link #PET_ID}.
+     *
+     * @param specification the specification the visits must match.
+     * @param pageable the page to return.
+     * @return the page of tuples.
+     */
+    Page<Tuple> findAllProjected(Specification<Visit> specification, Pageable pageable);
+
+    /**
+     * Find the first visits matching the specification, as tuples of their columns aliased with the
+     * {@link org.springframework.samples.petclinic.domain.Visit_} attribute names, plus {@link #VET_ID} and {@link #PET_ID}.
+     *
+     * @param specification the specification the visits must match.
+     * @param sort the order of the visits.
+     * @param limit the maximum number of visits to return.
+     * @return the list of tuples.
+     */
+    List<Tuple> findAllProjected(Specification<Visit> specification, Sort sort, int limit);
+}
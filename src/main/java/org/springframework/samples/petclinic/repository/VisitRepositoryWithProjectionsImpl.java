@@ -0,0 +1,50 @@
+package org.springframework.samples.petclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.samples.petclinic.domain.Pet_;
+import org.springframework.samples.petclinic.domain.Vet_;
+import org.springframework.samples.petclinic.domain.Visit;
+import org.springframework.samples.petclinic.domain.Visit_;
+
+/**
+ * Utility repository to read visits as tuples, without hydrating entities.
+ */
+public class VisitRepositoryWithProjectionsImpl implements VisitRepositoryWithProjections {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> findAllProjected(Specification<Visit> specification, Pageable pageable) {
+        return tupleQuery().findAll(specification, pageable);
+    }
+
+    @Override
+    public List<Tuple> findAllProjected(Specification<Visit> specification, Sort sort, int limit) {
+        return tupleQuery().findAll(specification, sort, limit);
+    }
+
+    private SpecificationTupleQuery<Visit> tupleQuery() {
+        // The ids of the relationships are read from the foreign key columns, without joining the related tables
+        return new SpecificationTupleQuery<>(
+            entityManager,
+            Visit.class,
+            root ->
+                List.of(
+                    root.get(Visit_.id).alias(Visit_.ID),
+                    root.get(Visit_.date).alias(Visit_.DATE),
+                    root.get(Visit_.vet).get(Vet_.id).alias(VET_ID),
+                    root.get(Visit_.pet).get(Pet_.id).alias(PET_ID),
+                    root.get(Visit_.version).alias(Visit_.VERSION),
+                    root.get(Visit_.lastModifiedDate).alias(Visit_.LAST_MODIFIED_DATE)
+                )
+        );
+    }
+}
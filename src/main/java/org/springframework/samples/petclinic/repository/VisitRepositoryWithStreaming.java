@@ -0,0 +1,17 @@
+package org.springframework.samples.petclinic.repository;
+
+import java.util.function.Consumer;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.samples.petclinic.domain.Visit;
+
+public interface VisitRepositoryWithStreaming {
+    /**
+     * Iterate over all the visits matching the specification, in id order, without materializing the result list.
+     * Must be called within a transaction.
+     *
+     * @param specification the specification the visits must match.
+     * @param fetchSize the number of rows fetched from the database per round trip.
+     * @param action the action applied to each visit, which is detached once the next batch is fetched.
+     */
+    void streamAll(Specification<Visit> specification, int fetchSize, Consumer<Visit> action);
+}
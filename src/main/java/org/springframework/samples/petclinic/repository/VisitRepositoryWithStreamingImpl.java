@@ -0,0 +1,58 @@
+package org.springframework.samples.petclinic.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.samples.petclinic.domain.Visit;
+import org.springframework.samples.petclinic.domain.Visit_;
+
+/**
+ * Utility repository to stream visits through a JDBC cursor.
+ * <p>
+ * The query is read-only and bypasses the second level cache, and the persistence context is cleared after every
+ * fetched batch, so memory stays flat whatever the size of the result.
+ */
+public class VisitRepositoryWithStreamingImpl implements VisitRepositoryWithStreaming {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void streamAll(Specification<Visit> specification, int fetchSize, Consumer<Visit> action) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Visit> query = builder.createQuery(Visit.class);
+        Root<Visit> root = query.from(Visit.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(builder.asc(root.get(Visit_.id)));
+
+        try (
+            Stream<Visit> visits = entityManager
+                .createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()
+        ) {
+            Iterator<Visit> iterator = visits.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % fetchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.springframework.samples.petclinic.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.samples.petclinic.domain.Visit;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the daily counts of the visits per vet, per pet type and per city, which are not
+ * entities.
+ * <p>
+ * The counts are updated with upserts, which lock the rows of the days changed until the end of the transaction. The
+ * periods are truncated with {@code date_trunc}, whose weeks start on Monday.
+ */
+@Repository
+public interface VisitRollupRepository extends org.springframework.data.repository.Repository<Visit, Long> {
+    @Query(
+        "select visit.id as id, visit.date as visitDate, vet.id as vetId, petType.id as petTypeId, petOwner.city as city" +
+        " from Visit visit left join visit.vet vet left join visit.pet pet left join pet.type petType left join pet.owner petOwner" +
+        " where visit.id in :ids"
+    )
+    List<VisitBuckets> findBucketsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(
+        value = "insert into visit_vet_day_rollup (day, vet_id, visits) values (:day, :vetId, :visits)" +
+        " on conflict (day, vet_id) do update set visits = visit_vet_day_rollup.visits + excluded.visits",
+        nativeQuery = true
+    )
+    void addVetVisits(@Param("day") LocalDate day, @Param("vetId") Long vetId, @Param("visits") long visits);
+
+    @Modifying
+    @Query(
+        value = "insert into visit_pet_type_day_rollup (day, pet_type_id, visits) values (:day, :petTypeId, :visits)" +
+        " on conflict (day, pet_type_id) do update set visits = visit_pet_type_day_rollup.visits + excluded.visits",
+        nativeQuery = true
+    )
+    void addPetTypeVisits(@Param("day") LocalDate day, @Param("petTypeId") Long petTypeId, @Param("visits") long visits);
+
+    @Modifying
+    @Query(
+        value = "insert into visit_city_day_rollup (day, city, visits) values (:day, :city, :visits)" +
+        " on conflict (day, city) do update set visits = visit_city_day_rollup.visits + excluded.visits",
+        nativeQuery = true
+    )
+    void addCityVisits(@Param("day") LocalDate day, @Param("city") String city, @Param("visits") long visits);
+
+    @Query(
+        value = "select counts.period as period, counts.vet_id as id, concat(vet.first_name, ' ', vet.last_name) as name," +
+        " counts.visits as visits from (" +
+        "select cast(date_trunc(:unit, cast(r.day as timestamp)) as date) as period, r.vet_id," +
+        " cast(sum(r.visits) as bigint) as visits" +
+        " from visit_vet_day_rollup r where r.day >= :fromDate and r.day < :toDate group by 1, 2 having sum(r.visits) > 0" +
+        ") counts left join vet on vet.id = counts.vet_id order by counts.period, counts.visits desc, counts.vet_id",
+        nativeQuery = true
+    )
+    List<VisitCount> countByVet(@Param("unit") String unit, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query(
+        value = "select counts.period as period, counts.pet_type_id as id, pet_type.name as name," +
+        " counts.visits as visits from (" +
+        "select cast(date_trunc(:unit, cast(r.day as timestamp)) as date) as period, r.pet_type_id," +
+        " cast(sum(r.visits) as bigint) as visits" +
+        " from visit_pet_type_day_rollup r where r.day >= :fromDate and r.day < :toDate group by 1, 2 having sum(r.visits) > 0" +
+        ") counts left join pet_type on pet_type.id = counts.pet_type_id" +
+        " order by counts.period, counts.visits desc, counts.pet_type_id",
+        nativeQuery = true
+    )
+    List<VisitCount> countByPetType(@Param("unit") String unit, @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Query(
+        value = "select r.city as name, cast(sum(r.visits) as bigint) as visits from visit_city_day_rollup r" +
+        " where r.day >= :fromDate and r.day < :toDate group by r.city having sum(r.visits) > 0 order by 2 desc, 1 limit :limit",
+        nativeQuery = true
+    )
+    List<VisitCount> findBusiestCities(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate, @Param("limit") int limit);
+
+    /**
+     * Lock the rollups against the updates of the visits until the end of the transaction, while they can still be read.
+     */
+    @Modifying
+    @Query(
+        value = "lock table visit_vet_day_rollup, visit_pet_type_day_rollup, visit_city_day_rollup in share row exclusive mode",
+        nativeQuery = true
+    )
+    void lockRollups();
+
+    /**
+     * Lock a scheduled task until some seconds from now, unless it is locked already, without waiting for the transaction
+     * of another node locking it.
+     *
+     * @return 1 if the task was locked, 0 if it is locked by another node or transaction.
+     */
+    @Modifying
+    @Query(
+        value = "update scheduled_task_lock set locked_until = now() + :seconds * interval '1 second'" +
+        " where name = (select name from scheduled_task_lock where name = :name and locked_until <= now() for update skip locked)",
+        nativeQuery = true
+    )
+    int lockScheduledTask(@Param("name") String name, @Param("seconds") long seconds);
+
+    @Modifying
+    @Query(value = "delete from visit_vet_day_rollup", nativeQuery = true)
+    void deleteVetVisits();
+
+    @Modifying
+    @Query(value = "delete from visit_pet_type_day_rollup", nativeQuery = true)
+    void deletePetTypeVisits();
+
+    @Modifying
+    @Query(value = "delete from visit_city_day_rollup", nativeQuery = true)
+    void deleteCityVisits();
+
+    @Modifying
+    @Query(
+        value = "insert into visit_vet_day_rollup (day, vet_id, visits)" +
+        " select v.date, v.vet_id, count(*) from visit v where v.date is not null and v.vet_id is not null group by v.date, v.vet_id",
+        nativeQuery = true
+    )
+    int countVetVisits();
+
+    @Modifying
+    @Query(
+        value = "insert into visit_pet_type_day_rollup (day, pet_type_id, visits)" +
+        " select v.date, p.type_id, count(*) from visit v join pet p on p.id = v.pet_id" +
+        " where v.date is not null and p.type_id is not null group by v.date, p.type_id",
+        nativeQuery = true
+    )
+    int countPetTypeVisits();
+
+    @Modifying
+    @Query(
+        value = "insert into visit_city_day_rollup (day, city, visits)" +
+        " select v.date, o.city, count(*) from visit v join pet p on p.id = v.pet_id join owner o on o.id = p.owner_id" +
+        " where v.date is not null and o.city is not null group by v.date, o.city",
+        nativeQuery = true
+    )
+    int countCityVisits();
+}
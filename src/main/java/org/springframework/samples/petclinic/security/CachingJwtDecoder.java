@@ -0,0 +1,171 @@
+package org.springframework.samples.petclinic.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} keeping the tokens decoded by another decoder, so that a token sent on every request is parsed
+ * and its signature verified once.
+ * <p>
+ * The tokens are keyed by their SHA-256 digest, so that the cache does not hold the bearer tokens themselves. A token is
+ * served from the cache until its {@code exp} claim only: it is then decoded again, and rejected, by the delegate.
+ * Tokens without an expiry and tokens which fail to decode are never cached, so that every invalid token still goes
+ * through the delegate and its metrics.
+ * <p>
+ * Beyond {@code maxEntries} tokens, the expired tokens are evicted, then the least recently used ones.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    public static final String REQUESTS_METER_NAME = "security.jwt.cache.requests";
+    public static final String REQUESTS_METER_RESULT_DIMENSION = "result";
+    public static final String SIZE_METER_NAME = "security.jwt.cache.size";
+    public static final String EVICTIONS_METER_NAME = "security.jwt.cache.evictions";
+
+    /**
+     * Eviction frees this share of the entries at once, so that it does not run on every miss of a full cache.
+     */
+    private static final double EVICTION_RATIO = 0.1;
+
+    private final JwtDecoder delegate;
+
+    private final int maxEntries;
+
+    private final Clock clock;
+
+    private final Map<String, CachedJwt> cache = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final Counter evictionCounter;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry) {
+        this(delegate, maxEntries, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+
+        Gauge.builder(SIZE_METER_NAME, cache, Map::size)
+            .description("Decoded tokens kept by the JWT cache")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+        this.hitCounter = requestsCounter(meterRegistry, "hit");
+        this.missCounter = requestsCounter(meterRegistry, "miss");
+        this.evictionCounter = Counter.builder(EVICTIONS_METER_NAME)
+            .description("Tokens evicted from the JWT cache before they expired")
+            .baseUnit("tokens")
+            .register(meterRegistry);
+    }
+
+    private static Counter requestsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(REQUESTS_METER_NAME)
+            .description("Tokens looked up in the JWT cache")
+            .baseUnit("tokens")
+            .tag(REQUESTS_METER_RESULT_DIMENSION, result)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+        Instant now = clock.instant();
+        CachedJwt cached = cache.get(key);
+        if (cached != null) {
+            if (now.isBefore(cached.jwt().getExpiresAt())) {
+                cached.lastAccess = now.toEpochMilli();
+                hitCounter.increment();
+                return cached.jwt();
+            }
+            cache.remove(key, cached);
+        }
+        missCounter.increment();
+
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && now.isBefore(jwt.getExpiresAt())) {
+            cache.put(key, new CachedJwt(jwt, now.toEpochMilli()));
+            if (cache.size() > maxEntries) {
+                evict(now);
+            }
+        }
+        return jwt;
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private void evict(Instant now) {
+        // A single thread evicts, the others keep adding tokens meanwhile
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            cache.values().removeIf(cached -> !now.isBefore(cached.jwt().getExpiresAt()));
+            int excess = cache.size() - (int) (maxEntries * (1 - EVICTION_RATIO));
+            if (excess <= 0) {
+                return;
+            }
+            // The access times are read once, as they keep changing while sorting
+            List<Access> accesses = new ArrayList<>(cache.size());
+            cache.forEach((key, cached) -> accesses.add(new Access(key, cached, cached.lastAccess)));
+            accesses.sort(Comparator.comparingLong(Access::lastAccess));
+            for (Access access : accesses.subList(0, Math.min(excess, accesses.size()))) {
+                if (cache.remove(access.key(), access.cached())) {
+                    evictionCounter.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Access(String key, CachedJwt cached, long lastAccess) {}
+
+    private static final class CachedJwt {
+
+        private final Jwt jwt;
+
+        private volatile long lastAccess;
+
+        private CachedJwt(Jwt jwt, long lastAccess) {
+            this.jwt = jwt;
+            this.lastAccess = lastAccess;
+        }
+
+        private Jwt jwt() {
+            return jwt;
+        }
+    }
+}
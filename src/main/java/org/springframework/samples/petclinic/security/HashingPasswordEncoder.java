@@ -0,0 +1,193 @@
+package org.springframework.samples.petclinic.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} hashing the passwords with the algorithm of {@code application.security.password}, on a
+ * bounded pool of threads.
+ * <p>
+ * The hashes are prefixed with the id of their algorithm, e.g. {@code {bcrypt}}, and the hashes without prefix are
+ * BCrypt hashes. {@link #upgradeEncoding(String)} tells the hashes of another algorithm or of a lower cost apart, so
+ * that {@link DomainUserDetailsService} rehashes them when their user logs in.
+ * <p>
+ * At most {@code hashing-threads} passwords are hashed at once, so that a login spike cannot take all the processors.
+ * The callers wait for their hash, and beyond {@code hashing-queue-capacity} waiting callers a
+ * {@link PasswordHashingRejectedException} is thrown.
+ */
+public class HashingPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    public static final String HASHING_METER_NAME = "security.password.hashing";
+    public static final String HASHING_METER_ALGORITHM_DIMENSION = "algorithm";
+    public static final String HASHING_METER_OPERATION_DIMENSION = "operation";
+    public static final String QUEUE_METER_NAME = "security.password.hashing.queue";
+    public static final String REJECTED_METER_NAME = "security.password.hashing.rejected";
+    public static final String UPGRADES_METER_NAME = "security.password.upgrades";
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    private static final String PBKDF2_ID = "pbkdf2@SpringSecurity_v5_8";
+
+    private final DelegatingPasswordEncoder delegate;
+
+    private final String idForEncode;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Timer> encodeTimers;
+
+    private final Map<String, Timer> matchesTimers;
+
+    private final Counter rejectedCounter;
+
+    private final Counter upgradesCounter;
+
+    public HashingPasswordEncoder(ApplicationProperties.Security.Password properties, MeterRegistry meterRegistry) {
+        Pbkdf2PasswordEncoder pbkdf2PasswordEncoder = new Pbkdf2PasswordEncoder(
+            "",
+            16,
+            properties.getPbkdf2Iterations(),
+            Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256
+        );
+        BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(properties.getBcryptStrength());
+        this.idForEncode = switch (properties.getAlgorithm()) {
+            case BCRYPT -> BCRYPT_ID;
+            case PBKDF2 -> PBKDF2_ID;
+        };
+        this.delegate = new DelegatingPasswordEncoder(idForEncode, Map.of(BCRYPT_ID, bCryptPasswordEncoder, PBKDF2_ID, pbkdf2PasswordEncoder));
+        delegate.setDefaultPasswordEncoderForMatches(bCryptPasswordEncoder);
+
+        this.executor = new ThreadPoolExecutor(
+            properties.getHashingThreads(),
+            properties.getHashingThreads(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getHashingQueueCapacity()),
+            new CustomizableThreadFactory("password-hashing-")
+        );
+
+        this.encodeTimers = Map.of(
+            BCRYPT_ID,
+            hashingTimer(meterRegistry, "bcrypt", "encode"),
+            PBKDF2_ID,
+            hashingTimer(meterRegistry, "pbkdf2", "encode")
+        );
+        this.matchesTimers = Map.of(
+            BCRYPT_ID,
+            hashingTimer(meterRegistry, "bcrypt", "matches"),
+            PBKDF2_ID,
+            hashingTimer(meterRegistry, "pbkdf2", "matches")
+        );
+        Gauge.builder(QUEUE_METER_NAME, this, HashingPasswordEncoder::waitingHashings)
+            .description("Passwords waiting to be hashed")
+            .baseUnit("passwords")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(REJECTED_METER_NAME)
+            .description("Passwords not hashed because the hashing queue was full")
+            .baseUnit("passwords")
+            .register(meterRegistry);
+        this.upgradesCounter = Counter.builder(UPGRADES_METER_NAME)
+            .description("Password hashes of another algorithm or of a lower cost, rehashed on login")
+            .baseUnit("passwords")
+            .register(meterRegistry);
+    }
+
+    private static Timer hashingTimer(MeterRegistry meterRegistry, String algorithm, String operation) {
+        return Timer.builder(HASHING_METER_NAME)
+            .description("Time to hash a password, its count is the hashing throughput")
+            .tag(HASHING_METER_ALGORITHM_DIMENSION, algorithm)
+            .tag(HASHING_METER_OPERATION_DIMENSION, operation)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        Timer timer = encodeTimers.get(idForEncode);
+        return hash(() -> timer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer timer = matchesTimers.getOrDefault(algorithmId(encodedPassword), matchesTimers.get(BCRYPT_ID));
+        return hash(() -> timer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only compares the parameters of the hash, without hashing
+        boolean upgrade = delegate.upgradeEncoding(encodedPassword);
+        if (upgrade) {
+            upgradesCounter.increment();
+        }
+        return upgrade;
+    }
+
+    private <T> T hash(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Too many passwords waiting to be hashed", e);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return the number of passwords being hashed.
+     */
+    int activeHashings() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return the number of passwords waiting to be hashed.
+     */
+    int waitingHashings() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * The id of the algorithm of a hash, {@code bcrypt} for the hashes without prefix.
+     */
+    private static String algorithmId(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith("{")) {
+            return BCRYPT_ID;
+        }
+        int end = encodedPassword.indexOf('}');
+        return end < 0 ? BCRYPT_ID : encodedPassword.substring(1, end);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,39 @@
+package org.springframework.samples.petclinic.security;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+
+/**
+ * Exception thrown when a token is rejected by the {@link JwtTokenClassifier}.
+ * <p>
+ * It has no stack trace: it is thrown for every invalid token, and its outcome tells all about it.
+ */
+public class InvalidJwtException extends BadJwtException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final JwtTokenClassifier.Outcome outcome;
+
+    public InvalidJwtException(JwtTokenClassifier.Outcome outcome) {
+        super(message(outcome));
+        this.outcome = outcome;
+    }
+
+    public JwtTokenClassifier.Outcome getOutcome() {
+        return outcome;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    private static String message(JwtTokenClassifier.Outcome outcome) {
+        return switch (outcome) {
+            case MALFORMED -> "Malformed token";
+            case UNSUPPORTED -> "Unsupported algorithm";
+            case EXPIRED -> "Jwt expired";
+            case INVALID_SIGNATURE -> "Invalid signature";
+            case VALID -> "Invalid token";
+        };
+    }
+}
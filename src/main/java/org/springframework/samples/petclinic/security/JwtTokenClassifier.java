@@ -0,0 +1,204 @@
+package org.springframework.samples.petclinic.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+
+/**
+ * Classifier of the bearer tokens, telling the invalid ones apart without throwing any exception.
+ * <p>
+ * The cheapest checks come first: the compact serialization and its base64url encoding, then the algorithm of the
+ * header and the {@code exp} claim, and last the MAC of the token. So a malformed or expired token is rejected without
+ * verifying its signature, and only a well-formed token costs an HMAC.
+ * <p>
+ * The header and the claims are scanned for the {@code alg} and {@code exp} members only, they are not parsed. A token
+ * classified as {@link Outcome#VALID} must still be decoded by a {@link org.springframework.security.oauth2.jwt.JwtDecoder},
+ * which validates the other claims.
+ */
+public class JwtTokenClassifier {
+
+    /**
+     * Outcome of the classification of a token.
+     */
+    public enum Outcome {
+        /** The token is well-formed, has not expired, and is signed with the key. */
+        VALID,
+        /** The token is not a JWS in compact serialization. */
+        MALFORMED,
+        /** The token is signed with another algorithm. */
+        UNSUPPORTED,
+        /** The token has expired, whatever its signature. */
+        EXPIRED,
+        /** The signature of the token does not match its content. */
+        INVALID_SIGNATURE,
+    }
+
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final SecretKey secretKey;
+
+    private final MacAlgorithm algorithm;
+
+    private final String macAlgorithmName;
+
+    private final long clockSkewSeconds;
+
+    private final Clock clock;
+
+    public JwtTokenClassifier(SecretKey secretKey, MacAlgorithm algorithm, Duration clockSkew) {
+        this(secretKey, algorithm, clockSkew, Clock.systemUTC());
+    }
+
+    JwtTokenClassifier(SecretKey secretKey, MacAlgorithm algorithm, Duration clockSkew, Clock clock) {
+        this.secretKey = secretKey;
+        this.algorithm = algorithm;
+        this.macAlgorithmName = "Hmac" + algorithm.getName().replace("HS", "SHA");
+        this.clockSkewSeconds = clockSkew.toSeconds();
+        this.clock = clock;
+    }
+
+    /**
+     * Classify a token.
+     *
+     * @param token the token.
+     * @return the outcome.
+     */
+    public Outcome classify(String token) {
+        if (token == null) {
+            return Outcome.MALFORMED;
+        }
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (
+            payloadEnd < 0 ||
+            token.indexOf('.', payloadEnd + 1) >= 0 ||
+            !isBase64Url(token, 0, headerEnd) ||
+            !isBase64Url(token, headerEnd + 1, payloadEnd) ||
+            // The signature is empty for unsecured tokens, which are unsupported
+            (payloadEnd + 1 < token.length() && !isBase64Url(token, payloadEnd + 1, token.length()))
+        ) {
+            return Outcome.MALFORMED;
+        }
+
+        String header = decode(token, 0, headerEnd);
+        String claims = decode(token, headerEnd + 1, payloadEnd);
+        if (!isJsonObject(header) || !isJsonObject(claims)) {
+            return Outcome.MALFORMED;
+        }
+        String alg = stringMember(header, "alg");
+        if (alg == null) {
+            return Outcome.MALFORMED;
+        }
+        if (!alg.equals(algorithm.getName())) {
+            return Outcome.UNSUPPORTED;
+        }
+        long exp = numberMember(claims, "exp");
+        if (exp >= 0 && exp + clockSkewSeconds < clock.instant().getEpochSecond()) {
+            return Outcome.EXPIRED;
+        }
+
+        byte[] signature = BASE64_URL_DECODER.decode(token.substring(payloadEnd + 1));
+        byte[] expectedSignature = mac().doFinal(token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII));
+        if (!MessageDigest.isEqual(signature, expectedSignature)) {
+            return Outcome.INVALID_SIGNATURE;
+        }
+        return Outcome.VALID;
+    }
+
+    private Mac mac() {
+        try {
+            Mac mac = Mac.getInstance(macAlgorithmName);
+            mac.init(secretKey);
+            return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            // The decoder would not have been built with this key either
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Whether the characters are a non-empty unpadded base64url value, so that decoding them cannot fail.
+     */
+    private static boolean isBase64Url(String token, int start, int end) {
+        if (end <= start || (end - start) % 4 == 1) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = token.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decode(String token, int start, int end) {
+        return new String(BASE64_URL_DECODER.decode(token.substring(start, end)), StandardCharsets.UTF_8);
+    }
+
+    private static boolean isJsonObject(String json) {
+        String trimmed = json.strip();
+        return trimmed.startsWith("{") && trimmed.endsWith("}");
+    }
+
+    /**
+     * The index following the colon after the member name, or -1 when the object has no such member.
+     */
+    private static int memberValueStart(String json, String name) {
+        String quotedName = '"' + name + '"';
+        int index = json.indexOf(quotedName);
+        while (index >= 0) {
+            int i = skipWhitespace(json, index + quotedName.length());
+            if (i < json.length() && json.charAt(i) == ':') {
+                return skipWhitespace(json, i + 1);
+            }
+            // The name is a string value, not a member name
+            index = json.indexOf(quotedName, index + 1);
+        }
+        return -1;
+    }
+
+    private static String stringMember(String json, String name) {
+        int start = memberValueStart(json, name);
+        if (start < 0 || start >= json.length() || json.charAt(start) != '"') {
+            return null;
+        }
+        int end = json.indexOf('"', start + 1);
+        return end < 0 ? null : json.substring(start + 1, end);
+    }
+
+    /**
+     * The value of an integer member, or -1 when the object has no such member, or when it is not an integer.
+     */
+    private static long numberMember(String json, String name) {
+        int start = memberValueStart(json, name);
+        if (start < 0) {
+            return -1;
+        }
+        long value = 0;
+        int i = start;
+        for (; i < json.length() && json.charAt(i) >= '0' && json.charAt(i) <= '9' && i - start < 18; i++) {
+            value = value * 10 + (json.charAt(i) - '0');
+        }
+        // Decimals and exponents are left to the decoder
+        int end = skipWhitespace(json, i);
+        if (i == start || end >= json.length() || (json.charAt(end) != ',' && json.charAt(end) != '}')) {
+            return -1;
+        }
+        return value;
+    }
+
+    private static int skipWhitespace(String json, int index) {
+        while (index < json.length() && Character.isWhitespace(json.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+}
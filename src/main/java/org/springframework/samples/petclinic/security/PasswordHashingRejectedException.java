@@ -0,0 +1,20 @@
+package org.springframework.samples.petclinic.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * This exception is thrown when too many passwords are waiting to be hashed, e.g. during a login spike.
+ * <p>
+ * It is not an {@link org.springframework.security.core.AuthenticationException}, so that the client is told to retry
+ * later rather than that its credentials are wrong.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many login attempts, retry later")
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message, Throwable t) {
+        super(message, t);
+    }
+}
@@ -0,0 +1,257 @@
+package org.springframework.samples.petclinic.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.samples.petclinic.domain.Authority;
+import org.springframework.samples.petclinic.domain.User;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of the principals authenticated by {@link DomainUserDetailsService}, by login and by email.
+ * <p>
+ * A {@link CachedPrincipal} only holds what authentication needs: the login, the password hash, the activation and the
+ * authorities, shared by all the principals having the same. The {@link User} entities are not cached.
+ * <p>
+ * The principals are evicted when their {@link User} is updated or deleted, or when its authorities change, once the
+ * transaction has committed, so that a concurrent login cannot cache them again before the change is visible. Both the
+ * former and the new login and email are evicted.
+ */
+@Component
+public class PrincipalCache {
+
+    public static final String PRINCIPALS_CACHE = "principals";
+
+    public static final String LOOKUP_METER_NAME = "security.principal.lookup";
+    public static final String LOOKUP_METER_RESULT_DIMENSION = "result";
+
+    /**
+     * What authentication needs to know of a user.
+     */
+    public record CachedPrincipal(String login, String password, boolean activated, List<SimpleGrantedAuthority> authorities)
+        implements Serializable {}
+
+    private final Cache cache;
+
+    private final Timer hitTimer;
+
+    private final Timer missTimer;
+
+    /**
+     * The authority lists are shared by the principals having the same authorities.
+     */
+    private final ConcurrentHashMap<Set<String>, List<SimpleGrantedAuthority>> authorities = new ConcurrentHashMap<>();
+
+    public PrincipalCache(CacheManager cacheManager, EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(PRINCIPALS_CACHE));
+        this.hitTimer = lookupTimer(meterRegistry, "hit");
+        this.missTimer = lookupTimer(meterRegistry, "miss");
+
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        InvalidationListener listener = new InvalidationListener();
+        eventListenerRegistry.appendListeners(EventType.POST_UPDATE, listener);
+        eventListenerRegistry.appendListeners(EventType.POST_DELETE, listener);
+        eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        eventListenerRegistry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder(LOOKUP_METER_NAME)
+            .description("Time to resolve the principal of a login, from the cache or from the database")
+            .tag(LOOKUP_METER_RESULT_DIMENSION, result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get the principal of a login or email, loading it on a cache miss.
+     *
+     * @param username the login or email, case insensitive.
+     * @param loader loads the user of the login or email.
+     * @return the principal, empty when there is no such user.
+     */
+    public Optional<CachedPrincipal> get(String username, Supplier<Optional<User>> loader) {
+        long start = System.nanoTime();
+        String key = key(username);
+        CachedPrincipal cached = cache.get(key, CachedPrincipal.class);
+        if (cached != null) {
+            hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
+        Optional<CachedPrincipal> principal = loader.get().map(this::toPrincipal);
+        if (readsCommittedUsers()) {
+            principal.ifPresent(loaded -> cache.put(key, loaded));
+        }
+        missTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return principal;
+    }
+
+    /**
+     * Get the cached principal of a login or email, without loading it.
+     *
+     * @param username the login or email, case insensitive.
+     * @return the principal, empty when it is not cached.
+     */
+    public Optional<CachedPrincipal> getIfPresent(String username) {
+        return Optional.ofNullable(cache.get(key(username), CachedPrincipal.class));
+    }
+
+    private CachedPrincipal toPrincipal(User user) {
+        Set<String> names = new LinkedHashSet<>();
+        user.getAuthorities().stream().map(Authority::getName).sorted().forEach(names::add);
+        List<SimpleGrantedAuthority> grantedAuthorities =
+            this.authorities.computeIfAbsent(Set.copyOf(names), key -> names.stream().map(SimpleGrantedAuthority::new).toList());
+        return new CachedPrincipal(user.getLogin(), user.getPassword(), user.isActivated(), grantedAuthorities);
+    }
+
+    /**
+     * Whether the users read now are committed: a read-write transaction may have changed them and be rolled back.
+     */
+    private static boolean readsCommittedUsers() {
+        return (
+            !TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        );
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ENGLISH);
+    }
+
+    private void evictAfterCommit(Set<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            usernames.forEach(username -> cache.evict(key(username)));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // Also evicts on rollback, the principals are loaded again
+                    usernames.forEach(username -> cache.evict(key(username)));
+                }
+            }
+        );
+    }
+
+    /**
+     * Evicts the principals of the changed users.
+     */
+    private final class InvalidationListener
+        implements
+            PostUpdateEventListener,
+            PostDeleteEventListener,
+            PostCollectionUpdateEventListener,
+            PostCollectionRecreateEventListener,
+            PostCollectionRemoveEventListener {
+
+        private static final String LOGIN = "login";
+
+        private static final String EMAIL = "email";
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof User user) {
+                Set<String> usernames = usernames(user);
+                if (event.getOldState() != null) {
+                    addState(usernames, event.getPersister(), event.getOldState());
+                }
+                evictAfterCommit(usernames);
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof User user) {
+                Set<String> usernames = usernames(user);
+                if (event.getDeletedState() != null) {
+                    addState(usernames, event.getPersister(), event.getDeletedState());
+                }
+                evictAfterCommit(usernames);
+            }
+        }
+
+        @Override
+        public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+            onCollectionChange(event);
+        }
+
+        @Override
+        public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+            onCollectionChange(event);
+        }
+
+        @Override
+        public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+            onCollectionChange(event);
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private void onCollectionChange(AbstractCollectionEvent event) {
+            if (event.getAffectedOwnerOrNull() instanceof User user) {
+                evictAfterCommit(usernames(user));
+            }
+        }
+
+        private Set<String> usernames(User user) {
+            Set<String> usernames = new LinkedHashSet<>();
+            addUsername(usernames, user.getLogin());
+            addUsername(usernames, user.getEmail());
+            return usernames;
+        }
+
+        private void addState(Set<String> usernames, EntityPersister persister, Object[] state) {
+            String[] propertyNames = persister.getPropertyNames();
+            for (int i = 0; i < propertyNames.length; i++) {
+                if (LOGIN.equals(propertyNames[i]) || EMAIL.equals(propertyNames[i])) {
+                    addUsername(usernames, (String) state[i]);
+                }
+            }
+        }
+
+        private void addUsername(Set<String> usernames, String username) {
+            if (username != null) {
+                usernames.add(username);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.springframework.samples.petclinic.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service sending queued emails in batches, for bulk campaigns.
+ * <p>
+ * Queuing only buffers the message, up to {@code application.mail.queue-capacity}. A dispatcher thread sends the due
+ * messages by batches of {@code application.mail.batch-size}, each batch over a single SMTP connection, at most
+ * {@code application.mail.rate-limit} messages per second. The messages of a failed batch are retried with an
+ * exponential backoff, and moved to the dead letters once they failed {@code application.mail.max-attempts} times.
+ * <p>
+ * The queue lives in memory: messages still queued when the application stops are lost.
+ */
+@Service
+public class MailQueueService implements DisposableBean {
+
+    public static final String QUEUE_DEPTH_METER_NAME = "mail.queue.depth";
+    public static final String QUEUE_LATENCY_METER_NAME = "mail.queue.latency";
+    public static final String SEND_LATENCY_METER_NAME = "mail.send.latency";
+    public static final String DEAD_LETTERS_METER_NAME = "mail.dead.letters";
+    public static final String MESSAGES_METER_NAME = "mail.messages";
+    public static final String MESSAGES_METER_RESULT_DIMENSION = "result";
+
+    private final Logger log = LoggerFactory.getLogger(MailQueueService.class);
+
+    private final JavaMailSender javaMailSender;
+
+    private final ApplicationProperties.Mail properties;
+
+    private final DelayQueue<QueuedMail> queue = new DelayQueue<>();
+
+    /**
+     * One permit per message which is queued or being sent, so that retried messages keep their place.
+     */
+    private final Semaphore capacity;
+
+    private final Deque<MimeMessage> deadLetters = new ConcurrentLinkedDeque<>();
+
+    private final Timer queueLatencyTimer;
+
+    private final Timer sendLatencyTimer;
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter deadCounter;
+
+    private final Counter rejectedCounter;
+
+    private final ExecutorService dispatchExecutor;
+
+    private long nextSendTime = System.nanoTime();
+
+    public MailQueueService(JavaMailSender javaMailSender, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.javaMailSender = javaMailSender;
+        this.properties = applicationProperties.getMail();
+        this.capacity = new Semaphore(properties.getQueueCapacity());
+
+        Gauge.builder(QUEUE_DEPTH_METER_NAME, queue, DelayQueue::size)
+            .description("Emails waiting to be sent or retried")
+            .baseUnit("messages")
+            .register(meterRegistry);
+        Gauge.builder(DEAD_LETTERS_METER_NAME, deadLetters, Deque::size)
+            .description("Emails which could not be sent after all attempts")
+            .baseUnit("messages")
+            .register(meterRegistry);
+        this.queueLatencyTimer = Timer.builder(QUEUE_LATENCY_METER_NAME)
+            .description("Time from queuing an email to its successful send")
+            .register(meterRegistry);
+        this.sendLatencyTimer = Timer.builder(SEND_LATENCY_METER_NAME)
+            .description("Time to send a batch of emails over one SMTP connection")
+            .register(meterRegistry);
+        this.sentCounter = messagesCounter(meterRegistry, "sent");
+        this.retriedCounter = messagesCounter(meterRegistry, "retried");
+        this.deadCounter = messagesCounter(meterRegistry, "dead");
+        this.rejectedCounter = messagesCounter(meterRegistry, "rejected");
+
+        this.dispatchExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("mail-dispatch-"));
+        dispatchExecutor.execute(this::dispatch);
+    }
+
+    private static Counter messagesCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(MESSAGES_METER_NAME)
+            .description("Emails processed by the mail queue")
+            .baseUnit("messages")
+            .tag(MESSAGES_METER_RESULT_DIMENSION, result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a message, without waiting for it to be sent.
+     *
+     * @param message the message.
+     * @return {@code true} if the message was queued, {@code false} if the queue is full.
+     */
+    public boolean offer(MimeMessage message) {
+        if (!capacity.tryAcquire()) {
+            rejectedCounter.increment();
+            log.warn("Mail queue is full, email rejected");
+            return false;
+        }
+        long now = System.nanoTime();
+        queue.put(new QueuedMail(message, 1, now, now));
+        return true;
+    }
+
+    /**
+     * Queue the dead letters again, with a fresh number of attempts, e.g. once the SMTP server is back.
+     *
+     * @return the number of queued messages, the dead letters which do not fit in the queue are kept.
+     */
+    public int requeueDeadLetters() {
+        int requeued = 0;
+        MimeMessage message;
+        while ((message = deadLetters.pollFirst()) != null) {
+            if (!offer(message)) {
+                deadLetters.addFirst(message);
+                break;
+            }
+            requeued++;
+        }
+        return requeued;
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    int getDeadLetterCount() {
+        return deadLetters.size();
+    }
+
+    private void dispatch() {
+        List<QueuedMail> batch = new ArrayList<>(properties.getBatchSize());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // Blocks until a message is due, then takes the other due messages of the batch
+                batch.add(queue.take());
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                throttle(batch.size());
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while sending {} emails", batch.size(), e);
+                batch.forEach(mail -> retry(mail, e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void throttle(int messages) throws InterruptedException {
+        if (properties.getRateLimit() <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (nextSendTime > now) {
+            TimeUnit.NANOSECONDS.sleep(nextSendTime - now);
+        }
+        nextSendTime = Math.max(now, nextSendTime) + (long) (messages * TimeUnit.SECONDS.toNanos(1) / properties.getRateLimit());
+    }
+
+    private void send(List<QueuedMail> batch) {
+        MimeMessage[] messages = batch.stream().map(QueuedMail::message).toArray(MimeMessage[]::new);
+        long start = System.nanoTime();
+        try {
+            // Sends all the messages over one connection
+            javaMailSender.send(messages);
+            batch.forEach(this::sent);
+        } catch (MailSendException e) {
+            // The messages which could not be sent, all of them when the connection failed. Without failed messages, all
+            // were sent and closing the connection failed, so none is sent twice.
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                log.warn("Sent {} emails, but could not close the connection", batch.size(), e);
+            }
+            for (QueuedMail mail : batch) {
+                Exception failure = failed.get(mail.message());
+                if (failure != null) {
+                    retry(mail, failure);
+                } else {
+                    sent(mail);
+                }
+            }
+        } catch (MailException e) {
+            batch.forEach(mail -> retry(mail, e));
+        } finally {
+            sendLatencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sent(QueuedMail mail) {
+        capacity.release();
+        sentCounter.increment();
+        queueLatencyTimer.record(System.nanoTime() - mail.queuedAt(), TimeUnit.NANOSECONDS);
+    }
+
+    private void retry(QueuedMail mail, Exception e) {
+        if (mail.attempt() >= properties.getMaxAttempts()) {
+            log.warn("Email could not be sent after {} attempts, moving it to the dead letters", mail.attempt(), e);
+            capacity.release();
+            deadCounter.increment();
+            deadLetters.addLast(mail.message());
+            while (deadLetters.size() > properties.getDeadLetterCapacity()) {
+                deadLetters.pollFirst();
+            }
+            return;
+        }
+        long backoff = Math.min(
+            properties.getInitialBackoff().toNanos() << Math.min(mail.attempt() - 1, 20),
+            properties.getMaxBackoff().toNanos()
+        );
+        log.debug("Email could not be sent on attempt {}, retrying in {} ms: {}", mail.attempt(), backoff / 1_000_000, e.getMessage());
+        retriedCounter.increment();
+        queue.put(new QueuedMail(mail.message(), mail.attempt() + 1, mail.queuedAt(), System.nanoTime() + backoff));
+    }
+
+    @Override
+    public void destroy() {
+        dispatchExecutor.shutdownNow();
+        if (!queue.isEmpty()) {
+            log.warn("Discarding {} queued emails", queue.size());
+        }
+    }
+
+    private record QueuedMail(MimeMessage message, int attempt, long queuedAt, long dueAt) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((QueuedMail) other).dueAt);
+        }
+    }
+}
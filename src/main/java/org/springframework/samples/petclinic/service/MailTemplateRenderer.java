@@ -0,0 +1,224 @@
+package org.springframework.samples.petclinic.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.domain.User;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service rendering the mail templates.
+ * <p>
+ * Each template is compiled once per locale: it is processed by Thymeleaf with a user whose fields are unique markers,
+ * and the output is split around the markers. The messages, the base URL and the markup are then static fragments, and
+ * rendering an email only concatenates them with the escaped fields of the user, without evaluating any expression or
+ * looking up any message. The templates used for the account emails are compiled at startup, for every language of
+ * {@code application.mail.template-languages}.
+ * <p>
+ * A template is processed by Thymeleaf as usual when the compiled fragments do not reproduce its output, e.g. when it
+ * transforms a field of the user, for the users missing a field it uses, and when the Thymeleaf cache is disabled so
+ * that templates can be edited at runtime.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    public static final String ACTIVATION_EMAIL_TEMPLATE = "mail/activationEmail";
+
+    public static final String CREATION_EMAIL_TEMPLATE = "mail/creationEmail";
+
+    public static final String PASSWORD_RESET_EMAIL_TEMPLATE = "mail/passwordResetEmail";
+
+    private static final List<String> ACCOUNT_EMAIL_TEMPLATES = List.of(
+        ACTIVATION_EMAIL_TEMPLATE,
+        CREATION_EMAIL_TEMPLATE,
+        PASSWORD_RESET_EMAIL_TEMPLATE
+    );
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    /**
+     * Lower case, since {@link User#setLogin(String)} lower cases the login.
+     */
+    private static final String MARKER_PREFIX = "petclinicmailfield";
+
+    private static final Pattern MARKER_PATTERN = Pattern.compile(MARKER_PREFIX + "(\\d+)ax");
+
+    /**
+     * The fields of the user the templates may print.
+     */
+    private enum UserField {
+        LOGIN(User::getLogin, User::setLogin),
+        FIRST_NAME(User::getFirstName, User::setFirstName),
+        LAST_NAME(User::getLastName, User::setLastName),
+        EMAIL(User::getEmail, User::setEmail),
+        IMAGE_URL(User::getImageUrl, User::setImageUrl),
+        ACTIVATION_KEY(User::getActivationKey, User::setActivationKey),
+        RESET_KEY(User::getResetKey, User::setResetKey);
+
+        private final Function<User, String> getter;
+
+        private final BiConsumer<User, String> setter;
+
+        UserField(Function<User, String> getter, BiConsumer<User, String> setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+
+    /**
+     * A compiled template: {@code fragments[i]} is followed by the escaped {@code fields[i]}, the last fragment by nothing.
+     */
+    private record CompiledTemplate(String[] fragments, UserField[] fields, int length) {
+        boolean canRender(User user) {
+            for (UserField field : fields) {
+                if (field.getter.apply(user) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String render(User user) {
+            StringBuilder content = new StringBuilder(length + 64 * fields.length);
+            for (int i = 0; i < fields.length; i++) {
+                content.append(fragments[i]).append(HtmlEscape.escapeHtml4Xml(fields[i].getter.apply(user)));
+            }
+            return content.append(fragments[fields.length]).toString();
+        }
+    }
+
+    private record TemplateKey(String templateName, Locale locale) {}
+
+    private record SubjectKey(String titleKey, Locale locale) {}
+
+    /**
+     * Marks the templates which cannot be compiled.
+     */
+    private static final CompiledTemplate NOT_COMPILABLE = new CompiledTemplate(new String[0], new UserField[0], 0);
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private final ITemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final String baseUrl;
+
+    private final boolean compile;
+
+    private final Map<TemplateKey, CompiledTemplate> templates = new ConcurrentHashMap<>();
+
+    private final Map<SubjectKey, String> subjects = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        ITemplateEngine templateEngine,
+        MessageSource messageSource,
+        JHipsterProperties jHipsterProperties,
+        ThymeleafProperties thymeleafProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.baseUrl = jHipsterProperties.getMail().getBaseUrl();
+        this.compile = thymeleafProperties.isCache();
+        if (compile) {
+            for (String language : applicationProperties.getMail().getTemplateLanguages()) {
+                Locale locale = Locale.forLanguageTag(language);
+                ACCOUNT_EMAIL_TEMPLATES.forEach(templateName -> compiledTemplate(templateName, locale));
+            }
+        }
+    }
+
+    /**
+     * Render a template for a user.
+     *
+     * @param templateName the name of the template.
+     * @param user the user, available as {@code user} in the template.
+     * @param locale the locale of the messages.
+     * @return the content of the email.
+     */
+    public String render(String templateName, User user, Locale locale) {
+        if (compile) {
+            CompiledTemplate template = compiledTemplate(templateName, locale);
+            if (template != NOT_COMPILABLE && template.canRender(user)) {
+                return template.render(user);
+            }
+        }
+        return process(templateName, user, locale);
+    }
+
+    /**
+     * Resolve the subject of an email.
+     *
+     * @param titleKey the message key of the subject.
+     * @param locale the locale of the message.
+     * @return the subject.
+     */
+    public String subject(String titleKey, Locale locale) {
+        if (!compile) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects.computeIfAbsent(new SubjectKey(titleKey, locale), key -> messageSource.getMessage(titleKey, null, locale));
+    }
+
+    private String process(String templateName, User user, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, baseUrl);
+        return templateEngine.process(templateName, context);
+    }
+
+    private CompiledTemplate compiledTemplate(String templateName, Locale locale) {
+        return templates.computeIfAbsent(new TemplateKey(templateName, locale), key -> compile(templateName, locale));
+    }
+
+    private CompiledTemplate compile(String templateName, Locale locale) {
+        String output = process(templateName, markerUser("a"), locale);
+        List<String> fragments = new ArrayList<>();
+        List<UserField> fields = new ArrayList<>();
+        Matcher matcher = MARKER_PATTERN.matcher(output);
+        int start = 0;
+        while (matcher.find()) {
+            fragments.add(output.substring(start, matcher.start()));
+            fields.add(UserField.values()[Integer.parseInt(matcher.group(1))]);
+            start = matcher.end();
+        }
+        fragments.add(output.substring(start));
+        CompiledTemplate template = new CompiledTemplate(fragments.toArray(String[]::new), fields.toArray(UserField[]::new), output.length());
+
+        // The fragments must render what Thymeleaf renders for another user, or the template transforms the fields
+        User check = markerUser("b");
+        if (!Objects.equals(template.render(check), process(templateName, check, locale))) {
+            log.warn("Mail template '{}' cannot be compiled, it will be processed for each email", templateName);
+            return NOT_COMPILABLE;
+        }
+        log.debug("Compiled mail template '{}' for locale '{}' with {} user fields", templateName, locale, fields.size());
+        return template;
+    }
+
+    private static User markerUser(String variant) {
+        User user = new User();
+        for (UserField field : UserField.values()) {
+            field.setter.accept(user, MARKER_PREFIX + field.ordinal() + variant + "x");
+        }
+        return user;
+    }
+}
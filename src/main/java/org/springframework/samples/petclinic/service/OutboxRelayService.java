@@ -0,0 +1,99 @@
+package org.springframework.samples.petclinic.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.domain.OutboxEvent;
+import org.springframework.samples.petclinic.repository.OutboxEventRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service relaying the outbox events to the {@code outbox-out-0} binding.
+ * <p>
+ * Events are locked, sent and deleted in batches, one transaction per batch. If a send fails the transaction rolls back
+ * and the batch is sent again on the next run, so consumers get every change at least once. The changes of an entity
+ * may be sent out of order: each node numbers its events from its own block of ids, and the relays of several nodes
+ * send their batches concurrently. The consumers order the changes of an entity by its version, sent in the payload.
+ */
+@Service
+public class OutboxRelayService {
+
+    static final String OUTBOX_BINDING_NAME = "outbox-out-0";
+
+    public static final String AGGREGATE_TYPE_HEADER = "aggregateType";
+
+    public static final String AGGREGATE_ID_HEADER = "aggregateId";
+
+    public static final String EVENT_TYPE_HEADER = "eventType";
+
+    private final Logger log = LoggerFactory.getLogger(OutboxRelayService.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final StreamBridge streamBridge;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public OutboxRelayService(
+        OutboxEventRepository outboxEventRepository,
+        StreamBridge streamBridge,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.streamBridge = streamBridge;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = applicationProperties.getOutbox().getBatchSize();
+    }
+
+    /**
+     * Relay the pending events, batch after batch, until the outbox is empty.
+     *
+     * @return the number of relayed events.
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.poll-interval:1s}")
+    public int relay() {
+        int relayed = 0;
+        int count;
+        do {
+            count = transactionTemplate.execute(status -> relayBatch());
+            relayed += count;
+        } while (count == batchSize);
+        if (relayed > 0) {
+            log.debug("Relayed {} outbox events", relayed);
+        }
+        return relayed;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.findNextBatchForUpdate(batchSize);
+        for (OutboxEvent event : events) {
+            if (!streamBridge.send(OUTBOX_BINDING_NAME, toMessage(event))) {
+                throw new IllegalStateException("Could not relay outbox event " + event.getId());
+            }
+        }
+        outboxEventRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+
+    private Message<byte[]> toMessage(OutboxEvent event) {
+        String key = event.getAggregateType() + ":" + event.getAggregateId();
+        return MessageBuilder.withPayload(event.getPayload().getBytes(StandardCharsets.UTF_8))
+            .setHeader(KafkaHeaders.KEY, key.getBytes(StandardCharsets.UTF_8))
+            .setHeader(AGGREGATE_TYPE_HEADER, event.getAggregateType())
+            .setHeader(AGGREGATE_ID_HEADER, event.getAggregateId())
+            .setHeader(EVENT_TYPE_HEADER, event.getEventType().name())
+            .build();
+    }
+}
@@ -0,0 +1,79 @@
+package org.springframework.samples.petclinic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.samples.petclinic.domain.OutboxEvent;
+import org.springframework.samples.petclinic.domain.enumeration.OutboxEventType;
+import org.springframework.samples.petclinic.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service recording the changes of the domain entities in the outbox.
+ * <p>
+ * Events must be recorded in the transaction of the change, so that they are committed or rolled back with it.
+ * They are sent to Kafka by {@link OutboxRelayService}.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Record the creation of an entity.
+     *
+     * @param aggregateType the name of the entity.
+     * @param id the id of the entity.
+     * @param dto the entity, as sent by the REST API.
+     */
+    public void created(String aggregateType, Long id, Object dto) {
+        record(aggregateType, id, OutboxEventType.CREATED, dto);
+    }
+
+    /**
+     * Record the update of an entity.
+     *
+     * @param aggregateType the name of the entity.
+     * @param id the id of the entity.
+     * @param dto the entity, as sent by the REST API.
+     */
+    public void updated(String aggregateType, Long id, Object dto) {
+        record(aggregateType, id, OutboxEventType.UPDATED, dto);
+    }
+
+    /**
+     * Record the deletion of an entity.
+     *
+     * @param aggregateType the name of the entity.
+     * @param id the id of the entity.
+     */
+    public void deleted(String aggregateType, Long id) {
+        record(aggregateType, id, OutboxEventType.DELETED, Map.of("id", id));
+    }
+
+    private void record(String aggregateType, Long id, OutboxEventType eventType, Object dto) {
+        log.debug("Request to record {} event for {} : {}", eventType, aggregateType, id);
+        try {
+            String payload = objectMapper.writeValueAsString(dto);
+            outboxEventRepository.save(
+                new OutboxEvent().aggregateType(aggregateType).aggregateId(id).eventType(eventType).payload(payload)
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the " + aggregateType + " " + id, e);
+        }
+    }
+}
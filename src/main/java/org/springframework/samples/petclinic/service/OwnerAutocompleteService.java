@@ -0,0 +1,305 @@
+package org.springframework.samples.petclinic.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.repository.OwnerName;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.samples.petclinic.service.dto.OwnerSuggestionDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service suggesting the owners whose name or telephone starts with what is typed, from a prefix tree in memory.
+ * <p>
+ * The tree holds the normalized {@code first last} and {@code last first} names of the owners, and the digits of their
+ * telephones. It is filled from the database on startup, by batches of {@code application.search.autocomplete.batch-size},
+ * then kept up to date by the {@link OwnerService} once its changes are committed, and by the outbox events of all the
+ * nodes, see {@link OwnerChangeConsumer}, so the lookups never query the database. Each node keeps its own tree.
+ * <p>
+ * The changes may come twice and out of order, so an owner is only replaced by a newer version of it, and a deleted owner
+ * is never suggested again. The ids of the deleted owners are kept for that, as long as the node runs.
+ */
+@Service
+public class OwnerAutocompleteService {
+
+    public static final String LOOKUP_METER_NAME = "autocomplete.owners";
+    public static final String KEYS_METER_NAME = "autocomplete.owners.keys";
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Logger log = LoggerFactory.getLogger(OwnerAutocompleteService.class);
+
+    private final OwnerRepository ownerRepository;
+
+    private final ApplicationProperties.Search.Autocomplete properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer lookupTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Guarded by the lock, like the owners and the deleted owners.
+     */
+    private final OwnerPrefixTree tree = new OwnerPrefixTree();
+
+    private final Map<Long, Suggestion> owners = new HashMap<>();
+
+    private final Set<Long> deletedOwnerIds = new HashSet<>();
+
+    public OwnerAutocompleteService(
+        OwnerRepository ownerRepository,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.ownerRepository = ownerRepository;
+        this.properties = applicationProperties.getSearch().getAutocomplete();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.lookupTimer = Timer.builder(LOOKUP_METER_NAME).description("Time to suggest owners for a prefix").register(meterRegistry);
+        Gauge.builder(KEYS_METER_NAME, this, OwnerAutocompleteService::keys)
+            .description("Owner names and telephones in the prefix tree")
+            .baseUnit("keys")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Fill the prefix tree with all the owners.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        long afterId = 0L;
+        long loaded = 0;
+        List<OwnerName> batch;
+        do {
+            long batchAfterId = afterId;
+            batch = transactionTemplate.execute(status ->
+                ownerRepository.findNamesAfter(batchAfterId, PageRequest.ofSize(properties.getBatchSize()))
+            );
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            List<OwnerName> names = batch;
+            // The owners changed since the batch was read are not overwritten, they have a newer version
+            writeLocked(() -> {
+                for (OwnerName name : names) {
+                    put(name.getId(), new Suggestion(name.getFirstName(), name.getLastName(), name.getTelephone(), name.getVersion()));
+                }
+            });
+            afterId = batch.get(batch.size() - 1).getId();
+            loaded += batch.size();
+        } while (batch.size() == properties.getBatchSize());
+        log.info("Loaded {} owners for the autocomplete in {} ms", loaded, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Suggest the owners whose first or last name, or telephone, starts with a prefix. The case, the accents and the
+     * separators of the prefix are ignored, and it may hold both names in either order.
+     *
+     * @param prefix what was typed.
+     * @param limit the maximum number of suggestions, capped by {@code application.search.autocomplete.max-suggestions}.
+     * @return the suggested owners, the shortest matching names first, then in alphabetical order.
+     */
+    public List<OwnerSuggestionDTO> suggest(String prefix, int limit) {
+        String key = prefix != null ? queryKey(prefix) : "";
+        int max = Math.min(limit, properties.getMaxSuggestions());
+        if (key.isEmpty() || max <= 0) {
+            return List.of();
+        }
+        return lookupTimer.record(() -> {
+            List<OwnerSuggestionDTO> suggestions = new ArrayList<>(max);
+            lock.readLock().lock();
+            try {
+                Set<Long> ids = new LinkedHashSet<>();
+                tree.collect(key, max, ids);
+                for (Long id : ids) {
+                    suggestions.add(owners.get(id).toDto(id));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return suggestions;
+        });
+    }
+
+    /**
+     * Suggest a saved owner, once the transaction saving it is committed, unless a newer version of it is suggested
+     * already or it was deleted.
+     *
+     * @param ownerDTO the saved owner, with its version.
+     */
+    public void saved(OwnerDTO ownerDTO) {
+        Long id = ownerDTO.getId();
+        Suggestion suggestion = new Suggestion(
+            ownerDTO.getFirstName(),
+            ownerDTO.getLastName(),
+            ownerDTO.getTelephone(),
+            ownerDTO.getVersion()
+        );
+        afterCommit(() -> writeLocked(() -> put(id, suggestion)));
+    }
+
+    /**
+     * Stop suggesting a deleted owner, once the transaction deleting it is committed.
+     *
+     * @param id the id of the deleted owner.
+     */
+    public void deleted(Long id) {
+        afterCommit(() ->
+            writeLocked(() -> {
+                remove(id);
+                deletedOwnerIds.add(id);
+            })
+        );
+    }
+
+    private void put(Long id, Suggestion suggestion) {
+        if (deletedOwnerIds.contains(id) || !suggestion.isNewerThan(owners.get(id))) {
+            return;
+        }
+        remove(id);
+        owners.put(id, suggestion);
+        for (String key : suggestion.keys()) {
+            tree.add(key, id);
+        }
+    }
+
+    private void remove(Long id) {
+        Suggestion removed = owners.remove(id);
+        if (removed != null) {
+            for (String key : removed.keys()) {
+                tree.remove(key, id);
+            }
+        }
+    }
+
+    private int keys() {
+        lock.readLock().lock();
+        try {
+            return tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void writeLocked(Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            }
+        );
+    }
+
+    /**
+     * The key looked up for a prefix: its digits when it has no letters, as typed in a telephone, else its words.
+     */
+    static String queryKey(String prefix) {
+        String words = normalize(prefix);
+        if (words.chars().anyMatch(Character::isLetter)) {
+            return words;
+        }
+        return digits(words);
+    }
+
+    /**
+     * Lower case words without accents, separated by a single space.
+     */
+    static String normalize(String text) {
+        String withoutAccents = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    private static String digits(String text) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private record Suggestion(String firstName, String lastName, String telephone, Long version) {
+        /**
+         * Whether it replaces another suggestion of the same owner, the suggestions without version replace any other.
+         */
+        boolean isNewerThan(Suggestion other) {
+            return other == null || version == null || other.version == null || version > other.version;
+        }
+
+        Set<String> keys() {
+            Set<String> keys = new HashSet<>();
+            String first = firstName != null ? normalize(firstName) : "";
+            String last = lastName != null ? normalize(lastName) : "";
+            if (!first.isEmpty() && !last.isEmpty()) {
+                keys.add(first + ' ' + last);
+                keys.add(last + ' ' + first);
+            } else if (!first.isEmpty() || !last.isEmpty()) {
+                keys.add(first + last);
+            }
+            if (telephone != null) {
+                String digits = digits(telephone);
+                if (!digits.isEmpty()) {
+                    keys.add(digits);
+                }
+            }
+            return keys;
+        }
+
+        OwnerSuggestionDTO toDto(Long id) {
+            OwnerSuggestionDTO ownerSuggestionDTO = new OwnerSuggestionDTO();
+            ownerSuggestionDTO.setId(id);
+            ownerSuggestionDTO.setFirstName(firstName);
+            ownerSuggestionDTO.setLastName(lastName);
+            ownerSuggestionDTO.setTelephone(telephone);
+            return ownerSuggestionDTO;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.springframework.samples.petclinic.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.samples.petclinic.domain.enumeration.OutboxEventType;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer of the outbox events of all the nodes, bound to {@code ownerChangeConsumer-in-0}, which keeps the owner index
+ * and the owner autocomplete of this node up to date with the changes of the owners and pets committed by the other
+ * nodes.
+ * <p>
+ * The binding has no group, so that every node gets every event, from the time it started. The events of this node are
+ * applied again, which is harmless since the owners are indexed from the database, and the autocomplete ignores the
+ * versions of the owners it has already.
+ */
+@Component
+public class OwnerChangeConsumer implements Consumer<Message<byte[]>> {
+
+    static final String OWNER_AGGREGATE_TYPE = "Owner";
+
+    static final String PET_AGGREGATE_TYPE = "Pet";
+
+    private final Logger log = LoggerFactory.getLogger(OwnerChangeConsumer.class);
+
+    private final OwnerSearchService ownerSearchService;
+
+    private final OwnerAutocompleteService ownerAutocompleteService;
+
+    private final ObjectMapper objectMapper;
+
+    public OwnerChangeConsumer(
+        OwnerSearchService ownerSearchService,
+        OwnerAutocompleteService ownerAutocompleteService,
+        ObjectMapper objectMapper
+    ) {
+        this.ownerSearchService = ownerSearchService;
+        this.ownerAutocompleteService = ownerAutocompleteService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void accept(Message<byte[]> message) {
+        String aggregateType = header(message, OutboxRelayService.AGGREGATE_TYPE_HEADER);
+        if (!OWNER_AGGREGATE_TYPE.equals(aggregateType) && !PET_AGGREGATE_TYPE.equals(aggregateType)) {
+            return;
+        }
+        String eventType = header(message, OutboxRelayService.EVENT_TYPE_HEADER);
+        JsonNode payload;
+        OwnerDTO ownerDTO = null;
+        try {
+            payload = objectMapper.readTree(message.getPayload());
+            if (OWNER_AGGREGATE_TYPE.equals(aggregateType) && !OutboxEventType.DELETED.name().equals(eventType)) {
+                ownerDTO = objectMapper.treeToValue(payload, OwnerDTO.class);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read the {} change {}", aggregateType, eventType, e);
+            return;
+        }
+        long id = payload.path("id").asLong();
+        log.debug("Got {} change from the outbox : {}", aggregateType, id);
+        if (OWNER_AGGREGATE_TYPE.equals(aggregateType)) {
+            ownerSearchService.reindex(List.of(id));
+            if (ownerDTO != null) {
+                ownerAutocompleteService.saved(ownerDTO);
+            } else {
+                ownerAutocompleteService.deleted(id);
+            }
+        } else {
+            // The owner of the pet now, and its former owner as indexed, which a deleted pet only gives by its id
+            Set<Long> ownerIds = new HashSet<>();
+            JsonNode ownerId = payload.path("owner").path("id");
+            if (ownerId.canConvertToLong()) {
+                ownerIds.add(ownerId.asLong());
+            }
+            ownerSearchService.reindex(ownerIds);
+            ownerSearchService.reindexPets(List.of(id));
+        }
+    }
+
+    /**
+     * A header as a string, the Kafka binder may hand it over as raw bytes.
+     */
+    private static String header(Message<?> message, String name) {
+        Object value = message.getHeaders().get(name);
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,255 @@
+package org.springframework.samples.petclinic.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Radix tree of keys to the ids of the owners, which finds the owners of the keys starting with a prefix.
+ * <p>
+ * The keys sharing a prefix share the nodes of that prefix, each node being labelled with the characters up to the
+ * next branch, so a node exists per branch rather than per character. The children and the ids of a node are held in
+ * arrays sized to fit, sorted to be binary searched. Not thread safe.
+ */
+final class OwnerPrefixTree {
+
+    private static final char[] NO_LABEL = new char[0];
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final long[] NO_IDS = new long[0];
+
+    private static final Comparator<Match> SHORTEST_KEY_FIRST = Comparator.comparingInt((Match match) -> match.key().length()).thenComparing(
+        Match::key
+    );
+
+    private final Node root = new Node(NO_LABEL);
+
+    private int size;
+
+    /**
+     * @return the number of keys and owner ids in the tree.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Add the id of an owner to a key.
+     *
+     * @param key the key.
+     * @param id the id of the owner.
+     */
+    void add(String key, long id) {
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            int index = childIndex(node, key.charAt(offset));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(offset).toCharArray());
+                leaf.ids = new long[] { id };
+                node.children = insert(node.children, -index - 1, leaf);
+                size++;
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonLength(child.label, key, offset);
+            if (common < child.label.length) {
+                Node branch = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                branch.children = new Node[] { child };
+                node.children[index] = branch;
+                child = branch;
+            }
+            node = child;
+            offset += common;
+        }
+        int position = Arrays.binarySearch(node.ids, id);
+        if (position < 0) {
+            node.ids = insert(node.ids, -position - 1, id);
+            size++;
+        }
+    }
+
+    /**
+     * Remove the id of an owner from a key, and the nodes left without ids.
+     *
+     * @param key the key.
+     * @param id the id of the owner.
+     * @return {@code true} if the key had the id.
+     */
+    boolean remove(String key, long id) {
+        Node parent = null;
+        int indexInParent = -1;
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            int index = childIndex(node, key.charAt(offset));
+            if (index < 0) {
+                return false;
+            }
+            Node child = node.children[index];
+            if (commonLength(child.label, key, offset) < child.label.length) {
+                return false;
+            }
+            parent = node;
+            indexInParent = index;
+            node = child;
+            offset += child.label.length;
+        }
+        int position = Arrays.binarySearch(node.ids, id);
+        if (position < 0) {
+            return false;
+        }
+        node.ids = delete(node.ids, position);
+        size--;
+
+        if (parent != null && node.ids.length == 0) {
+            if (node.children.length == 0) {
+                parent.children = delete(parent.children, indexInParent);
+                if (parent != root && parent.ids.length == 0 && parent.children.length == 1) {
+                    mergeWithOnlyChild(parent);
+                }
+            } else if (node.children.length == 1) {
+                mergeWithOnlyChild(node);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collect the ids of the owners of the keys starting with a prefix, the shorter keys first, then in the order of
+     * their characters.
+     * <p>
+     * The nodes below the prefix are walked best first, from a queue ordered by the length of their keys, so that the
+     * limit only cuts off the longest keys.
+     *
+     * @param prefix the prefix of the keys.
+     * @param limit the maximum number of ids to collect.
+     * @param ids the ids collected, in their order.
+     */
+    void collect(String prefix, int limit, Set<Long> ids) {
+        Node node = root;
+        StringBuilder key = new StringBuilder();
+        int offset = 0;
+        while (offset < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(offset));
+            if (index < 0) {
+                return;
+            }
+            Node child = node.children[index];
+            // The prefix may end in the middle of the label
+            if (commonLength(child.label, prefix, offset) < Math.min(child.label.length, prefix.length() - offset)) {
+                return;
+            }
+            node = child;
+            key.append(child.label);
+            offset += child.label.length;
+        }
+        PriorityQueue<Match> matches = new PriorityQueue<>(SHORTEST_KEY_FIRST);
+        matches.add(new Match(key.toString(), node));
+        while (!matches.isEmpty()) {
+            Match match = matches.poll();
+            for (long id : match.node().ids) {
+                if (ids.size() >= limit) {
+                    return;
+                }
+                ids.add(id);
+            }
+            for (Node child : match.node().children) {
+                matches.add(new Match(match.key() + String.valueOf(child.label), child));
+            }
+        }
+    }
+
+    private static void mergeWithOnlyChild(Node node) {
+        Node child = node.children[0];
+        char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+        System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+        node.label = label;
+        node.ids = child.ids;
+        node.children = child.children;
+    }
+
+    private static int childIndex(Node node, char first) {
+        Node[] children = node.children;
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleFirst = children[middle].label[0];
+            if (middleFirst < first) {
+                low = middle + 1;
+            } else if (middleFirst > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonLength(char[] label, String key, int offset) {
+        int length = Math.min(label.length, key.length() - offset);
+        int common = 0;
+        while (common < length && label[common] == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static Node[] insert(Node[] nodes, int index, Node node) {
+        Node[] inserted = new Node[nodes.length + 1];
+        System.arraycopy(nodes, 0, inserted, 0, index);
+        inserted[index] = node;
+        System.arraycopy(nodes, index, inserted, index + 1, nodes.length - index);
+        return inserted;
+    }
+
+    private static Node[] delete(Node[] nodes, int index) {
+        if (nodes.length == 1) {
+            return NO_CHILDREN;
+        }
+        Node[] deleted = new Node[nodes.length - 1];
+        System.arraycopy(nodes, 0, deleted, 0, index);
+        System.arraycopy(nodes, index + 1, deleted, index, nodes.length - index - 1);
+        return deleted;
+    }
+
+    private static long[] insert(long[] ids, int index, long id) {
+        long[] inserted = new long[ids.length + 1];
+        System.arraycopy(ids, 0, inserted, 0, index);
+        inserted[index] = id;
+        System.arraycopy(ids, index, inserted, index + 1, ids.length - index);
+        return inserted;
+    }
+
+    private static long[] delete(long[] ids, int index) {
+        if (ids.length == 1) {
+            return NO_IDS;
+        }
+        long[] deleted = new long[ids.length - 1];
+        System.arraycopy(ids, 0, deleted, 0, index);
+        System.arraycopy(ids, index + 1, deleted, index, ids.length - index - 1);
+        return deleted;
+    }
+
+    /**
+     * A node to walk, with the key it stands for.
+     */
+    private record Match(String key, Node node) {}
+
+    private static final class Node {
+
+        private char[] label;
+
+        private Node[] children = NO_CHILDREN;
+
+        private long[] ids = NO_IDS;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.springframework.samples.petclinic.service;
 
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.JoinType;
+import java.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -11,7 +13,6 @@ import org.springframework.samples.petclinic.domain.Owner;
 import org.springframework.samples.petclinic.repository.OwnerRepository;
 import org.springframework.samples.petclinic.service.criteria.OwnerCriteria;
 import org.springframework.samples.petclinic.service.dto.OwnerDTO;
-import org.springframework.samples.petclinic.service.mapper.OwnerMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
@@ -30,15 +31,13 @@ public class OwnerQueryService extends QueryService<Owner> {
 
     private final OwnerRepository ownerRepository;
 
-    private final OwnerMapper ownerMapper;
-
-    public OwnerQueryService(OwnerRepository ownerRepository, OwnerMapper ownerMapper) {
+    public OwnerQueryService(OwnerRepository ownerRepository) {
         this.ownerRepository = ownerRepository;
-        this.ownerMapper = ownerMapper;
     }
 
     /**
      * Return a {@link Page} of {@link OwnerDTO} which matches the criteria from the database.
+     * Only the columns of the DTO are selected, no entity is loaded.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -47,7 +46,7 @@ public class OwnerQueryService extends QueryService<Owner> {
     public Page<OwnerDTO> findByCriteria(OwnerCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Owner> specification = createSpecification(criteria);
-        return ownerRepository.findAll(specification, page).map(ownerMapper::toDto);
+        return ownerRepository.findAllProjected(specification, page).map(this::toDto);
     }
 
     /**
@@ -62,6 +61,20 @@ public class OwnerQueryService extends QueryService<Owner> {
         return ownerRepository.count(specification);
     }
 
+    private OwnerDTO toDto(Tuple tuple) {
+        OwnerDTO ownerDTO = new OwnerDTO();
+        ownerDTO.setId(tuple.get(Owner_.ID, Long.class));
+        ownerDTO.setVersion(tuple.get(Owner_.VERSION, Long.class));
+        ownerDTO.setLastModifiedDate(tuple.get(Owner_.LAST_MODIFIED_DATE, Instant.class));
+        ownerDTO.setFirstName(tuple.get(Owner_.FIRST_NAME, String.class));
+        ownerDTO.setLastName(tuple.get(Owner_.LAST_NAME, String.class));
+        ownerDTO.setEmail(tuple.get(Owner_.EMAIL, String.class));
+        ownerDTO.setAddress(tuple.get(Owner_.ADDRESS, String.class));
+        ownerDTO.setCity(tuple.get(Owner_.CITY, String.class));
+        ownerDTO.setTelephone(tuple.get(Owner_.TELEPHONE, String.class));
+        return ownerDTO;
+    }
+
     /**
      * Function to convert {@link OwnerCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
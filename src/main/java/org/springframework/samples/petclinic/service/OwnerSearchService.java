@@ -0,0 +1,656 @@
+package org.springframework.samples.petclinic.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.phonetic.DoubleMetaphoneFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.domain.Owner;
+import org.springframework.samples.petclinic.domain.Pet;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service searching the owners by name, email, telephone, city or pet name, in an embedded Lucene index.
+ * <p>
+ * Each word of a query matches the words starting with it, the words within one or two typos of it, and the words
+ * which sound like it. The digits of a query match the telephones starting with them, and a query with an {@code @}
+ * matches the emails starting with it. The results are read from the index, without querying the database.
+ * <p>
+ * The owners are indexed again once the changes of their owner or of their pets are committed, by a single indexing
+ * thread which loads them by batches of {@code application.search.batch-size}. Each node keeps its own index, so the
+ * changes committed by the other nodes are indexed from their outbox events, see {@link OwnerChangeConsumer}. The index
+ * is rebuilt in the background on startup, for the changes missed while the node was down, while the searches go on.
+ */
+@Service
+public class OwnerSearchService implements DisposableBean {
+
+    public static final String SEARCH_METER_NAME = "search.owners";
+    public static final String PENDING_METER_NAME = "search.owners.indexing.pending";
+    public static final String DOCUMENTS_METER_NAME = "search.owners.documents";
+
+    private static final String ID = "id";
+    private static final String FIRST_NAME = "firstName";
+    private static final String LAST_NAME = "lastName";
+    private static final String EMAIL = "email";
+    private static final String ADDRESS = "address";
+    private static final String CITY = "city";
+    private static final String TELEPHONE = "telephone";
+    private static final String VERSION = "version";
+    private static final String LAST_MODIFIED_DATE = "lastModifiedDate";
+    private static final String TEXT = "text";
+    private static final String PHONETIC = "phonetic";
+    private static final String PHONE = "phone";
+    private static final String EMAIL_PREFIX = "emailPrefix";
+    private static final String GENERATION = "generation";
+    private static final String PET_ID = "petId";
+
+    /**
+     * Words of a query beyond it are ignored, each word adds a prefix and a fuzzy query.
+     */
+    private static final int MAX_QUERY_WORDS = 8;
+
+    private static final int MIN_PHONE_DIGITS = 3;
+
+    private final Logger log = LoggerFactory.getLogger(OwnerSearchService.class);
+
+    private final OwnerRepository ownerRepository;
+
+    private final ApplicationProperties.Search properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Analyzer analyzer;
+
+    private final Directory directory;
+
+    private final IndexWriter indexWriter;
+
+    private final SearcherManager searcherManager;
+
+    private final ExecutorService indexingExecutor;
+
+    private final Set<Long> pendingOwnerIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Pets changed, whose owners as indexed are indexed again.
+     */
+    private final Set<Long> pendingPetIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final AtomicInteger reindexesInProgress = new AtomicInteger();
+
+    private final Timer searchTimer;
+
+    /**
+     * Written to every indexed owner, so that a full reindex deletes the owners it did not index. Only used by the
+     * indexing thread.
+     */
+    private long generation = System.currentTimeMillis();
+
+    public OwnerSearchService(
+        OwnerRepository ownerRepository,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        EntityManagerFactory entityManagerFactory,
+        MeterRegistry meterRegistry
+    ) {
+        this.ownerRepository = ownerRepository;
+        this.properties = applicationProperties.getSearch();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.analyzer = new PerFieldAnalyzerWrapper(new TextAnalyzer(), Map.of(PHONETIC, new PhoneticAnalyzer()));
+        try {
+            this.directory = properties.getIndexDirectory() != null
+                ? FSDirectory.open(Path.of(properties.getIndexDirectory()))
+                : new ByteBuffersDirectory();
+            IndexWriterConfig indexWriterConfig = new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+            this.indexWriter = new IndexWriter(directory, indexWriterConfig);
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the owner index", e);
+        }
+        this.indexingExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("owner-indexing-"));
+
+        this.searchTimer = Timer.builder(SEARCH_METER_NAME).description("Time to search the owner index").register(meterRegistry);
+        Gauge.builder(PENDING_METER_NAME, pendingOwnerIds, Set::size)
+            .description("Owners changed and not indexed yet")
+            .baseUnit("owners")
+            .register(meterRegistry);
+        Gauge.builder(DOCUMENTS_METER_NAME, indexWriter, writer -> writer.getDocStats().numDocs)
+            .description("Owners in the index")
+            .baseUnit("owners")
+            .register(meterRegistry);
+
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        IndexingListener listener = new IndexingListener();
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reindexAll();
+    }
+
+    /**
+     * Search the owners.
+     *
+     * @param query the words, telephone or email to search for.
+     * @param pageable the pagination information, the owners are sorted by relevance.
+     * @return the page of matching owners, as indexed.
+     */
+    public Page<OwnerDTO> search(String query, Pageable pageable) {
+        log.debug("Request to search Owners for query {}", query);
+        Query luceneQuery = query(query);
+        if (luceneQuery == null) {
+            return Page.empty(pageable);
+        }
+        return searchTimer.record(() -> {
+            try {
+                IndexSearcher searcher = searcherManager.acquire();
+                try {
+                    return search(searcher, luceneQuery, pageable);
+                } finally {
+                    searcherManager.release(searcher);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not search the owner index", e);
+            }
+        });
+    }
+
+    private Page<OwnerDTO> search(IndexSearcher searcher, Query query, Pageable pageable) throws IOException {
+        int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), properties.getMaxResults());
+        TopDocs topDocs = searcher.search(query, Math.max(end, 1));
+        long total = Math.min(topDocs.totalHits.value, properties.getMaxResults());
+        List<OwnerDTO> owners = new ArrayList<>();
+        StoredFields storedFields = searcher.storedFields();
+        for (int i = (int) pageable.getOffset(); i < Math.min(end, topDocs.scoreDocs.length); i++) {
+            ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+            owners.add(toOwnerDTO(storedFields.document(scoreDoc.doc)));
+        }
+        return new PageImpl<>(owners, pageable, total);
+    }
+
+    /**
+     * Index some owners again, or remove them from the index if they were deleted, without waiting for it.
+     *
+     * @param ownerIds the ids of the owners.
+     */
+    public void reindex(Collection<Long> ownerIds) {
+        if (ownerIds.isEmpty()) {
+            return;
+        }
+        pendingOwnerIds.addAll(ownerIds);
+        scheduleDrain();
+    }
+
+    /**
+     * Index again the owners of some pets as indexed, e.g. their former owners, without waiting for it.
+     *
+     * @param petIds the ids of the pets.
+     */
+    public void reindexPets(Collection<Long> petIds) {
+        if (petIds.isEmpty()) {
+            return;
+        }
+        pendingPetIds.addAll(petIds);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        // The listeners of a closed index may still be called by the Hibernate session factory
+        if (!indexingExecutor.isShutdown() && drainScheduled.compareAndSet(false, true)) {
+            indexingExecutor.execute(this::indexPending);
+        }
+    }
+
+    /**
+     * Index all the owners again, without waiting for it. The changes of the owners are indexed in between the batches.
+     */
+    public void reindexAll() {
+        reindexesInProgress.incrementAndGet();
+        indexingExecutor.execute(() -> {
+            generation = Math.max(generation + 1, System.currentTimeMillis());
+            log.info("Reindexing all the owners");
+            reindexAfter(0L, generation, 0, System.nanoTime());
+        });
+    }
+
+    /**
+     * Wait for the owners queued for indexing so far, and for the full reindexes, to be indexed and searchable.
+     *
+     * @param timeout the maximum time to wait.
+     * @return {@code true} if they were indexed, {@code false} if the timeout elapsed first.
+     */
+    public boolean awaitIndexing(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            do {
+                // The indexing thread runs the tasks in order, and a full reindex queues its next batch after each batch
+                indexingExecutor.submit(() -> {}).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } while (reindexesInProgress.get() > 0);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void indexPending() {
+        drainScheduled.set(false);
+        List<Long> ownerIds = drain(pendingOwnerIds);
+        List<Long> petIds = drain(pendingPetIds);
+        try {
+            if (!petIds.isEmpty()) {
+                Set<Long> petOwnerIds = new HashSet<>(ownerIds);
+                petOwnerIds.addAll(indexedOwnerIdsOf(petIds));
+                ownerIds = new ArrayList<>(petOwnerIds);
+            }
+            for (int from = 0; from < ownerIds.size(); from += properties.getBatchSize()) {
+                index(ownerIds.subList(from, Math.min(from + properties.getBatchSize(), ownerIds.size())));
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not index the owners {}", ownerIds, e);
+        }
+    }
+
+    private static List<Long> drain(Set<Long> pendingIds) {
+        List<Long> ids = new ArrayList<>();
+        Iterator<Long> pending = pendingIds.iterator();
+        while (pending.hasNext()) {
+            ids.add(pending.next());
+            pending.remove();
+        }
+        return ids;
+    }
+
+    private Set<Long> indexedOwnerIdsOf(List<Long> petIds) throws IOException {
+        Set<Long> ownerIds = new HashSet<>();
+        // Sees the owners indexed by the batches of a full reindex too
+        searcherManager.maybeRefreshBlocking();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            StoredFields storedFields = searcher.storedFields();
+            for (Long petId : petIds) {
+                TopDocs topDocs = searcher.search(new TermQuery(new Term(PET_ID, petId.toString())), Integer.MAX_VALUE);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    ownerIds.add(Long.valueOf(storedFields.document(scoreDoc.doc).get(ID)));
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return ownerIds;
+    }
+
+    private void reindexAfter(long afterId, long reindexGeneration, long indexed, long start) {
+        try {
+            List<Long> ownerIds = transactionTemplate.execute(status ->
+                ownerRepository.findIdsAfter(afterId, PageRequest.ofSize(properties.getBatchSize()))
+            );
+            if (ownerIds == null || ownerIds.isEmpty()) {
+                indexWriter.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, reindexGeneration - 1));
+                indexWriter.commit();
+                searcherManager.maybeRefreshBlocking();
+                reindexesInProgress.decrementAndGet();
+                log.info("Reindexed {} owners in {} ms", indexed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return;
+            }
+            index(ownerIds);
+            searcherManager.maybeRefresh();
+            long lastId = ownerIds.get(ownerIds.size() - 1);
+            indexingExecutor.execute(() -> reindexAfter(lastId, reindexGeneration, indexed + ownerIds.size(), start));
+        } catch (IOException | RuntimeException e) {
+            reindexesInProgress.decrementAndGet();
+            log.error("Could not reindex the owners after {}", afterId, e);
+        }
+    }
+
+    private void index(List<Long> ownerIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                Set<Long> deletedIds = new HashSet<>(ownerIds);
+                for (Owner owner : ownerRepository.findAllWithPetsByIdIn(ownerIds)) {
+                    indexWriter.updateDocument(new Term(ID, owner.getId().toString()), toDocument(owner));
+                    deletedIds.remove(owner.getId());
+                }
+                for (Long deletedId : deletedIds) {
+                    indexWriter.deleteDocuments(new Term(ID, deletedId.toString()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Document toDocument(Owner owner) {
+        Document document = new Document();
+        document.add(new StringField(ID, owner.getId().toString(), Field.Store.YES));
+        document.add(new LongPoint(GENERATION, generation));
+        addStored(document, FIRST_NAME, owner.getFirstName());
+        addStored(document, LAST_NAME, owner.getLastName());
+        addStored(document, EMAIL, owner.getEmail());
+        addStored(document, ADDRESS, owner.getAddress());
+        addStored(document, CITY, owner.getCity());
+        addStored(document, TELEPHONE, owner.getTelephone());
+        if (owner.getVersion() != null) {
+            document.add(new StoredField(VERSION, owner.getVersion()));
+        }
+        if (owner.getLastModifiedDate() != null) {
+            document.add(new StoredField(LAST_MODIFIED_DATE, owner.getLastModifiedDate().toString()));
+        }
+
+        List<String> names = new ArrayList<>();
+        names.add(owner.getFirstName());
+        names.add(owner.getLastName());
+        for (Pet pet : owner.getPets()) {
+            names.add(pet.getName());
+            document.add(new StringField(PET_ID, pet.getId().toString(), Field.Store.NO));
+        }
+        for (String name : names) {
+            if (name != null) {
+                document.add(new TextField(TEXT, name, Field.Store.NO));
+                document.add(new TextField(PHONETIC, name, Field.Store.NO));
+            }
+        }
+        if (owner.getCity() != null) {
+            document.add(new TextField(TEXT, owner.getCity(), Field.Store.NO));
+        }
+        if (owner.getEmail() != null) {
+            document.add(new TextField(TEXT, owner.getEmail(), Field.Store.NO));
+            document.add(new StringField(EMAIL_PREFIX, owner.getEmail().toLowerCase(Locale.ROOT), Field.Store.NO));
+        }
+        if (owner.getTelephone() != null) {
+            document.add(new StringField(PHONE, digits(owner.getTelephone()), Field.Store.NO));
+        }
+        return document;
+    }
+
+    private static void addStored(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new StoredField(field, value));
+        }
+    }
+
+    private static OwnerDTO toOwnerDTO(Document document) {
+        OwnerDTO ownerDTO = new OwnerDTO();
+        ownerDTO.setId(Long.valueOf(document.get(ID)));
+        ownerDTO.setFirstName(document.get(FIRST_NAME));
+        ownerDTO.setLastName(document.get(LAST_NAME));
+        ownerDTO.setEmail(document.get(EMAIL));
+        ownerDTO.setAddress(document.get(ADDRESS));
+        ownerDTO.setCity(document.get(CITY));
+        ownerDTO.setTelephone(document.get(TELEPHONE));
+        if (document.getField(VERSION) != null) {
+            ownerDTO.setVersion(document.getField(VERSION).numericValue().longValue());
+        }
+        if (document.get(LAST_MODIFIED_DATE) != null) {
+            ownerDTO.setLastModifiedDate(Instant.parse(document.get(LAST_MODIFIED_DATE)));
+        }
+        return ownerDTO;
+    }
+
+    /**
+     * Build the query of the search, {@code null} when it has nothing to search for.
+     */
+    Query query(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+
+        List<String> words = analyze(TEXT, text);
+        if (!words.isEmpty()) {
+            BooleanQuery.Builder allWords = new BooleanQuery.Builder();
+            for (String word : words.subList(0, Math.min(words.size(), MAX_QUERY_WORDS))) {
+                allWords.add(wordQuery(word), BooleanClause.Occur.MUST);
+            }
+            query.add(allWords.build(), BooleanClause.Occur.SHOULD);
+        }
+        String digits = digits(text);
+        if (digits.length() >= MIN_PHONE_DIGITS) {
+            query.add(new BoostQuery(new PrefixQuery(new Term(PHONE, digits)), 4), BooleanClause.Occur.SHOULD);
+        }
+        if (text.indexOf('@') >= 0) {
+            Term email = new Term(EMAIL_PREFIX, text.strip().toLowerCase(Locale.ROOT));
+            query.add(new BoostQuery(new PrefixQuery(email), 4), BooleanClause.Occur.SHOULD);
+        }
+
+        BooleanQuery built = query.build();
+        return built.clauses().isEmpty() ? null : built;
+    }
+
+    private Query wordQuery(String word) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        query.add(new BoostQuery(new TermQuery(new Term(TEXT, word)), 4), BooleanClause.Occur.SHOULD);
+        query.add(new BoostQuery(new PrefixQuery(new Term(TEXT, word)), 2), BooleanClause.Occur.SHOULD);
+        if (word.length() >= 3) {
+            // The first letter must match, which keeps the number of candidate words low
+            query.add(new FuzzyQuery(new Term(TEXT, word), word.length() > 5 ? 2 : 1, 1), BooleanClause.Occur.SHOULD);
+        }
+        for (String code : analyze(PHONETIC, word)) {
+            query.add(new TermQuery(new Term(PHONETIC, code)), BooleanClause.Occur.SHOULD);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String field, String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    private static String digits(String text) {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        indexingExecutor.shutdownNow();
+        indexingExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+        analyzer.close();
+    }
+
+    /**
+     * Lower case words, without accents.
+     */
+    private static final class TextAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            return new TokenStreamComponents(tokenizer, new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer)));
+        }
+    }
+
+    /**
+     * Double Metaphone codes of the words, the same for the names which sound alike.
+     */
+    private static final class PhoneticAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream tokenStream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            return new TokenStreamComponents(tokenizer, new DoubleMetaphoneFilter(tokenStream, 4, false));
+        }
+    }
+
+    /**
+     * Queues the owners for indexing once the changes of their owner or of their pets are committed.
+     */
+    private final class IndexingListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        private static final String OWNER = "owner";
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            reindex(ownerIds(event.getEntity(), event.getPersister(), null));
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            reindex(ownerIds(event.getEntity(), event.getPersister(), event.getOldState()));
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            reindex(ownerIds(event.getEntity(), event.getPersister(), event.getDeletedState()));
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+            // Nothing was committed
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // Nothing was committed
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // Nothing was committed
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.getMappedClass() == Owner.class || persister.getMappedClass() == Pet.class;
+        }
+
+        /**
+         * The owner, or the current and former owners of a pet.
+         */
+        private Set<Long> ownerIds(Object entity, EntityPersister persister, Object[] formerState) {
+            Set<Long> ownerIds = new HashSet<>();
+            if (entity instanceof Owner owner) {
+                addOwnerId(ownerIds, owner);
+            } else if (entity instanceof Pet pet) {
+                addOwnerId(ownerIds, pet.getOwner());
+                if (formerState != null) {
+                    String[] propertyNames = persister.getPropertyNames();
+                    for (int i = 0; i < propertyNames.length; i++) {
+                        if (OWNER.equals(propertyNames[i]) && formerState[i] instanceof Owner formerOwner) {
+                            addOwnerId(ownerIds, formerOwner);
+                        }
+                    }
+                }
+            }
+            return ownerIds;
+        }
+
+        private void addOwnerId(Set<Long> ownerIds, Owner owner) {
+            if (owner != null && owner.getId() != null) {
+                ownerIds.add(owner.getId());
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.springframework.samples.petclinic.service;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.samples.petclinic.domain.Owner;
 import org.springframework.samples.petclinic.repository.OwnerRepository;
 import org.springframework.samples.petclinic.service.dto.OwnerDTO;
@@ -17,15 +18,28 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class OwnerService {
 
+    private static final String AGGREGATE_TYPE = "Owner";
+
     private final Logger log = LoggerFactory.getLogger(OwnerService.class);
 
     private final OwnerRepository ownerRepository;
 
     private final OwnerMapper ownerMapper;
 
-    public OwnerService(OwnerRepository ownerRepository, OwnerMapper ownerMapper) {
+    private final OutboxService outboxService;
+
+    private final OwnerAutocompleteService ownerAutocompleteService;
+
+    public OwnerService(
+        OwnerRepository ownerRepository,
+        OwnerMapper ownerMapper,
+        OutboxService outboxService,
+        OwnerAutocompleteService ownerAutocompleteService
+    ) {
         this.ownerRepository = ownerRepository;
         this.ownerMapper = ownerMapper;
+        this.outboxService = outboxService;
+        this.ownerAutocompleteService = ownerAutocompleteService;
     }
 
     /**
@@ -38,7 +52,10 @@ public class OwnerService {
         log.debug("Request to save Owner : {}", ownerDTO);
         Owner owner = ownerMapper.toEntity(ownerDTO);
         owner = ownerRepository.save(owner);
-        return ownerMapper.toDto(owner);
+        OwnerDTO result = ownerMapper.toDto(owner);
+        outboxService.created(AGGREGATE_TYPE, result.getId(), result);
+        ownerAutocompleteService.saved(result);
+        return result;
     }
 
     /**
@@ -50,28 +67,41 @@ public class OwnerService {
     public OwnerDTO update(OwnerDTO ownerDTO) {
         log.debug("Request to update Owner : {}", ownerDTO);
         Owner owner = ownerMapper.toEntity(ownerDTO);
-        owner = ownerRepository.save(owner);
-        return ownerMapper.toDto(owner);
+        owner = ownerRepository.saveAndFlush(owner);
+        OwnerDTO result = ownerMapper.toDto(owner);
+        outboxService.updated(AGGREGATE_TYPE, result.getId(), result);
+        ownerAutocompleteService.saved(result);
+        return result;
     }
 
     /**
      * Partially update a owner.
      *
-     * @param ownerDTO the entity to update partially.
+     * @param ownerDTO the entity to update partially, and the version it applies to, if any.
      * @return the persisted entity.
+     * @throws ObjectOptimisticLockingFailureException if the owner is not at the version of {@code ownerDTO}.
      */
     public Optional<OwnerDTO> partialUpdate(OwnerDTO ownerDTO) {
         log.debug("Request to partially update Owner : {}", ownerDTO);
 
-        return ownerRepository
+        Optional<OwnerDTO> result = ownerRepository
             .findById(ownerDTO.getId())
             .map(existingOwner -> {
+                // Hibernate checks the version it loaded, not the one requested
+                if (ownerDTO.getVersion() != null && !ownerDTO.getVersion().equals(existingOwner.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Owner.class, ownerDTO.getId());
+                }
                 ownerMapper.partialUpdate(existingOwner, ownerDTO);
 
                 return existingOwner;
             })
-            .map(ownerRepository::save)
+            .map(ownerRepository::saveAndFlush)
             .map(ownerMapper::toDto);
+        result.ifPresent(updated -> {
+            outboxService.updated(AGGREGATE_TYPE, updated.getId(), updated);
+            ownerAutocompleteService.saved(updated);
+        });
+        return result;
     }
 
     /**
@@ -93,6 +123,12 @@ public class OwnerService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Owner : {}", id);
-        ownerRepository.deleteById(id);
+        ownerRepository
+            .findById(id)
+            .ifPresent(owner -> {
+                ownerRepository.delete(owner);
+                outboxService.deleted(AGGREGATE_TYPE, id);
+                ownerAutocompleteService.deleted(id);
+            });
     }
 }
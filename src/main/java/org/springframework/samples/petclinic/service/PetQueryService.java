@@ -1,17 +1,26 @@
 package org.springframework.samples.petclinic.service;
 
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.JoinType;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.samples.petclinic.domain.*; // for static metamodels
 import org.springframework.samples.petclinic.domain.Pet;
 import org.springframework.samples.petclinic.repository.PetRepository;
 import org.springframework.samples.petclinic.service.criteria.PetCriteria;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
 import org.springframework.samples.petclinic.service.dto.PetDTO;
-import org.springframework.samples.petclinic.service.mapper.PetMapper;
+import org.springframework.samples.petclinic.service.dto.PetTypeDTO;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
@@ -30,15 +39,13 @@ public class PetQueryService extends QueryService<Pet> {
 
     private final PetRepository petRepository;
 
-    private final PetMapper petMapper;
-
-    public PetQueryService(PetRepository petRepository, PetMapper petMapper) {
+    public PetQueryService(PetRepository petRepository) {
         this.petRepository = petRepository;
-        this.petMapper = petMapper;
     }
 
     /**
      * Return a {@link Page} of {@link PetDTO} which matches the criteria from the database.
+     * Only the columns of the DTO are selected, no entity is loaded.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -47,7 +54,29 @@ public class PetQueryService extends QueryService<Pet> {
     public Page<PetDTO> findByCriteria(PetCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Pet> specification = createSpecification(criteria);
-        return petRepository.findAll(specification, page).map(petMapper::toDto);
+        return petRepository.findAllProjected(specification, page).map(this::toDto);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link PetDTO} which matches the criteria from the database, ordered by id
+     * and starting right after the given id.
+     * The database seeks on the primary key instead of scanning an offset, and no count query is issued.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param afterId The id of the last entity of the previous slice, or {@code null} for the first slice.
+     * @param size The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PetDTO> findByCriteriaAfter(PetCriteria criteria, Long afterId, int size) {
+        log.debug("find by criteria : {}, after: {}, size: {}", criteria, afterId, size);
+        Specification<Pet> specification = createSpecification(criteria);
+        if (afterId != null) {
+            specification = specification.and((root, query, builder) -> builder.greaterThan(root.get(Pet_.id), afterId));
+        }
+        List<Tuple> pets = petRepository.findAllProjected(specification, Sort.by(Pet_.ID), size + 1);
+        boolean hasNext = pets.size() > size;
+        List<PetDTO> content = (hasNext ? pets.subList(0, size) : pets).stream().map(this::toDto).toList();
+        return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
     }
 
     /**
@@ -62,6 +91,28 @@ public class PetQueryService extends QueryService<Pet> {
         return petRepository.count(specification);
     }
 
+    private PetDTO toDto(Tuple tuple) {
+        PetDTO petDTO = new PetDTO();
+        petDTO.setId(tuple.get(Pet_.ID, Long.class));
+        petDTO.setVersion(tuple.get(Pet_.VERSION, Long.class));
+        petDTO.setLastModifiedDate(tuple.get(Pet_.LAST_MODIFIED_DATE, Instant.class));
+        petDTO.setName(tuple.get(Pet_.NAME, String.class));
+        petDTO.setBirthDate(tuple.get(Pet_.BIRTH_DATE, LocalDate.class));
+        Long typeId = tuple.get(PetRepository.TYPE_ID, Long.class);
+        if (typeId != null) {
+            PetTypeDTO petTypeDTO = new PetTypeDTO();
+            petTypeDTO.setId(typeId);
+            petDTO.setType(petTypeDTO);
+        }
+        Long ownerId = tuple.get(PetRepository.OWNER_ID, Long.class);
+        if (ownerId != null) {
+            OwnerDTO ownerDTO = new OwnerDTO();
+            ownerDTO.setId(ownerId);
+            petDTO.setOwner(ownerDTO);
+        }
+        return petDTO;
+    }
+
     /**
      * Function to convert {@link PetCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -3,6 +3,7 @@ package org.springframework.samples.petclinic.service;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.samples.petclinic.domain.Pet;
 import org.springframework.samples.petclinic.repository.PetRepository;
 import org.springframework.samples.petclinic.service.dto.PetDTO;
@@ -17,15 +18,20 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class PetService {
 
+    private static final String AGGREGATE_TYPE = "Pet";
+
     private final Logger log = LoggerFactory.getLogger(PetService.class);
 
     private final PetRepository petRepository;
 
     private final PetMapper petMapper;
 
-    public PetService(PetRepository petRepository, PetMapper petMapper) {
+    private final OutboxService outboxService;
+
+    public PetService(PetRepository petRepository, PetMapper petMapper, OutboxService outboxService) {
         this.petRepository = petRepository;
         this.petMapper = petMapper;
+        this.outboxService = outboxService;
     }
 
     /**
@@ -38,7 +44,9 @@ public class PetService {
         log.debug("Request to save Pet : {}", petDTO);
         Pet pet = petMapper.toEntity(petDTO);
         pet = petRepository.save(pet);
-        return petMapper.toDto(pet);
+        PetDTO result = petMapper.toDto(pet);
+        outboxService.created(AGGREGATE_TYPE, result.getId(), result);
+        return result;
     }
 
     /**
@@ -50,28 +58,37 @@ public class PetService {
     public PetDTO update(PetDTO petDTO) {
         log.debug("Request to update Pet : {}", petDTO);
         Pet pet = petMapper.toEntity(petDTO);
-        pet = petRepository.save(pet);
-        return petMapper.toDto(pet);
+        pet = petRepository.saveAndFlush(pet);
+        PetDTO result = petMapper.toDto(pet);
+        outboxService.updated(AGGREGATE_TYPE, result.getId(), result);
+        return result;
     }
 
     /**
      * Partially update a pet.
      *
-     * @param petDTO the entity to update partially.
+     * @param petDTO the entity to update partially, and the version it applies to, if any.
      * @return the persisted entity.
+     * @throws ObjectOptimisticLockingFailureException if the pet is not at the version of {@code petDTO}.
      */
     public Optional<PetDTO> partialUpdate(PetDTO petDTO) {
         log.debug("Request to partially update Pet : {}", petDTO);
 
-        return petRepository
+        Optional<PetDTO> result = petRepository
             .findById(petDTO.getId())
             .map(existingPet -> {
+                // Hibernate checks the version it loaded, not the one requested
+                if (petDTO.getVersion() != null && !petDTO.getVersion().equals(existingPet.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Pet.class, petDTO.getId());
+                }
                 petMapper.partialUpdate(existingPet, petDTO);
 
                 return existingPet;
             })
-            .map(petRepository::save)
+            .map(petRepository::saveAndFlush)
             .map(petMapper::toDto);
+        result.ifPresent(updated -> outboxService.updated(AGGREGATE_TYPE, updated.getId(), updated));
+        return result;
     }
 
     /**
@@ -93,6 +110,11 @@ public class PetService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Pet : {}", id);
-        petRepository.deleteById(id);
+        petRepository
+            .findById(id)
+            .ifPresent(pet -> {
+                petRepository.delete(pet);
+                outboxService.deleted(AGGREGATE_TYPE, id);
+            });
     }
 }
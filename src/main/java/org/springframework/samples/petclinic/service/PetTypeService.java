@@ -3,6 +3,7 @@ package org.springframework.samples.petclinic.service;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.samples.petclinic.domain.PetType;
 import org.springframework.samples.petclinic.repository.PetTypeRepository;
 import org.springframework.samples.petclinic.service.dto.PetTypeDTO;
@@ -50,15 +51,16 @@ public class PetTypeService {
     public PetTypeDTO update(PetTypeDTO petTypeDTO) {
         log.debug("Request to update PetType : {}", petTypeDTO);
         PetType petType = petTypeMapper.toEntity(petTypeDTO);
-        petType = petTypeRepository.save(petType);
+        petType = petTypeRepository.saveAndFlush(petType);
         return petTypeMapper.toDto(petType);
     }
 
     /**
      * Partially update a petType.
      *
-     * @param petTypeDTO the entity to update partially.
+     * @param petTypeDTO the entity to update partially, and the version it applies to, if any.
      * @return the persisted entity.
+     * @throws ObjectOptimisticLockingFailureException if the petType is not at the version of {@code petTypeDTO}.
      */
     public Optional<PetTypeDTO> partialUpdate(PetTypeDTO petTypeDTO) {
         log.debug("Request to partially update PetType : {}", petTypeDTO);
@@ -66,11 +68,15 @@ public class PetTypeService {
         return petTypeRepository
             .findById(petTypeDTO.getId())
             .map(existingPetType -> {
+                // Hibernate checks the version it loaded, not the one requested
+                if (petTypeDTO.getVersion() != null && !petTypeDTO.getVersion().equals(existingPetType.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(PetType.class, petTypeDTO.getId());
+                }
                 petTypeMapper.partialUpdate(existingPetType, petTypeDTO);
 
                 return existingPetType;
             })
-            .map(petTypeRepository::save)
+            .map(petTypeRepository::saveAndFlush)
             .map(petTypeMapper::toDto);
     }
 
@@ -21,6 +21,8 @@ import tech.jhipster.service.QueryService;
  * The main input is a {@link SpecialityCriteria} which gets converted to {@link Specification},
  * in a way that all the filters must apply.
  * It returns a {@link Page} of {@link SpecialityDTO} which fulfills the criteria.
+ * <p>
+ * The queries and their counts are served from the {@link SpecialityRepository#QUERY_CACHE} query cache region.
  */
 @Service
 @Transactional(readOnly = true)
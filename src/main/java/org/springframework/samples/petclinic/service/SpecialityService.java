@@ -3,6 +3,7 @@ package org.springframework.samples.petclinic.service;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.samples.petclinic.domain.Speciality;
 import org.springframework.samples.petclinic.repository.SpecialityRepository;
 import org.springframework.samples.petclinic.service.dto.SpecialityDTO;
@@ -50,15 +51,16 @@ public class SpecialityService {
     public SpecialityDTO update(SpecialityDTO specialityDTO) {
         log.debug("Request to update Speciality : {}", specialityDTO);
         Speciality speciality = specialityMapper.toEntity(specialityDTO);
-        speciality = specialityRepository.save(speciality);
+        speciality = specialityRepository.saveAndFlush(speciality);
         return specialityMapper.toDto(speciality);
     }
 
     /**
      * Partially update a speciality.
      *
-     * @param specialityDTO the entity to update partially.
+     * @param specialityDTO the entity to update partially, and the version it applies to, if any.
      * @return the persisted entity.
+     * @throws ObjectOptimisticLockingFailureException if the speciality is not at the version of {@code specialityDTO}.
      */
     public Optional<SpecialityDTO> partialUpdate(SpecialityDTO specialityDTO) {
         log.debug("Request to partially update Speciality : {}", specialityDTO);
@@ -66,11 +68,15 @@ public class SpecialityService {
         return specialityRepository
             .findById(specialityDTO.getId())
             .map(existingSpeciality -> {
+                // Hibernate checks the version it loaded, not the one requested
+                if (specialityDTO.getVersion() != null && !specialityDTO.getVersion().equals(existingSpeciality.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Speciality.class, specialityDTO.getId());
+                }
                 specialityMapper.partialUpdate(existingSpeciality, specialityDTO);
 
                 return existingSpeciality;
             })
-            .map(specialityRepository::save)
+            .map(specialityRepository::saveAndFlush)
             .map(specialityMapper::toDto);
     }
 
@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.samples.petclinic.domain.Vet;
 import org.springframework.samples.petclinic.repository.VetRepository;
 import org.springframework.samples.petclinic.service.dto.VetDTO;
@@ -19,15 +20,20 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class VetService {
 
+    private static final String AGGREGATE_TYPE = "Vet";
+
     private final Logger log = LoggerFactory.getLogger(VetService.class);
 
     private final VetRepository vetRepository;
 
     private final VetMapper vetMapper;
 
-    public VetService(VetRepository vetRepository, VetMapper vetMapper) {
+    private final OutboxService outboxService;
+
+    public VetService(VetRepository vetRepository, VetMapper vetMapper, OutboxService outboxService) {
         this.vetRepository = vetRepository;
         this.vetMapper = vetMapper;
+        this.outboxService = outboxService;
     }
 
     /**
@@ -40,7 +46,9 @@ public class VetService {
         log.debug("Request to save Vet : {}", vetDTO);
         Vet vet = vetMapper.toEntity(vetDTO);
         vet = vetRepository.save(vet);
-        return vetMapper.toDto(vet);
+        VetDTO result = vetMapper.toDto(vet);
+        outboxService.created(AGGREGATE_TYPE, result.getId(), result);
+        return result;
     }
 
     /**
@@ -52,28 +60,37 @@ public class VetService {
     public VetDTO update(VetDTO vetDTO) {
         log.debug("Request to update Vet : {}", vetDTO);
         Vet vet = vetMapper.toEntity(vetDTO);
-        vet = vetRepository.save(vet);
-        return vetMapper.toDto(vet);
+        vet = vetRepository.saveAndFlush(vet);
+        VetDTO result = vetMapper.toDto(vet);
+        outboxService.updated(AGGREGATE_TYPE, result.getId(), result);
+        return result;
     }
 
     /**
      * Partially update a vet.
      *
-     * @param vetDTO the entity to update partially.
+     * @param vetDTO the entity to update partially, and the version it applies to, if any.
      * @return the persisted entity.
+     * @throws ObjectOptimisticLockingFailureException if the vet is not at the version of {@code vetDTO}.
      */
     public Optional<VetDTO> partialUpdate(VetDTO vetDTO) {
         log.debug("Request to partially update Vet : {}", vetDTO);
 
-        return vetRepository
+        Optional<VetDTO> result = vetRepository
             .findById(vetDTO.getId())
             .map(existingVet -> {
+                // Hibernate checks the version it loaded, not the one requested
+                if (vetDTO.getVersion() != null && !vetDTO.getVersion().equals(existingVet.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Vet.class, vetDTO.getId());
+                }
                 vetMapper.partialUpdate(existingVet, vetDTO);
 
                 return existingVet;
             })
-            .map(vetRepository::save)
+            .map(vetRepository::saveAndFlush)
             .map(vetMapper::toDto);
+        result.ifPresent(updated -> outboxService.updated(AGGREGATE_TYPE, updated.getId(), updated));
+        return result;
     }
 
     /**
@@ -104,6 +121,11 @@ public class VetService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Vet : {}", id);
-        vetRepository.deleteById(id);
+        vetRepository
+            .findById(id)
+            .ifPresent(vet -> {
+                vetRepository.delete(vet);
+                outboxService.deleted(AGGREGATE_TYPE, id);
+            });
     }
 }
@@ -0,0 +1,187 @@
+package org.springframework.samples.petclinic.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.samples.petclinic.domain.Visit;
+import org.springframework.samples.petclinic.repository.VisitBuckets;
+import org.springframework.samples.petclinic.repository.VisitRepository;
+import org.springframework.samples.petclinic.service.dto.BulkResultDTO;
+import org.springframework.samples.petclinic.service.dto.VisitDTO;
+import org.springframework.samples.petclinic.service.mapper.VisitMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for creating and updating {@link Visit} entities in bulk.
+ * <p>
+ * Valid items are saved in chunks of {@link #CHUNK_SIZE}, one transaction per chunk, so that Hibernate flushes them as
+ * JDBC batches ({@code hibernate.jdbc.batch_size}) and ids come from the pooled {@code sequence_generator} without a
+ * round trip per row. When a chunk fails, its items are retried one by one so that only the faulty items are reported as
+ * failed.
+ */
+@Service
+public class VisitBulkService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final String VISIT_AGGREGATE_TYPE = "Visit";
+
+    private final Logger log = LoggerFactory.getLogger(VisitBulkService.class);
+
+    private final VisitRepository visitRepository;
+
+    private final VisitMapper visitMapper;
+
+    private final Validator validator;
+
+    private final OutboxService outboxService;
+
+    private final VisitStatisticsService visitStatisticsService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public VisitBulkService(
+        VisitRepository visitRepository,
+        VisitMapper visitMapper,
+        Validator validator,
+        OutboxService outboxService,
+        VisitStatisticsService visitStatisticsService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.visitRepository = visitRepository;
+        this.visitMapper = visitMapper;
+        this.validator = validator;
+        this.outboxService = outboxService;
+        this.visitStatisticsService = visitStatisticsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Create visits.
+     *
+     * @param visitDTOs the entities to create, which must not have an id.
+     * @return the outcome of each item, in the order of the request.
+     */
+    public List<BulkResultDTO> createAll(List<VisitDTO> visitDTOs) {
+        log.debug("Request to create {} Visits", visitDTOs.size());
+        return saveAll(visitDTOs, false);
+    }
+
+    /**
+     * Update existing visits.
+     *
+     * @param visitDTOs the entities to update, which must have the id of an existing visit.
+     * @return the outcome of each item, in the order of the request.
+     */
+    public List<BulkResultDTO> updateAll(List<VisitDTO> visitDTOs) {
+        log.debug("Request to update {} Visits", visitDTOs.size());
+        return saveAll(visitDTOs, true);
+    }
+
+    private List<BulkResultDTO> saveAll(List<VisitDTO> visitDTOs, boolean update) {
+        BulkResultDTO[] results = new BulkResultDTO[visitDTOs.size()];
+        List<Integer> valid = new ArrayList<>(visitDTOs.size());
+        for (int index = 0; index < visitDTOs.size(); index++) {
+            VisitDTO visitDTO = visitDTOs.get(index);
+            String error = validate(visitDTO, update);
+            if (error == null) {
+                valid.add(index);
+            } else {
+                results[index] = BulkResultDTO.failed(index, visitDTO == null ? null : visitDTO.getId(), error);
+            }
+        }
+
+        for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveChunk(visitDTOs, chunk, update, results));
+            } catch (DataAccessException | TransactionException e) {
+                log.debug("Bulk save of {} Visits failed, saving them one by one: {}", chunk.size(), e.getMessage());
+                for (Integer index : chunk) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> saveChunk(visitDTOs, List.of(index), update, results));
+                    } catch (DataAccessException | TransactionException ex) {
+                        String error = ex instanceof ConcurrencyFailureException ? "concurrencyfailure" : "dataintegrity";
+                        results[index] = BulkResultDTO.failed(index, visitDTOs.get(index).getId(), error);
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private String validate(VisitDTO visitDTO, boolean update) {
+        if (visitDTO == null) {
+            return "null";
+        }
+        if (update && visitDTO.getId() == null) {
+            return "idnull";
+        }
+        if (!update && visitDTO.getId() != null) {
+            return "idexists";
+        }
+        Set<ConstraintViolation<VisitDTO>> violations = validator.validate(visitDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()).collect(Collectors.joining(", "));
+        }
+        return null;
+    }
+
+    private void saveChunk(List<VisitDTO> visitDTOs, List<Integer> chunk, boolean update, BulkResultDTO[] results) {
+        Map<Long, Long> existingVersions = Map.of();
+        Map<Long, VisitBuckets> before = Map.of();
+        if (update) {
+            // Loads the whole chunk in one query, so that the merges below do not select the visits one by one
+            List<Long> ids = chunk.stream().map(index -> visitDTOs.get(index).getId()).toList();
+            existingVersions = visitRepository.findAllById(ids).stream().collect(Collectors.toMap(Visit::getId, Visit::getVersion));
+            before = visitStatisticsService.bucketsOf(existingVersions.keySet());
+        }
+
+        List<Integer> indexes = new ArrayList<>(chunk.size());
+        List<Visit> visits = new ArrayList<>(chunk.size());
+        for (Integer index : chunk) {
+            VisitDTO visitDTO = visitDTOs.get(index);
+            if (update && !existingVersions.containsKey(visitDTO.getId())) {
+                results[index] = BulkResultDTO.failed(index, visitDTO.getId(), "idnotfound");
+            } else {
+                Visit visit = visitMapper.toEntity(visitDTO);
+                if (update && visit.getVersion() == null) {
+                    // Items without a version overwrite the current state, items with one are checked by Hibernate
+                    visit.setVersion(existingVersions.get(visitDTO.getId()));
+                }
+                indexes.add(index);
+                visits.add(visit);
+            }
+        }
+
+        visits = visitRepository.saveAll(visits);
+        // Flushes before mapping, so that the events carry the incremented versions
+        visitRepository.flush();
+        for (Visit visit : visits) {
+            VisitDTO visitDTO = visitMapper.toDto(visit);
+            if (update) {
+                outboxService.updated(VISIT_AGGREGATE_TYPE, visitDTO.getId(), visitDTO);
+            } else {
+                outboxService.created(VISIT_AGGREGATE_TYPE, visitDTO.getId(), visitDTO);
+            }
+        }
+        visitStatisticsService.recount(before, visits.stream().map(Visit::getId).toList());
+        for (int i = 0; i < indexes.size(); i++) {
+            int index = indexes.get(i);
+            Long id = visits.get(i).getId();
+            results[index] = update ? BulkResultDTO.updated(index, id) : BulkResultDTO.created(index, id);
+        }
+    }
+}
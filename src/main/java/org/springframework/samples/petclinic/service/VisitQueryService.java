@@ -1,15 +1,26 @@
 package org.springframework.samples.petclinic.service;
 
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.JoinType;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.samples.petclinic.domain.*; // for static metamodels
 import org.springframework.samples.petclinic.domain.Visit;
 import org.springframework.samples.petclinic.repository.VisitRepository;
 import org.springframework.samples.petclinic.service.criteria.VisitCriteria;
+import org.springframework.samples.petclinic.service.dto.PetDTO;
+import org.springframework.samples.petclinic.service.dto.VetDTO;
 import org.springframework.samples.petclinic.service.dto.VisitDTO;
 import org.springframework.samples.petclinic.service.mapper.VisitMapper;
 import org.springframework.stereotype.Service;
@@ -26,6 +37,8 @@ import tech.jhipster.service.QueryService;
 @Transactional(readOnly = true)
 public class VisitQueryService extends QueryService<Visit> {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
     private final Logger log = LoggerFactory.getLogger(VisitQueryService.class);
 
     private final VisitRepository visitRepository;
@@ -39,6 +52,7 @@ public class VisitQueryService extends QueryService<Visit> {
 
     /**
      * Return a {@link Page} of {@link VisitDTO} which matches the criteria from the database.
+     * Only the columns of the DTO are selected, no entity is loaded.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
@@ -47,7 +61,42 @@ public class VisitQueryService extends QueryService<Visit> {
     public Page<VisitDTO> findByCriteria(VisitCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Visit> specification = createSpecification(criteria);
-        return visitRepository.findAll(specification, page).map(visitMapper::toDto);
+        return visitRepository.findAllProjected(specification, page).map(this::toDto);
+    }
+
+    /**
+     * Return a {@link Slice} of {@link VisitDTO} which matches the criteria from the database, ordered by id
+     * and starting right after the given id.
+     * The database seeks on the primary key instead of scanning an offset, and no count query is issued.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param afterId The id of the last entity of the previous slice, or {@code null} for the first slice.
+     * @param size The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<VisitDTO> findByCriteriaAfter(VisitCriteria criteria, Long afterId, int size) {
+        log.debug("find by criteria : {}, after: {}, size: {}", criteria, afterId, size);
+        Specification<Visit> specification = createSpecification(criteria);
+        if (afterId != null) {
+            specification = specification.and((root, query, builder) -> builder.greaterThan(root.get(Visit_.id), afterId));
+        }
+        List<Tuple> visits = visitRepository.findAllProjected(specification, Sort.by(Visit_.ID), size + 1);
+        boolean hasNext = visits.size() > size;
+        List<VisitDTO> content = (hasNext ? visits.subList(0, size) : visits).stream().map(this::toDto).toList();
+        return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
+    }
+
+    /**
+     * Apply an action to every {@link VisitDTO} which matches the criteria from the database, in id order.
+     * The entities are read from a database cursor and mapped one at a time, so the result is never held in memory.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param action The action applied to each matching entity.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCriteria(VisitCriteria criteria, Consumer<VisitDTO> action) {
+        log.debug("stream by criteria : {}", criteria);
+        final Specification<Visit> specification = createSpecification(criteria);
+        visitRepository.streamAll(specification, STREAM_FETCH_SIZE, visit -> action.accept(visitMapper.toDto(visit)));
     }
 
     /**
@@ -62,6 +111,27 @@ public class VisitQueryService extends QueryService<Visit> {
         return visitRepository.count(specification);
     }
 
+    private VisitDTO toDto(Tuple tuple) {
+        VisitDTO visitDTO = new VisitDTO();
+        visitDTO.setId(tuple.get(Visit_.ID, Long.class));
+        visitDTO.setVersion(tuple.get(Visit_.VERSION, Long.class));
+        visitDTO.setLastModifiedDate(tuple.get(Visit_.LAST_MODIFIED_DATE, Instant.class));
+        visitDTO.setDate(tuple.get(Visit_.DATE, LocalDate.class));
+        Long vetId = tuple.get(VisitRepository.VET_ID, Long.class);
+        if (vetId != null) {
+            VetDTO vetDTO = new VetDTO();
+            vetDTO.setId(vetId);
+            visitDTO.setVet(vetDTO);
+        }
+        Long petId = tuple.get(VisitRepository.PET_ID, Long.class);
+        if (petId != null) {
+            PetDTO petDTO = new PetDTO();
+            petDTO.setId(petId);
+            visitDTO.setPet(petDTO);
+        }
+        return visitDTO;
+    }
+
     /**
      * Function to convert {@link VisitCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
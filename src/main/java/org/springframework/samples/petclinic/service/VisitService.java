@@ -1,9 +1,13 @@
 package org.springframework.samples.petclinic.service;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.samples.petclinic.domain.Visit;
+import org.springframework.samples.petclinic.repository.VisitBuckets;
 import org.springframework.samples.petclinic.repository.VisitRepository;
 import org.springframework.samples.petclinic.service.dto.VisitDTO;
 import org.springframework.samples.petclinic.service.mapper.VisitMapper;
@@ -17,15 +21,28 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class VisitService {
 
+    private static final String AGGREGATE_TYPE = "Visit";
+
     private final Logger log = LoggerFactory.getLogger(VisitService.class);
 
     private final VisitRepository visitRepository;
 
     private final VisitMapper visitMapper;
 
-    public VisitService(VisitRepository visitRepository, VisitMapper visitMapper) {
+    private final OutboxService outboxService;
+
+    private final VisitStatisticsService visitStatisticsService;
+
+    public VisitService(
+        VisitRepository visitRepository,
+        VisitMapper visitMapper,
+        OutboxService outboxService,
+        VisitStatisticsService visitStatisticsService
+    ) {
         this.visitRepository = visitRepository;
         this.visitMapper = visitMapper;
+        this.outboxService = outboxService;
+        this.visitStatisticsService = visitStatisticsService;
     }
 
     /**
@@ -38,7 +55,10 @@ public class VisitService {
         log.debug("Request to save Visit : {}", visitDTO);
         Visit visit = visitMapper.toEntity(visitDTO);
         visit = visitRepository.save(visit);
-        return visitMapper.toDto(visit);
+        VisitDTO result = visitMapper.toDto(visit);
+        outboxService.created(AGGREGATE_TYPE, result.getId(), result);
+        visitStatisticsService.recount(Map.of(), List.of(result.getId()));
+        return result;
     }
 
     /**
@@ -49,29 +69,44 @@ public class VisitService {
      */
     public VisitDTO update(VisitDTO visitDTO) {
         log.debug("Request to update Visit : {}", visitDTO);
+        Map<Long, VisitBuckets> before = visitStatisticsService.bucketsOf(List.of(visitDTO.getId()));
         Visit visit = visitMapper.toEntity(visitDTO);
-        visit = visitRepository.save(visit);
-        return visitMapper.toDto(visit);
+        visit = visitRepository.saveAndFlush(visit);
+        VisitDTO result = visitMapper.toDto(visit);
+        outboxService.updated(AGGREGATE_TYPE, result.getId(), result);
+        visitStatisticsService.recount(before, List.of(result.getId()));
+        return result;
     }
 
     /**
      * Partially update a visit.
      *
-     * @param visitDTO the entity to update partially.
+     * @param visitDTO the entity to update partially, and the version it applies to, if any.
      * @return the persisted entity.
+     * @throws ObjectOptimisticLockingFailureException if the visit is not at the version of {@code visitDTO}.
      */
     public Optional<VisitDTO> partialUpdate(VisitDTO visitDTO) {
         log.debug("Request to partially update Visit : {}", visitDTO);
+        Map<Long, VisitBuckets> before = visitStatisticsService.bucketsOf(List.of(visitDTO.getId()));
 
-        return visitRepository
+        Optional<VisitDTO> result = visitRepository
             .findById(visitDTO.getId())
             .map(existingVisit -> {
+                // Hibernate checks the version it loaded, not the one requested
+                if (visitDTO.getVersion() != null && !visitDTO.getVersion().equals(existingVisit.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Visit.class, visitDTO.getId());
+                }
                 visitMapper.partialUpdate(existingVisit, visitDTO);
 
                 return existingVisit;
             })
-            .map(visitRepository::save)
+            .map(visitRepository::saveAndFlush)
             .map(visitMapper::toDto);
+        result.ifPresent(updated -> {
+            outboxService.updated(AGGREGATE_TYPE, updated.getId(), updated);
+            visitStatisticsService.recount(before, List.of(updated.getId()));
+        });
+        return result;
     }
 
     /**
@@ -93,6 +128,13 @@ public class VisitService {
      */
     public void delete(Long id) {
         log.debug("Request to delete Visit : {}", id);
-        visitRepository.deleteById(id);
+        visitRepository
+            .findById(id)
+            .ifPresent(visit -> {
+                Map<Long, VisitBuckets> before = visitStatisticsService.bucketsOf(List.of(id));
+                visitRepository.delete(visit);
+                outboxService.deleted(AGGREGATE_TYPE, id);
+                visitStatisticsService.recount(before, List.of(id));
+            });
     }
 }
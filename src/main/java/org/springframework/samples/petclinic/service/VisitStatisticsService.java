@@ -0,0 +1,235 @@
+package org.springframework.samples.petclinic.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.repository.VisitBuckets;
+import org.springframework.samples.petclinic.repository.VisitCount;
+import org.springframework.samples.petclinic.repository.VisitRollupRepository;
+import org.springframework.samples.petclinic.service.dto.VisitCountDTO;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service counting the visits per vet, per pet type and per city of the owner, by day, week, month or year.
+ * <p>
+ * The counts are read from daily rollups instead of the visits, so a query reads a row per day and per vet, pet type or
+ * city at most, whatever the number of visits. The visit services move the changed visits between the rollups in their
+ * own transactions. The rollups count the visits by the type and the owner of their pet when the visit was saved, so
+ * they are rebuilt from the visits every night, to account for the pets and owners changed since. The rebuild is
+ * scheduled on every node but run by one of them only.
+ */
+@Service
+@Transactional
+public class VisitStatisticsService {
+
+    /**
+     * Length of the periods the visits are counted by.
+     */
+    public enum Period {
+        DAY(ChronoUnit.DAYS),
+        WEEK(ChronoUnit.WEEKS),
+        MONTH(ChronoUnit.MONTHS),
+        YEAR(ChronoUnit.YEARS);
+
+        private final ChronoUnit unit;
+
+        Period(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * @return about the number of periods counted from a day, included, to another day, excluded.
+         */
+        public long periodsBetween(LocalDate from, LocalDate to) {
+            return unit.between(from, to) + 1;
+        }
+
+        private String dateTruncUnit() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    static final String REBUILD_TASK = "visit-rollups-rebuild";
+
+    private static final Comparator<Bucket> BUCKET_ORDER = Comparator.comparing(Bucket::rollup)
+        .thenComparing(Bucket::day)
+        .thenComparing(Bucket::id, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(Bucket::city, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Logger log = LoggerFactory.getLogger(VisitStatisticsService.class);
+
+    private final VisitRollupRepository visitRollupRepository;
+
+    private final ApplicationProperties.Statistics properties;
+
+    public VisitStatisticsService(VisitRollupRepository visitRollupRepository, ApplicationProperties applicationProperties) {
+        this.visitRollupRepository = visitRollupRepository;
+        this.properties = applicationProperties.getStatistics();
+    }
+
+    /**
+     * Read the rollups some visits are counted in, before changing them.
+     *
+     * @param visitIds the ids of the visits.
+     * @return the rollups of the visits which exist, by id.
+     */
+    public Map<Long, VisitBuckets> bucketsOf(Collection<Long> visitIds) {
+        if (visitIds.isEmpty()) {
+            return Map.of();
+        }
+        return visitRollupRepository
+            .findBucketsByIdIn(visitIds)
+            .stream()
+            .collect(Collectors.toMap(VisitBuckets::getId, Function.identity()));
+    }
+
+    /**
+     * Move changed visits from the rollups they were counted in to the rollups they are counted in now. The deleted visits
+     * are only removed from the rollups, the created ones only added.
+     *
+     * @param before the rollups of the visits before the change, read with {@link #bucketsOf(Collection)}.
+     * @param visitIds the ids of the changed visits, flushed in the current transaction.
+     */
+    public void recount(Map<Long, VisitBuckets> before, Collection<Long> visitIds) {
+        Map<Long, VisitBuckets> after = bucketsOf(visitIds);
+        // Sorted, so that concurrent transactions lock the rows of the rollups in the same order
+        Map<Bucket, Long> deltas = new TreeMap<>(BUCKET_ORDER);
+        for (Long visitId : visitIds) {
+            addDeltas(deltas, before.get(visitId), -1);
+            addDeltas(deltas, after.get(visitId), 1);
+        }
+        deltas.forEach((bucket, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            switch (bucket.rollup()) {
+                case VET -> visitRollupRepository.addVetVisits(bucket.day(), bucket.id(), delta);
+                case PET_TYPE -> visitRollupRepository.addPetTypeVisits(bucket.day(), bucket.id(), delta);
+                case CITY -> visitRollupRepository.addCityVisits(bucket.day(), bucket.city(), delta);
+            }
+        });
+    }
+
+    private static void addDeltas(Map<Bucket, Long> deltas, VisitBuckets visit, long delta) {
+        if (visit == null || visit.getVisitDate() == null) {
+            return;
+        }
+        if (visit.getVetId() != null) {
+            deltas.merge(new Bucket(Rollup.VET, visit.getVisitDate(), visit.getVetId(), null), delta, Long::sum);
+        }
+        if (visit.getPetTypeId() != null) {
+            deltas.merge(new Bucket(Rollup.PET_TYPE, visit.getVisitDate(), visit.getPetTypeId(), null), delta, Long::sum);
+        }
+        if (visit.getCity() != null) {
+            deltas.merge(new Bucket(Rollup.CITY, visit.getVisitDate(), null, visit.getCity()), delta, Long::sum);
+        }
+    }
+
+    /**
+     * Count the visits per vet and per period.
+     *
+     * @param from the first day counted.
+     * @param to the day after the last day counted.
+     * @param period the length of the periods.
+     * @return the number of visits per period and per vet, by period then the busiest vets first.
+     */
+    @Transactional(readOnly = true)
+    public List<VisitCountDTO> countByVet(LocalDate from, LocalDate to, Period period) {
+        log.debug("Request to count Visits by vet from {} to {} per {}", from, to, period);
+        return visitRollupRepository.countByVet(period.dateTruncUnit(), from, to).stream().map(VisitStatisticsService::toDto).toList();
+    }
+
+    /**
+     * Count the visits per pet type and per period.
+     *
+     * @param from the first day counted.
+     * @param to the day after the last day counted.
+     * @param period the length of the periods.
+     * @return the number of visits per period and per pet type, by period then the most visited pet types first.
+     */
+    @Transactional(readOnly = true)
+    public List<VisitCountDTO> countByPetType(LocalDate from, LocalDate to, Period period) {
+        log.debug("Request to count Visits by pet type from {} to {} per {}", from, to, period);
+        return visitRollupRepository
+            .countByPetType(period.dateTruncUnit(), from, to)
+            .stream()
+            .map(VisitStatisticsService::toDto)
+            .toList();
+    }
+
+    /**
+     * Find the cities of the owners whose pets were visited the most.
+     *
+     * @param from the first day counted.
+     * @param to the day after the last day counted.
+     * @param limit the maximum number of cities.
+     * @return the number of visits per city, the busiest cities first.
+     */
+    @Transactional(readOnly = true)
+    public List<VisitCountDTO> findBusiestCities(LocalDate from, LocalDate to, int limit) {
+        log.debug("Request to find the busiest cities from {} to {}", from, to);
+        return visitRollupRepository
+            .findBusiestCities(from, to, limit)
+            .stream()
+            .map(count -> {
+                VisitCountDTO visitCountDTO = new VisitCountDTO();
+                visitCountDTO.setName(count.getName());
+                visitCountDTO.setVisits(count.getVisits());
+                return visitCountDTO;
+            })
+            .toList();
+    }
+
+    /**
+     * Count all the visits again. The visits cannot be changed meanwhile, the statistics can still be read.
+     * <p>
+     * The first node to run it locks it for {@code application.statistics.rebuild-lock-duration}, the other nodes skip it
+     * meanwhile. The lock is released if the rebuild fails.
+     */
+    @Scheduled(cron = "${application.statistics.rebuild-cron:0 30 2 * * ?}")
+    public void rebuild() {
+        if (visitRollupRepository.lockScheduledTask(REBUILD_TASK, properties.getRebuildLockDuration().toSeconds()) == 0) {
+            log.debug("Visit rollups rebuilt by another node");
+            return;
+        }
+        long start = System.nanoTime();
+        visitRollupRepository.lockRollups();
+        visitRollupRepository.deleteVetVisits();
+        visitRollupRepository.deletePetTypeVisits();
+        visitRollupRepository.deleteCityVisits();
+        int rows = visitRollupRepository.countVetVisits();
+        rows += visitRollupRepository.countPetTypeVisits();
+        rows += visitRollupRepository.countCityVisits();
+        log.info("Rebuilt {} rows of visit rollups in {} ms", rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static VisitCountDTO toDto(VisitCount count) {
+        VisitCountDTO visitCountDTO = new VisitCountDTO();
+        visitCountDTO.setPeriod(count.getPeriod());
+        visitCountDTO.setId(count.getId());
+        visitCountDTO.setName(count.getName());
+        visitCountDTO.setVisits(count.getVisits());
+        return visitCountDTO;
+    }
+
+    private enum Rollup {
+        VET,
+        PET_TYPE,
+        CITY,
+    }
+
+    private record Bucket(Rollup rollup, LocalDate day, Long id, String city) {}
+}
@@ -2,6 +2,7 @@ package org.springframework.samples.petclinic.service.dto;
 
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 
 /**
@@ -26,6 +27,10 @@ public class OwnerDTO implements Serializable {
 
     private String telephone;
 
+    private Long version;
+
+    private Instant lastModifiedDate;
+
     public Long getId() {
         return id;
     }
@@ -82,6 +87,22 @@ public class OwnerDTO implements Serializable {
         this.telephone = telephone;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,85 @@
+package org.springframework.samples.petclinic.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO suggesting an {@link org.springframework.samples.petclinic.domain.Owner} while its name or telephone is typed.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class OwnerSuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String firstName;
+
+    private String lastName;
+
+    private String telephone;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getTelephone() {
+        return telephone;
+    }
+
+    public void setTelephone(String telephone) {
+        this.telephone = telephone;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OwnerSuggestionDTO)) {
+            return false;
+        }
+
+        OwnerSuggestionDTO ownerSuggestionDTO = (OwnerSuggestionDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, ownerSuggestionDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "OwnerSuggestionDTO{" +
+            "id=" + getId() +
+            ", firstName='" + getFirstName() + "'" +
+            ", lastName='" + getLastName() + "'" +
+            ", telephone='" + getTelephone() + "'" +
+            "}";
+    }
+}
@@ -2,6 +2,7 @@ package org.springframework.samples.petclinic.service.dto;
 
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Objects;
 
@@ -22,6 +23,10 @@ public class PetDTO implements Serializable {
 
     private OwnerDTO owner;
 
+    private Long version;
+
+    private Instant lastModifiedDate;
+
     public Long getId() {
         return id;
     }
@@ -62,6 +67,22 @@ public class PetDTO implements Serializable {
         this.owner = owner;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
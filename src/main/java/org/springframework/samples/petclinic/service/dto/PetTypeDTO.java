@@ -2,6 +2,7 @@ package org.springframework.samples.petclinic.service.dto;
 
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 
 /**
@@ -15,6 +16,10 @@ public class PetTypeDTO implements Serializable {
     @NotNull
     private String name;
 
+    private Long version;
+
+    private Instant lastModifiedDate;
+
     public Long getId() {
         return id;
     }
@@ -31,6 +36,22 @@ public class PetTypeDTO implements Serializable {
         this.name = name;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModifiedDate() {
+        return lastModifiedDate;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,94 @@
+package org.springframework.samples.petclinic.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * A DTO for the number of {@link org.springframework.samples.petclinic.domain.Visit}s of a vet, a pet type or a city,
+ * over a period.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class VisitCountDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate period;
+
+    private Long id;
+
+    private String name;
+
+    private Long visits;
+
+    /**
+     * @return the first day of the period, {@code null} when counted over the whole range.
+     */
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(LocalDate period) {
+        this.period = period;
+    }
+
+    /**
+     * @return the id of the vet or of the pet type, {@code null} for a city.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getVisits() {
+        return visits;
+    }
+
+    public void setVisits(Long visits) {
+        this.visits = visits;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof VisitCountDTO)) {
+            return false;
+        }
+        VisitCountDTO visitCountDTO = (VisitCountDTO) o;
+        return (
+            Objects.equals(period, visitCountDTO.period) &&
+            Objects.equals(id, visitCountDTO.id) &&
+            Objects.equals(name, visitCountDTO.name) &&
+            Objects.equals(visits, visitCountDTO.visits)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(period, id, name, visits);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "VisitCountDTO{" +
+            "period=" + getPeriod() +
+            ", id=" + getId() +
+            ", name='" + getName() + "'" +
+            ", visits=" + getVisits() +
+            "}";
+    }
+}
@@ -0,0 +1,65 @@
+package org.springframework.samples.petclinic.service.mapper;
+
+import jakarta.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.Set;
+import org.mapstruct.Named;
+import org.springframework.samples.petclinic.domain.Owner;
+import org.springframework.samples.petclinic.domain.Pet;
+import org.springframework.samples.petclinic.domain.PetType;
+import org.springframework.samples.petclinic.domain.Speciality;
+import org.springframework.samples.petclinic.domain.Vet;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.samples.petclinic.service.dto.PetDTO;
+import org.springframework.samples.petclinic.service.dto.PetTypeDTO;
+import org.springframework.samples.petclinic.service.dto.SpecialityDTO;
+import org.springframework.samples.petclinic.service.dto.VetDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper for the relationships of the DTOs, given by the ids of the related entities.
+ * <p>
+ * The related entities are resolved as references of the persistence context, without loading them. A new entity built
+ * from the id alone would have no version, and be taken for an unsaved entity.
+ */
+@Component
+public class EntityReferenceMapper {
+
+    private final EntityManager entityManager;
+
+    public EntityReferenceMapper(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Named("ownerReference")
+    public Owner ownerReference(OwnerDTO ownerDTO) {
+        return ownerDTO != null ? entityManager.getReference(Owner.class, ownerDTO.getId()) : null;
+    }
+
+    @Named("petReference")
+    public Pet petReference(PetDTO petDTO) {
+        return petDTO != null ? entityManager.getReference(Pet.class, petDTO.getId()) : null;
+    }
+
+    @Named("petTypeReference")
+    public PetType petTypeReference(PetTypeDTO petTypeDTO) {
+        return petTypeDTO != null ? entityManager.getReference(PetType.class, petTypeDTO.getId()) : null;
+    }
+
+    @Named("vetReference")
+    public Vet vetReference(VetDTO vetDTO) {
+        return vetDTO != null ? entityManager.getReference(Vet.class, vetDTO.getId()) : null;
+    }
+
+    @Named("specialityReferenceSet")
+    public Set<Speciality> specialityReferenceSet(Set<SpecialityDTO> specialityDTOs) {
+        if (specialityDTOs == null) {
+            return null;
+        }
+        Set<Speciality> specialities = new HashSet<>();
+        for (SpecialityDTO specialityDTO : specialityDTOs) {
+            specialities.add(entityManager.getReference(Speciality.class, specialityDTO.getId()));
+        }
+        return specialities;
+    }
+}
@@ -11,12 +11,22 @@ import org.springframework.samples.petclinic.service.dto.PetTypeDTO;
 /**
  * Mapper for the entity {@link Pet} and its DTO {@link PetDTO}.
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = EntityReferenceMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface PetMapper extends EntityMapper<PetDTO, Pet> {
     @Mapping(target = "type", source = "type", qualifiedByName = "petTypeId")
     @Mapping(target = "owner", source = "owner", qualifiedByName = "ownerId")
     PetDTO toDto(Pet s);
 
+    @Mapping(target = "type", source = "type", qualifiedByName = "petTypeReference")
+    @Mapping(target = "owner", source = "owner", qualifiedByName = "ownerReference")
+    Pet toEntity(PetDTO petDTO);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "type", source = "type", qualifiedByName = "petTypeReference")
+    @Mapping(target = "owner", source = "owner", qualifiedByName = "ownerReference")
+    void partialUpdate(@MappingTarget Pet entity, PetDTO petDTO);
+
     @Named("petTypeId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
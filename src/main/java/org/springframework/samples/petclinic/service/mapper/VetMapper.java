@@ -11,14 +11,21 @@ import org.springframework.samples.petclinic.service.dto.VetDTO;
 /**
  * Mapper for the entity {@link Vet} and its DTO {@link VetDTO}.
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = EntityReferenceMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface VetMapper extends EntityMapper<VetDTO, Vet> {
     @Mapping(target = "specialities", source = "specialities", qualifiedByName = "specialityIdSet")
     VetDTO toDto(Vet s);
 
+    @Mapping(target = "specialities", source = "specialities", qualifiedByName = "specialityReferenceSet")
     @Mapping(target = "removeSpecialities", ignore = true)
     Vet toEntity(VetDTO vetDTO);
 
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "specialities", source = "specialities", qualifiedByName = "specialityReferenceSet")
+    @Mapping(target = "removeSpecialities", ignore = true)
+    void partialUpdate(@MappingTarget Vet entity, VetDTO vetDTO);
+
     @Named("specialityId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -11,12 +11,22 @@ import org.springframework.samples.petclinic.service.dto.VisitDTO;
 /**
  * Mapper for the entity {@link Visit} and its DTO {@link VisitDTO}.
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = EntityReferenceMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface VisitMapper extends EntityMapper<VisitDTO, Visit> {
     @Mapping(target = "vet", source = "vet", qualifiedByName = "vetId")
     @Mapping(target = "pet", source = "pet", qualifiedByName = "petId")
     VisitDTO toDto(Visit s);
 
+    @Mapping(target = "vet", source = "vet", qualifiedByName = "vetReference")
+    @Mapping(target = "pet", source = "pet", qualifiedByName = "petReference")
+    Visit toEntity(VisitDTO visitDTO);
+
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "vet", source = "vet", qualifiedByName = "vetReference")
+    @Mapping(target = "pet", source = "pet", qualifiedByName = "petReference")
+    void partialUpdate(@MappingTarget Visit entity, VisitDTO visitDTO);
+
     @Named("vetId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
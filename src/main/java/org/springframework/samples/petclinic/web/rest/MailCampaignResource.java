@@ -0,0 +1,68 @@
+package org.springframework.samples.petclinic.web.rest;
+
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.domain.User;
+import org.springframework.samples.petclinic.repository.UserRepository;
+import org.springframework.samples.petclinic.security.AuthoritiesConstants;
+import org.springframework.samples.petclinic.service.MailQueueService;
+import org.springframework.samples.petclinic.service.MailService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the bulk email campaigns, sent in batches by the {@link MailQueueService}.
+ */
+@RestController
+@RequestMapping("/api/admin/mail")
+public class MailCampaignResource {
+
+    private final Logger log = LoggerFactory.getLogger(MailCampaignResource.class);
+
+    private final UserRepository userRepository;
+
+    private final MailService mailService;
+
+    private final MailQueueService mailQueueService;
+
+    public MailCampaignResource(UserRepository userRepository, MailService mailService, MailQueueService mailQueueService) {
+        this.userRepository = userRepository;
+        this.mailService = mailService;
+        this.mailQueueService = mailQueueService;
+    }
+
+    /**
+     * {@code POST  /admin/mail/activation-reminders} : queue the activation email again for every user who has not
+     * activated their account yet.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of queued emails in body, the users
+     * without email or who do not fit in the queue are skipped.
+     */
+    @PostMapping("/activation-reminders")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Integer> queueActivationReminders() {
+        log.debug("REST request to queue the activation reminders");
+        int queued = 0;
+        for (User user : userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now())) {
+            if (mailService.queueActivationEmail(user)) {
+                queued++;
+            }
+        }
+        return ResponseEntity.ok(queued);
+    }
+
+    /**
+     * {@code POST  /admin/mail/dead-letters/requeue} : queue the emails which could not be sent after all attempts again,
+     * e.g. once the SMTP server is back.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the number of queued emails in body.
+     */
+    @PostMapping("/dead-letters/requeue")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Integer> requeueDeadLetters() {
+        log.debug("REST request to requeue the dead letters");
+        return ResponseEntity.ok(mailQueueService.requeueDeadLetters());
+    }
+}
@@ -14,13 +14,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.repository.EntityVersion;
 import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.service.OwnerAutocompleteService;
 import org.springframework.samples.petclinic.service.OwnerQueryService;
 import org.springframework.samples.petclinic.service.OwnerService;
 import org.springframework.samples.petclinic.service.criteria.OwnerCriteria;
 import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.samples.petclinic.service.dto.OwnerSuggestionDTO;
 import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.samples.petclinic.web.rest.util.ETagUtil;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -46,10 +51,18 @@ public class OwnerResource {
 
     private final OwnerQueryService ownerQueryService;
 
-    public OwnerResource(OwnerService ownerService, OwnerRepository ownerRepository, OwnerQueryService ownerQueryService) {
+    private final OwnerAutocompleteService ownerAutocompleteService;
+
+    public OwnerResource(
+        OwnerService ownerService,
+        OwnerRepository ownerRepository,
+        OwnerQueryService ownerQueryService,
+        OwnerAutocompleteService ownerAutocompleteService
+    ) {
         this.ownerService = ownerService;
         this.ownerRepository = ownerRepository;
         this.ownerQueryService = ownerQueryService;
+        this.ownerAutocompleteService = ownerAutocompleteService;
     }
 
     /**
@@ -75,15 +88,18 @@ public class OwnerResource {
      * {@code PUT  /owners/:id} : Updates an existing owner.
      *
      * @param id the id of the ownerDTO to save.
+     * @param ifMatch the ETag of the version of the owner being updated, if any.
      * @param ownerDTO the ownerDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated ownerDTO,
      * or with status {@code 400 (Bad Request)} if the ownerDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the owner was modified since the version of {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the ownerDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<OwnerDTO> updateOwner(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody OwnerDTO ownerDTO
     ) throws URISyntaxException {
         log.debug("REST request to update Owner : {}, {}", id, ownerDTO);
@@ -94,12 +110,14 @@ public class OwnerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!ownerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = ownerRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        ownerDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, ownerDTO.getVersion(), version, ENTITY_NAME));
 
         ownerDTO = ownerService.update(ownerDTO);
         return ResponseEntity.ok()
+            .eTag(ETagUtil.etag(ownerDTO.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, ownerDTO.getId().toString()))
             .body(ownerDTO);
     }
@@ -108,9 +126,11 @@ public class OwnerResource {
      * {@code PATCH  /owners/:id} : Partial updates given fields of an existing owner, field will ignore if it is null
      *
      * @param id the id of the ownerDTO to save.
+     * @param ifMatch the ETag of the version of the owner being updated, if any.
      * @param ownerDTO the ownerDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated ownerDTO,
      * or with status {@code 400 (Bad Request)} if the ownerDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the owner was modified since the version of {@code ifMatch},
      * or with status {@code 404 (Not Found)} if the ownerDTO is not found,
      * or with status {@code 500 (Internal Server Error)} if the ownerDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -118,6 +138,7 @@ public class OwnerResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<OwnerDTO> partialUpdateOwner(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody OwnerDTO ownerDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Owner partially : {}, {}", id, ownerDTO);
@@ -128,16 +149,16 @@ public class OwnerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!ownerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = ownerRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        ownerDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, ownerDTO.getVersion(), version, ENTITY_NAME));
 
         Optional<OwnerDTO> result = ownerService.partialUpdate(ownerDTO);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, ownerDTO.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, ownerDTO.getId().toString());
+        result.ifPresent(updated -> headers.setETag(ETagUtil.etag(updated.getVersion())));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
@@ -156,6 +177,7 @@ public class OwnerResource {
 
         Page<OwnerDTO> page = ownerQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(ETagUtil.etag(page, OwnerDTO::getId, OwnerDTO::getVersion));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -171,15 +193,38 @@ public class OwnerResource {
         return ResponseEntity.ok().body(ownerQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /owners/_autocomplete?prefix=:prefix} : suggest the owners whose name or telephone starts with what
+     * is typed, without querying the database.
+     *
+     * @param prefix what was typed.
+     * @param size the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of suggested owners in body.
+     */
+    @GetMapping("/_autocomplete")
+    public ResponseEntity<List<OwnerSuggestionDTO>> autocompleteOwners(
+        @RequestParam("prefix") String prefix,
+        @RequestParam(name = "size", defaultValue = "10") int size
+    ) {
+        log.debug("REST request to autocomplete Owners : {}", prefix);
+        return ResponseEntity.ok().body(ownerAutocompleteService.suggest(prefix, size));
+    }
+
     /**
      * {@code GET  /owners/:id} : get the "id" owner.
      *
      * @param id the id of the ownerDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ownerDTO, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked against the version of the owner before it is loaded.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ownerDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match} or {@code If-Modified-Since}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<OwnerDTO> getOwner(@PathVariable("id") Long id) {
+    public ResponseEntity<OwnerDTO> getOwner(@PathVariable("id") Long id, WebRequest webRequest) {
         log.debug("REST request to get Owner : {}", id);
+        Optional<EntityVersion> version = ownerRepository.findVersionById(id);
+        if (version.isPresent() && webRequest.checkNotModified(ETagUtil.etag(version.get()), ETagUtil.lastModified(version.get()))) {
+            return null;
+        }
         Optional<OwnerDTO> ownerDTO = ownerService.findOne(id);
         return ResponseUtil.wrapOrNotFound(ownerDTO);
     }
@@ -0,0 +1,49 @@
+package org.springframework.samples.petclinic.web.rest;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.service.OwnerSearchService;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * REST controller searching the {@link org.springframework.samples.petclinic.domain.Owner}s in the owner index.
+ */
+@RestController
+@RequestMapping("/api/_search")
+public class OwnerSearchResource {
+
+    private final Logger log = LoggerFactory.getLogger(OwnerSearchResource.class);
+
+    private final OwnerSearchService ownerSearchService;
+
+    public OwnerSearchResource(OwnerSearchService ownerSearchService) {
+        this.ownerSearchService = ownerSearchService;
+    }
+
+    /**
+     * {@code GET  /_search/owners?query=:query} : search the owners by name, pet name, email, telephone or city,
+     * tolerating typos and names which sound alike.
+     *
+     * @param query the query of the search.
+     * @param pageable the pagination information, the owners are sorted by relevance.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of owners in body.
+     */
+    @GetMapping("/owners")
+    public ResponseEntity<List<OwnerDTO>> searchOwners(
+        @RequestParam("query") String query,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        log.debug("REST request to search for a page of Owners for query {}", query);
+        Page<OwnerDTO> page = ownerSearchService.search(query, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+}
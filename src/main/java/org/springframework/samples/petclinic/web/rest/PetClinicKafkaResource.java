@@ -1,10 +1,24 @@
 package org.springframework.samples.petclinic.web.rest;
 
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.broker.KafkaConsumer;
+import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.samples.petclinic.web.rest.vm.PublishBatchResultVM;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
@@ -14,13 +28,19 @@ public class PetClinicKafkaResource {
 
     private static final String PRODUCER_BINDING_NAME = "binding-out-0";
 
+    private static final String ENTITY_NAME = "petClinicKafka";
+
+    static final int MAX_BATCH_SIZE = 10_000;
+
     private final Logger log = LoggerFactory.getLogger(PetClinicKafkaResource.class);
     private final KafkaConsumer kafkaConsumer;
     private final StreamBridge streamBridge;
+    private final ObjectReader ndjsonReader;
 
-    public PetClinicKafkaResource(StreamBridge streamBridge, KafkaConsumer kafkaConsumer) {
+    public PetClinicKafkaResource(StreamBridge streamBridge, KafkaConsumer kafkaConsumer, ObjectMapper objectMapper) {
         this.streamBridge = streamBridge;
         this.kafkaConsumer = kafkaConsumer;
+        this.ndjsonReader = objectMapper.readerFor(JsonNode.class);
     }
 
     @PostMapping("/publish")
@@ -29,6 +49,68 @@ public class PetClinicKafkaResource {
         streamBridge.send(PRODUCER_BINDING_NAME, message);
     }
 
+    /**
+     * {@code POST  /publish/batch} : Send a JSON array of messages to the Kafka topic.
+     * <p>
+     * String elements are sent as is, other elements as their JSON text. The messages are handed to the Kafka producer
+     * without waiting for each one, so that the producer batches and compresses them.
+     *
+     * @param messages the messages to send.
+     * @return the {@link PublishBatchResultVM} with the number of messages accepted by the binder.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if there are more than {@link #MAX_BATCH_SIZE} messages.
+     */
+    @PostMapping(value = "/publish/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public PublishBatchResultVM publishBatch(@RequestBody List<JsonNode> messages) {
+        log.debug("REST request to send a batch of {} messages to Kafka topic", messages.size());
+        return publishAll(messages.iterator());
+    }
+
+    /**
+     * {@code POST  /publish/batch} : Send newline delimited JSON messages to the Kafka topic.
+     *
+     * @param body the request body, one JSON value per line.
+     * @return the {@link PublishBatchResultVM} with the number of messages accepted by the binder.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the body is not valid NDJSON or has more than
+     * {@link #MAX_BATCH_SIZE} messages.
+     * @throws IOException if the body can't be read.
+     */
+    @PostMapping(value = "/publish/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public PublishBatchResultVM publishBatchNdjson(InputStream body) throws IOException {
+        log.debug("REST request to send a NDJSON batch of messages to Kafka topic");
+        try (MappingIterator<JsonNode> messages = ndjsonReader.readValues(body)) {
+            return publishAll(messages);
+        } catch (RuntimeJsonMappingException | JacksonException e) {
+            throw new BadRequestAlertException("Invalid NDJSON body", ENTITY_NAME, "ndjsoninvalid");
+        }
+    }
+
+    private PublishBatchResultVM publishAll(Iterator<JsonNode> messages) {
+        List<String> payloads = new ArrayList<>();
+        while (messages.hasNext()) {
+            if (payloads.size() == MAX_BATCH_SIZE) {
+                throw new BadRequestAlertException(
+                    "A batch can't hold more than " + MAX_BATCH_SIZE + " messages",
+                    ENTITY_NAME,
+                    "batchtoolarge"
+                );
+            }
+            JsonNode message = messages.next();
+            payloads.add(message.isTextual() ? message.textValue() : message.toString());
+        }
+
+        int accepted = 0;
+        for (String payload : payloads) {
+            try {
+                if (streamBridge.send(PRODUCER_BINDING_NAME, payload)) {
+                    accepted++;
+                }
+            } catch (RuntimeException e) {
+                log.debug("Error sending message to Kafka topic: {}", e.getMessage());
+            }
+        }
+        return new PublishBatchResultVM(payloads.size(), accepted, payloads.size() - accepted);
+    }
+
     @GetMapping("/register")
     public ResponseBodyEmitter register(Principal principal) {
         return kafkaConsumer.register(principal.getName());
@@ -12,15 +12,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.repository.EntityVersion;
 import org.springframework.samples.petclinic.repository.PetRepository;
 import org.springframework.samples.petclinic.service.PetQueryService;
 import org.springframework.samples.petclinic.service.PetService;
 import org.springframework.samples.petclinic.service.criteria.PetCriteria;
 import org.springframework.samples.petclinic.service.dto.PetDTO;
 import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.samples.petclinic.web.rest.util.ETagUtil;
+import org.springframework.samples.petclinic.web.rest.util.KeysetPaginationUtil;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -75,15 +80,20 @@ public class PetResource {
      * {@code PUT  /pets/:id} : Updates an existing pet.
      *
      * @param id the id of the petDTO to save.
+     * @param ifMatch the ETag of the version of the pet being updated, if any.
      * @param petDTO the petDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated petDTO,
      * or with status {@code 400 (Bad Request)} if the petDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the pet was modified since the version of {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the petDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<PetDTO> updatePet(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody PetDTO petDTO)
-        throws URISyntaxException {
+    public ResponseEntity<PetDTO> updatePet(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Valid @RequestBody PetDTO petDTO
+    ) throws URISyntaxException {
         log.debug("REST request to update Pet : {}, {}", id, petDTO);
         if (petDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -92,12 +102,14 @@ public class PetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!petRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = petRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        petDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, petDTO.getVersion(), version, ENTITY_NAME));
 
         petDTO = petService.update(petDTO);
         return ResponseEntity.ok()
+            .eTag(ETagUtil.etag(petDTO.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, petDTO.getId().toString()))
             .body(petDTO);
     }
@@ -106,9 +118,11 @@ public class PetResource {
      * {@code PATCH  /pets/:id} : Partial updates given fields of an existing pet, field will ignore if it is null
      *
      * @param id the id of the petDTO to save.
+     * @param ifMatch the ETag of the version of the pet being updated, if any.
      * @param petDTO the petDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated petDTO,
      * or with status {@code 400 (Bad Request)} if the petDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the pet was modified since the version of {@code ifMatch},
      * or with status {@code 404 (Not Found)} if the petDTO is not found,
      * or with status {@code 500 (Internal Server Error)} if the petDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -116,6 +130,7 @@ public class PetResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<PetDTO> partialUpdatePet(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody PetDTO petDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Pet partially : {}, {}", id, petDTO);
@@ -126,16 +141,16 @@ public class PetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!petRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = petRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        petDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, petDTO.getVersion(), version, ENTITY_NAME));
 
         Optional<PetDTO> result = petService.partialUpdate(petDTO);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, petDTO.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, petDTO.getId().toString());
+        result.ifPresent(updated -> headers.setETag(ETagUtil.etag(updated.getVersion())));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
@@ -154,9 +169,42 @@ public class PetResource {
 
         Page<PetDTO> page = petQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(ETagUtil.etag(page, PetDTO::getId, PetDTO::getVersion));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /pets?after=:cursor} : get the pets following the given cursor, ordered by id.
+     * <p>
+     * Send an empty {@code after} parameter to get the first slice. The cursor of the next slice is returned in the
+     * {@code X-Next-Cursor} and {@code Link} headers, which are omitted on the last slice. No total count is computed.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor returned with the previous slice.
+     * @param size the maximum number of pets to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of pets in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the size is not valid.
+     */
+    @GetMapping(value = "", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<PetDTO>> getAllPetsAfter(
+        PetCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestParam(value = KeysetPaginationUtil.SIZE_PARAMETER, defaultValue = "20") int size
+    ) {
+        log.debug("REST request to get Pets by criteria: {}, after: {}", criteria, after);
+
+        Long afterId = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+        int sliceSize = KeysetPaginationUtil.checkSize(size, ENTITY_NAME);
+        Slice<PetDTO> slice = petQueryService.findByCriteriaAfter(criteria, afterId, sliceSize);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            PetDTO::getId
+        );
+        headers.setETag(ETagUtil.etag(slice, PetDTO::getId, PetDTO::getVersion));
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /pets/count} : count all the pets.
      *
@@ -173,11 +221,17 @@ public class PetResource {
      * {@code GET  /pets/:id} : get the "id" pet.
      *
      * @param id the id of the petDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the petDTO, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked against the version of the pet before it is loaded.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the petDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match} or {@code If-Modified-Since}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PetDTO> getPet(@PathVariable("id") Long id) {
+    public ResponseEntity<PetDTO> getPet(@PathVariable("id") Long id, WebRequest webRequest) {
         log.debug("REST request to get Pet : {}", id);
+        Optional<EntityVersion> version = petRepository.findVersionById(id);
+        if (version.isPresent() && webRequest.checkNotModified(ETagUtil.etag(version.get()), ETagUtil.lastModified(version.get()))) {
+            return null;
+        }
         Optional<PetDTO> petDTO = petService.findOne(id);
         return ResponseUtil.wrapOrNotFound(petDTO);
     }
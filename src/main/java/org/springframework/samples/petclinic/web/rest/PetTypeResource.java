@@ -14,13 +14,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.repository.EntityVersion;
 import org.springframework.samples.petclinic.repository.PetTypeRepository;
 import org.springframework.samples.petclinic.service.PetTypeQueryService;
 import org.springframework.samples.petclinic.service.PetTypeService;
 import org.springframework.samples.petclinic.service.criteria.PetTypeCriteria;
 import org.springframework.samples.petclinic.service.dto.PetTypeDTO;
 import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.samples.petclinic.web.rest.util.ETagUtil;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -75,15 +78,18 @@ public class PetTypeResource {
      * {@code PUT  /pet-types/:id} : Updates an existing petType.
      *
      * @param id the id of the petTypeDTO to save.
+     * @param ifMatch the ETag of the version of the petType being updated, if any.
      * @param petTypeDTO the petTypeDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated petTypeDTO,
      * or with status {@code 400 (Bad Request)} if the petTypeDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the petType was modified since the version of {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the petTypeDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<PetTypeDTO> updatePetType(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody PetTypeDTO petTypeDTO
     ) throws URISyntaxException {
         log.debug("REST request to update PetType : {}, {}", id, petTypeDTO);
@@ -94,12 +100,14 @@ public class PetTypeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!petTypeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = petTypeRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        petTypeDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, petTypeDTO.getVersion(), version, ENTITY_NAME));
 
         petTypeDTO = petTypeService.update(petTypeDTO);
         return ResponseEntity.ok()
+            .eTag(ETagUtil.etag(petTypeDTO.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, petTypeDTO.getId().toString()))
             .body(petTypeDTO);
     }
@@ -108,9 +116,11 @@ public class PetTypeResource {
      * {@code PATCH  /pet-types/:id} : Partial updates given fields of an existing petType, field will ignore if it is null
      *
      * @param id the id of the petTypeDTO to save.
+     * @param ifMatch the ETag of the version of the petType being updated, if any.
      * @param petTypeDTO the petTypeDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated petTypeDTO,
      * or with status {@code 400 (Bad Request)} if the petTypeDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the petType was modified since the version of {@code ifMatch},
      * or with status {@code 404 (Not Found)} if the petTypeDTO is not found,
      * or with status {@code 500 (Internal Server Error)} if the petTypeDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -118,6 +128,7 @@ public class PetTypeResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<PetTypeDTO> partialUpdatePetType(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody PetTypeDTO petTypeDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update PetType partially : {}, {}", id, petTypeDTO);
@@ -128,16 +139,16 @@ public class PetTypeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!petTypeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = petTypeRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        petTypeDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, petTypeDTO.getVersion(), version, ENTITY_NAME));
 
         Optional<PetTypeDTO> result = petTypeService.partialUpdate(petTypeDTO);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, petTypeDTO.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, petTypeDTO.getId().toString());
+        result.ifPresent(updated -> headers.setETag(ETagUtil.etag(updated.getVersion())));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
@@ -156,6 +167,7 @@ public class PetTypeResource {
 
         Page<PetTypeDTO> page = petTypeQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(ETagUtil.etag(page, PetTypeDTO::getId, PetTypeDTO::getVersion));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -175,11 +187,17 @@ public class PetTypeResource {
      * {@code GET  /pet-types/:id} : get the "id" petType.
      *
      * @param id the id of the petTypeDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the petTypeDTO, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked against the version of the petType before it is loaded.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the petTypeDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match} or {@code If-Modified-Since}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PetTypeDTO> getPetType(@PathVariable("id") Long id) {
+    public ResponseEntity<PetTypeDTO> getPetType(@PathVariable("id") Long id, WebRequest webRequest) {
         log.debug("REST request to get PetType : {}", id);
+        Optional<EntityVersion> version = petTypeRepository.findVersionById(id);
+        if (version.isPresent() && webRequest.checkNotModified(ETagUtil.etag(version.get()), ETagUtil.lastModified(version.get()))) {
+            return null;
+        }
         Optional<PetTypeDTO> petTypeDTO = petTypeService.findOne(id);
         return ResponseUtil.wrapOrNotFound(petTypeDTO);
     }
@@ -14,12 +14,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.repository.EntityVersion;
 import org.springframework.samples.petclinic.repository.SpecialityRepository;
 import org.springframework.samples.petclinic.service.SpecialityQueryService;
 import org.springframework.samples.petclinic.service.SpecialityService;
 import org.springframework.samples.petclinic.service.criteria.SpecialityCriteria;
 import org.springframework.samples.petclinic.service.dto.SpecialityDTO;
+import org.springframework.samples.petclinic.service.dto.VetDTO;
 import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.samples.petclinic.web.rest.util.ETagUtil;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
@@ -79,15 +82,18 @@ public class SpecialityResource {
      * {@code PUT  /specialities/:id} : Updates an existing speciality.
      *
      * @param id the id of the specialityDTO to save.
+     * @param ifMatch the ETag of the version of the speciality being updated, if any.
      * @param specialityDTO the specialityDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated specialityDTO,
      * or with status {@code 400 (Bad Request)} if the specialityDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the speciality was modified since the version of {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the specialityDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<SpecialityDTO> updateSpeciality(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody SpecialityDTO specialityDTO
     ) throws URISyntaxException {
         log.debug("REST request to update Speciality : {}, {}", id, specialityDTO);
@@ -98,12 +104,14 @@ public class SpecialityResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!specialityRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = specialityRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        specialityDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, specialityDTO.getVersion(), version, ENTITY_NAME));
 
         specialityDTO = specialityService.update(specialityDTO);
         return ResponseEntity.ok()
+            .eTag(etag(specialityDTO))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, specialityDTO.getId().toString()))
             .body(specialityDTO);
     }
@@ -112,9 +120,11 @@ public class SpecialityResource {
      * {@code PATCH  /specialities/:id} : Partial updates given fields of an existing speciality, field will ignore if it is null
      *
      * @param id the id of the specialityDTO to save.
+     * @param ifMatch the ETag of the version of the speciality being updated, if any.
      * @param specialityDTO the specialityDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated specialityDTO,
      * or with status {@code 400 (Bad Request)} if the specialityDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the speciality was modified since the version of {@code ifMatch},
      * or with status {@code 404 (Not Found)} if the specialityDTO is not found,
      * or with status {@code 500 (Internal Server Error)} if the specialityDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -122,6 +132,7 @@ public class SpecialityResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<SpecialityDTO> partialUpdateSpeciality(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody SpecialityDTO specialityDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Speciality partially : {}, {}", id, specialityDTO);
@@ -132,16 +143,16 @@ public class SpecialityResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!specialityRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = specialityRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        specialityDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, specialityDTO.getVersion(), version, ENTITY_NAME));
 
         Optional<SpecialityDTO> result = specialityService.partialUpdate(specialityDTO);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, specialityDTO.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, specialityDTO.getId().toString());
+        result.ifPresent(updated -> headers.setETag(etag(updated)));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
@@ -160,6 +171,7 @@ public class SpecialityResource {
 
         Page<SpecialityDTO> page = specialityQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(ETagUtil.etag(page, SpecialityDTO::getId, SpecialityResource::etag));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -179,13 +191,24 @@ public class SpecialityResource {
      * {@code GET  /specialities/:id} : get the "id" speciality.
      *
      * @param id the id of the specialityDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the specialityDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the specialityDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match}.
      */
     @GetMapping("/{id}")
     public ResponseEntity<SpecialityDTO> getSpeciality(@PathVariable("id") Long id) {
         log.debug("REST request to get Speciality : {}", id);
         Optional<SpecialityDTO> specialityDTO = specialityService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(specialityDTO);
+        HttpHeaders headers = new HttpHeaders();
+        specialityDTO.ifPresent(speciality -> headers.setETag(etag(speciality)));
+        return ResponseUtil.wrapOrNotFound(specialityDTO, headers);
+    }
+
+    /**
+     * The vets of a speciality are owned by {@link org.springframework.samples.petclinic.domain.Vet}, so that adding or
+     * removing one does not increment the version of the speciality: its ETag covers their ids as well.
+     */
+    private static String etag(SpecialityDTO specialityDTO) {
+        return ETagUtil.etag(specialityDTO.getVersion(), specialityDTO.getVets().stream().map(VetDTO::getId).sorted().toList());
     }
 
     /**
@@ -14,13 +14,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.repository.EntityVersion;
 import org.springframework.samples.petclinic.repository.VetRepository;
 import org.springframework.samples.petclinic.service.VetQueryService;
 import org.springframework.samples.petclinic.service.VetService;
 import org.springframework.samples.petclinic.service.criteria.VetCriteria;
 import org.springframework.samples.petclinic.service.dto.VetDTO;
 import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.samples.petclinic.web.rest.util.ETagUtil;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -75,15 +78,20 @@ public class VetResource {
      * {@code PUT  /vets/:id} : Updates an existing vet.
      *
      * @param id the id of the vetDTO to save.
+     * @param ifMatch the ETag of the version of the vet being updated, if any.
      * @param vetDTO the vetDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated vetDTO,
      * or with status {@code 400 (Bad Request)} if the vetDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the vet was modified since the version of {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the vetDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<VetDTO> updateVet(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody VetDTO vetDTO)
-        throws URISyntaxException {
+    public ResponseEntity<VetDTO> updateVet(
+        @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+        @Valid @RequestBody VetDTO vetDTO
+    ) throws URISyntaxException {
         log.debug("REST request to update Vet : {}, {}", id, vetDTO);
         if (vetDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -92,12 +100,14 @@ public class VetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!vetRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = vetRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        vetDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, vetDTO.getVersion(), version, ENTITY_NAME));
 
         vetDTO = vetService.update(vetDTO);
         return ResponseEntity.ok()
+            .eTag(ETagUtil.etag(vetDTO.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, vetDTO.getId().toString()))
             .body(vetDTO);
     }
@@ -106,9 +116,11 @@ public class VetResource {
      * {@code PATCH  /vets/:id} : Partial updates given fields of an existing vet, field will ignore if it is null
      *
      * @param id the id of the vetDTO to save.
+     * @param ifMatch the ETag of the version of the vet being updated, if any.
      * @param vetDTO the vetDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated vetDTO,
      * or with status {@code 400 (Bad Request)} if the vetDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the vet was modified since the version of {@code ifMatch},
      * or with status {@code 404 (Not Found)} if the vetDTO is not found,
      * or with status {@code 500 (Internal Server Error)} if the vetDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -116,6 +128,7 @@ public class VetResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<VetDTO> partialUpdateVet(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody VetDTO vetDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Vet partially : {}, {}", id, vetDTO);
@@ -126,16 +139,16 @@ public class VetResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!vetRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = vetRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        vetDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, vetDTO.getVersion(), version, ENTITY_NAME));
 
         Optional<VetDTO> result = vetService.partialUpdate(vetDTO);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, vetDTO.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, vetDTO.getId().toString());
+        result.ifPresent(updated -> headers.setETag(ETagUtil.etag(updated.getVersion())));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
@@ -154,6 +167,7 @@ public class VetResource {
 
         Page<VetDTO> page = vetQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(ETagUtil.etag(page, VetDTO::getId, VetDTO::getVersion));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -173,11 +187,17 @@ public class VetResource {
      * {@code GET  /vets/:id} : get the "id" vet.
      *
      * @param id the id of the vetDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the vetDTO, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked against the version of the vet before it is loaded.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the vetDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match} or {@code If-Modified-Since}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<VetDTO> getVet(@PathVariable("id") Long id) {
+    public ResponseEntity<VetDTO> getVet(@PathVariable("id") Long id, WebRequest webRequest) {
         log.debug("REST request to get Vet : {}", id);
+        Optional<EntityVersion> version = vetRepository.findVersionById(id);
+        if (version.isPresent() && webRequest.checkNotModified(ETagUtil.etag(version.get()), ETagUtil.lastModified(version.get()))) {
+            return null;
+        }
         Optional<VetDTO> vetDTO = vetService.findOne(id);
         return ResponseUtil.wrapOrNotFound(vetDTO);
     }
@@ -1,5 +1,11 @@
 package org.springframework.samples.petclinic.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
@@ -10,15 +16,24 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.repository.EntityVersion;
 import org.springframework.samples.petclinic.repository.VisitRepository;
+import org.springframework.samples.petclinic.service.VisitBulkService;
 import org.springframework.samples.petclinic.service.VisitQueryService;
 import org.springframework.samples.petclinic.service.VisitService;
 import org.springframework.samples.petclinic.service.criteria.VisitCriteria;
+import org.springframework.samples.petclinic.service.dto.BulkResultDTO;
 import org.springframework.samples.petclinic.service.dto.VisitDTO;
 import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.samples.petclinic.web.rest.util.ETagUtil;
+import org.springframework.samples.petclinic.web.rest.util.KeysetPaginationUtil;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -35,6 +50,8 @@ public class VisitResource {
 
     private static final String ENTITY_NAME = "visit";
 
+    private static final int MAX_BULK_SIZE = 10_000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -44,10 +61,25 @@ public class VisitResource {
 
     private final VisitQueryService visitQueryService;
 
-    public VisitResource(VisitService visitService, VisitRepository visitRepository, VisitQueryService visitQueryService) {
+    private final VisitBulkService visitBulkService;
+
+    private final ObjectWriter exportWriter;
+
+    public VisitResource(
+        VisitService visitService,
+        VisitRepository visitRepository,
+        VisitQueryService visitQueryService,
+        VisitBulkService visitBulkService,
+        ObjectMapper objectMapper
+    ) {
         this.visitService = visitService;
         this.visitRepository = visitRepository;
         this.visitQueryService = visitQueryService;
+        this.visitBulkService = visitBulkService;
+        this.exportWriter = objectMapper
+            .writerFor(VisitDTO.class)
+            .withRootValueSeparator("\n")
+            .without(SerializationFeature.INDENT_OUTPUT, SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
@@ -69,19 +101,64 @@ public class VisitResource {
             .body(visitDTO);
     }
 
+    /**
+     * {@code POST  /visits/bulk} : Create new visits in bulk.
+     * <p>
+     * Each visit is validated on its own, and the valid ones are saved in batched transactions.
+     *
+     * @param visitDTOs the visitDTOs to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each visit, in request order,
+     * or with status {@code 400 (Bad Request)} if there are too many visits.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkResultDTO>> createVisits(@RequestBody List<VisitDTO> visitDTOs) {
+        log.debug("REST request to save {} Visits", visitDTOs.size());
+        checkBulkSize(visitDTOs);
+        return ResponseEntity.ok().body(visitBulkService.createAll(visitDTOs));
+    }
+
+    /**
+     * {@code PUT  /visits/bulk} : Updates existing visits in bulk.
+     * <p>
+     * Each visit is validated on its own, and the valid ones are saved in batched transactions.
+     *
+     * @param visitDTOs the visitDTOs to update.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each visit, in request order,
+     * or with status {@code 400 (Bad Request)} if there are too many visits.
+     */
+    @PutMapping("/bulk")
+    public ResponseEntity<List<BulkResultDTO>> updateVisits(@RequestBody List<VisitDTO> visitDTOs) {
+        log.debug("REST request to update {} Visits", visitDTOs.size());
+        checkBulkSize(visitDTOs);
+        return ResponseEntity.ok().body(visitBulkService.updateAll(visitDTOs));
+    }
+
+    private void checkBulkSize(List<VisitDTO> visitDTOs) {
+        if (visitDTOs.size() > MAX_BULK_SIZE) {
+            throw new BadRequestAlertException(
+                "A bulk request cannot hold more than " + MAX_BULK_SIZE + " visits",
+                ENTITY_NAME,
+                "bulktoolarge"
+            );
+        }
+    }
+
     /**
      * {@code PUT  /visits/:id} : Updates an existing visit.
      *
      * @param id the id of the visitDTO to save.
+     * @param ifMatch the ETag of the version of the visit being updated, if any.
      * @param visitDTO the visitDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated visitDTO,
      * or with status {@code 400 (Bad Request)} if the visitDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the visit was modified since the version of {@code ifMatch},
      * or with status {@code 500 (Internal Server Error)} if the visitDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<VisitDTO> updateVisit(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody VisitDTO visitDTO
     ) throws URISyntaxException {
         log.debug("REST request to update Visit : {}, {}", id, visitDTO);
@@ -92,12 +169,14 @@ public class VisitResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!visitRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = visitRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        visitDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, visitDTO.getVersion(), version, ENTITY_NAME));
 
         visitDTO = visitService.update(visitDTO);
         return ResponseEntity.ok()
+            .eTag(ETagUtil.etag(visitDTO.getVersion()))
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, visitDTO.getId().toString()))
             .body(visitDTO);
     }
@@ -106,9 +185,11 @@ public class VisitResource {
      * {@code PATCH  /visits/:id} : Partial updates given fields of an existing visit, field will ignore if it is null
      *
      * @param id the id of the visitDTO to save.
+     * @param ifMatch the ETag of the version of the visit being updated, if any.
      * @param visitDTO the visitDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated visitDTO,
      * or with status {@code 400 (Bad Request)} if the visitDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the visit was modified since the version of {@code ifMatch},
      * or with status {@code 404 (Not Found)} if the visitDTO is not found,
      * or with status {@code 500 (Internal Server Error)} if the visitDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -116,6 +197,7 @@ public class VisitResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<VisitDTO> partialUpdateVisit(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @RequestBody VisitDTO visitDTO
     ) throws URISyntaxException {
         log.debug("REST request to partial update Visit partially : {}, {}", id, visitDTO);
@@ -126,16 +208,16 @@ public class VisitResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!visitRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        EntityVersion version = visitRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        visitDTO.setVersion(ETagUtil.checkIfMatch(ifMatch, visitDTO.getVersion(), version, ENTITY_NAME));
 
         Optional<VisitDTO> result = visitService.partialUpdate(visitDTO);
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, visitDTO.getId().toString())
-        );
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, visitDTO.getId().toString());
+        result.ifPresent(updated -> headers.setETag(ETagUtil.etag(updated.getVersion())));
+        return ResponseUtil.wrapOrNotFound(result, headers);
     }
 
     /**
@@ -154,9 +236,42 @@ public class VisitResource {
 
         Page<VisitDTO> page = visitQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.setETag(ETagUtil.etag(page, VisitDTO::getId, VisitDTO::getVersion));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /visits?after=:cursor} : get the visits following the given cursor, ordered by id.
+     * <p>
+     * Send an empty {@code after} parameter to get the first slice. The cursor of the next slice is returned in the
+     * {@code X-Next-Cursor} and {@code Link} headers, which are omitted on the last slice. No total count is computed.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor returned with the previous slice.
+     * @param size the maximum number of visits to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of visits in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the size is not valid.
+     */
+    @GetMapping(value = "", params = KeysetPaginationUtil.AFTER_PARAMETER)
+    public ResponseEntity<List<VisitDTO>> getAllVisitsAfter(
+        VisitCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @RequestParam(value = KeysetPaginationUtil.SIZE_PARAMETER, defaultValue = "20") int size
+    ) {
+        log.debug("REST request to get Visits by criteria: {}, after: {}", criteria, after);
+
+        Long afterId = KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME);
+        int sliceSize = KeysetPaginationUtil.checkSize(size, ENTITY_NAME);
+        Slice<VisitDTO> slice = visitQueryService.findByCriteriaAfter(criteria, afterId, sliceSize);
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            VisitDTO::getId
+        );
+        headers.setETag(ETagUtil.etag(slice, VisitDTO::getId, VisitDTO::getVersion));
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
      * {@code GET  /visits/count} : count all the visits.
      *
@@ -169,15 +284,47 @@ public class VisitResource {
         return ResponseEntity.ok().body(visitQueryService.countByCriteria(criteria));
     }
 
+    /**
+     * {@code GET  /visits/export} : export all the visits as newline-delimited JSON.
+     * <p>
+     * Visits are streamed from a database cursor and written as they are read, so memory stays flat whatever the size of
+     * the export.
+     *
+     * @param criteria the criteria which the exported entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the visits in body, one JSON document per line.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportVisits(VisitCriteria criteria) {
+        log.debug("REST request to export Visits by criteria: {}", criteria);
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter sequenceWriter = exportWriter.writeValues(outputStream)) {
+                visitQueryService.streamByCriteria(criteria, visitDTO -> {
+                    try {
+                        sequenceWriter.write(visitDTO);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * {@code GET  /visits/:id} : get the "id" visit.
      *
      * @param id the id of the visitDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the visitDTO, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked against the version of the visit before it is loaded.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the visitDTO, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it matches {@code If-None-Match} or {@code If-Modified-Since}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<VisitDTO> getVisit(@PathVariable("id") Long id) {
+    public ResponseEntity<VisitDTO> getVisit(@PathVariable("id") Long id, WebRequest webRequest) {
         log.debug("REST request to get Visit : {}", id);
+        Optional<EntityVersion> version = visitRepository.findVersionById(id);
+        if (version.isPresent() && webRequest.checkNotModified(ETagUtil.etag(version.get()), ETagUtil.lastModified(version.get()))) {
+            return null;
+        }
         Optional<VisitDTO> visitDTO = visitService.findOne(id);
         return ResponseUtil.wrapOrNotFound(visitDTO);
     }
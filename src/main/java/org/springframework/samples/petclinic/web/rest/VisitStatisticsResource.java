@@ -0,0 +1,107 @@
+package org.springframework.samples.petclinic.web.rest;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.service.VisitStatisticsService;
+import org.springframework.samples.petclinic.service.dto.VisitCountDTO;
+import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller counting the {@link org.springframework.samples.petclinic.domain.Visit}s per vet, per pet type and
+ * per city, from the daily rollups of the visits.
+ * <p>
+ * The days counted go from {@code from}, included, to {@code to}, excluded.
+ */
+@RestController
+@RequestMapping("/api/stats/visits")
+public class VisitStatisticsResource {
+
+    private static final String ENTITY_NAME = "visitStatistics";
+
+    private final Logger log = LoggerFactory.getLogger(VisitStatisticsResource.class);
+
+    private final VisitStatisticsService visitStatisticsService;
+
+    private final ApplicationProperties.Statistics properties;
+
+    public VisitStatisticsResource(VisitStatisticsService visitStatisticsService, ApplicationProperties applicationProperties) {
+        this.visitStatisticsService = visitStatisticsService;
+        this.properties = applicationProperties.getStatistics();
+    }
+
+    /**
+     * {@code GET  /stats/visits/vets?from=:from&to=:to&period=:period} : count the visits per vet and per period.
+     *
+     * @param from the first day counted.
+     * @param to the day after the last day counted.
+     * @param period the length of the periods, {@code DAY}, {@code WEEK}, {@code MONTH} or {@code YEAR}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the visits per period and per vet in body, or
+     * with status {@code 400 (Bad Request)} if the days are not in order or span too many periods.
+     */
+    @GetMapping("/vets")
+    public ResponseEntity<List<VisitCountDTO>> countVisitsByVet(
+        @RequestParam("from") LocalDate from,
+        @RequestParam("to") LocalDate to,
+        @RequestParam(name = "period", defaultValue = "MONTH") VisitStatisticsService.Period period
+    ) {
+        log.debug("REST request to count Visits by vet from {} to {} per {}", from, to, period);
+        checkRange(from, to, period);
+        return ResponseEntity.ok().body(visitStatisticsService.countByVet(from, to, period));
+    }
+
+    /**
+     * {@code GET  /stats/visits/pet-types?from=:from&to=:to&period=:period} : count the visits per pet type and per
+     * period.
+     *
+     * @param from the first day counted.
+     * @param to the day after the last day counted.
+     * @param period the length of the periods, {@code DAY}, {@code WEEK}, {@code MONTH} or {@code YEAR}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the visits per period and per pet type in body,
+     * or with status {@code 400 (Bad Request)} if the days are not in order or span too many periods.
+     */
+    @GetMapping("/pet-types")
+    public ResponseEntity<List<VisitCountDTO>> countVisitsByPetType(
+        @RequestParam("from") LocalDate from,
+        @RequestParam("to") LocalDate to,
+        @RequestParam(name = "period", defaultValue = "MONTH") VisitStatisticsService.Period period
+    ) {
+        log.debug("REST request to count Visits by pet type from {} to {} per {}", from, to, period);
+        checkRange(from, to, period);
+        return ResponseEntity.ok().body(visitStatisticsService.countByPetType(from, to, period));
+    }
+
+    /**
+     * {@code GET  /stats/visits/cities?from=:from&to=:to&size=:size} : find the cities of the owners whose pets were
+     * visited the most.
+     *
+     * @param from the first day counted.
+     * @param to the day after the last day counted.
+     * @param size the maximum number of cities.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the visits per city in body, or with status
+     * {@code 400 (Bad Request)} if the days are not in order.
+     */
+    @GetMapping("/cities")
+    public ResponseEntity<List<VisitCountDTO>> findBusiestCities(
+        @RequestParam("from") LocalDate from,
+        @RequestParam("to") LocalDate to,
+        @RequestParam(name = "size", defaultValue = "10") int size
+    ) {
+        log.debug("REST request to find the busiest cities from {} to {}", from, to);
+        checkRange(from, to, VisitStatisticsService.Period.YEAR);
+        return ResponseEntity.ok().body(visitStatisticsService.findBusiestCities(from, to, Math.max(size, 0)));
+    }
+
+    private void checkRange(LocalDate from, LocalDate to, VisitStatisticsService.Period period) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("The first day must be before the last one", ENTITY_NAME, "rangeinvalid");
+        }
+        if (period.periodsBetween(from, to) > properties.getMaxPeriods()) {
+            throw new BadRequestAlertException("Too many periods, count them by longer periods", ENTITY_NAME, "toomanyperiods");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.springframework.samples.petclinic.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.samples.petclinic.repository.EntityVersion;
+import org.springframework.samples.petclinic.web.rest.errors.PreconditionFailedAlertException;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Utility class for handling HTTP conditional requests from the {@code @Version} of the entities.
+ * <p>
+ * The ETag of an entity is its version, so that it can be checked against {@code If-None-Match} and {@code If-Match}
+ * before the entity is loaded. The ETag of a list is a digest of the ids and versions of its elements and of its total
+ * count, it is computed from the query results but spares their serialization.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private static final String VERSION_SEPARATOR = "-";
+
+    private ETagUtil() {}
+
+    /**
+     * Return the ETag of an entity.
+     *
+     * @param version the version of the entity.
+     * @return the ETag.
+     */
+    public static String etag(EntityVersion version) {
+        return etag(version.getVersion());
+    }
+
+    /**
+     * Return the ETag of an entity.
+     *
+     * @param version the version of the entity.
+     * @return the ETag.
+     */
+    public static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Return the ETag of an entity whose representation embeds related entities that do not increment its version, such
+     * as the inverse side of a many-to-many. The ETag starts with the version of the entity, so that it still matches
+     * {@code If-Match} when the related entities changed.
+     *
+     * @param version the version of the entity.
+     * @param related the ids or versions of the related entities.
+     * @return the ETag.
+     */
+    public static String etag(Long version, List<?> related) {
+        return "\"" + version + VERSION_SEPARATOR + digest(related) + "\"";
+    }
+
+    /**
+     * Return the ETag of a list of entities.
+     *
+     * @param slice the slice of entities.
+     * @param idExtractor the function returning the id of an element.
+     * @param versionExtractor the function returning the version of an element, which must also change when a related
+     *        entity embedded in its representation changes.
+     * @param <T> the type of the slice elements.
+     * @return the ETag.
+     */
+    public static <T> String etag(Slice<T> slice, Function<T, Long> idExtractor, Function<T, ?> versionExtractor) {
+        List<Object> versions = new ArrayList<>(slice.getNumberOfElements() + 2);
+        if (slice instanceof Page<T> page) {
+            versions.add(page.getTotalElements());
+        }
+        versions.add(slice.hasNext());
+        for (T element : slice.getContent()) {
+            versions.add(idExtractor.apply(element) + ":" + versionExtractor.apply(element));
+        }
+        return "\"" + digest(versions) + "\"";
+    }
+
+    /**
+     * Return the {@code Last-Modified} date of an entity.
+     *
+     * @param version the version of the entity.
+     * @return the date in milliseconds since the epoch, or -1 if unknown.
+     */
+    public static long lastModified(EntityVersion version) {
+        return version.getLastModifiedDate() != null ? version.getLastModifiedDate().toEpochMilli() : -1;
+    }
+
+    /**
+     * Check the {@code If-Match} header of an update against the current version of the entity, and return the version
+     * the update must apply to.
+     * <p>
+     * Without {@code If-Match}, the version sent in the body applies, so that Hibernate rejects the update if the entity
+     * changed since the client read it; the update applies to the current version when the body has none either.
+     *
+     * @param ifMatch the {@code If-Match} header, if any.
+     * @param requestedVersion the version sent in the body, if any.
+     * @param currentVersion the current version of the entity.
+     * @param entityName the name of the updated entity, used for error reporting.
+     * @return the version to set on the updated entity.
+     * @throws PreconditionFailedAlertException if {@code If-Match} does not match the current version.
+     */
+    public static Long checkIfMatch(String ifMatch, Long requestedVersion, EntityVersion currentVersion, String entityName) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return requestedVersion != null ? requestedVersion : currentVersion.getVersion();
+        }
+        for (String etag : ifMatch.split(",")) {
+            // Strong comparison: weak ETags never match
+            if (matches(etag.trim(), currentVersion.getVersion())) {
+                return currentVersion.getVersion();
+            }
+        }
+        throw new PreconditionFailedAlertException("Entity was modified", entityName, "preconditionfailed");
+    }
+
+    private static boolean matches(String etag, Long version) {
+        return etag.equals(etag(version)) || etag.startsWith("\"" + version + VERSION_SEPARATOR);
+    }
+
+    private static String digest(List<?> values) {
+        String value = values.stream().map(String::valueOf).collect(Collectors.joining(";"));
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
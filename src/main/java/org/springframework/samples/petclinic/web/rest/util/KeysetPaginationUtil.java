@@ -0,0 +1,107 @@
+package org.springframework.samples.petclinic.web.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.samples.petclinic.web.rest.errors.BadRequestAlertException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (seek) pagination.
+ * <p>
+ * Unlike {@link tech.jhipster.web.util.PaginationUtil}, the client does not ask for a page number but passes the opaque
+ * cursor returned with the previous slice, so that the database seeks on the primary key instead of scanning an offset,
+ * and no total count is computed.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    public static final String SIZE_PARAMETER = "size";
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final int MAX_SIZE = 2000;
+
+    private static final String HEADER_LINK_FORMAT = "<%s>; rel=\"next\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Encode the key of the last entity of a slice as an opaque cursor.
+     *
+     * @param id the id of the last entity.
+     * @return the cursor.
+     */
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encodeCursor(Long)}.
+     *
+     * @param cursor the cursor sent by the client, blank for the first slice.
+     * @param entityName the name of the requested entity, used for error reporting.
+     * @return the id to seek after, or {@code null} for the first slice.
+     * @throws BadRequestAlertException if the cursor is not valid.
+     */
+    public static Long decodeCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+    }
+
+    /**
+     * Check the requested slice size.
+     *
+     * @param size the requested size.
+     * @param entityName the name of the requested entity, used for error reporting.
+     * @return the size, capped to {@link #MAX_SIZE}.
+     * @throws BadRequestAlertException if the size is not positive.
+     */
+    public static int checkSize(int size, String entityName) {
+        if (size < 1) {
+            throw new BadRequestAlertException("Invalid size", entityName, "sizeinvalid");
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * Generate the pagination headers for a {@link Slice}: the cursor of the next slice, and a {@code Link} header to it.
+     * No header is set on the last slice.
+     *
+     * @param uriBuilder the uri builder of the current request.
+     * @param slice the slice.
+     * @param idExtractor the function returning the id of an element of the slice.
+     * @param <T> the type of the slice elements.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateKeysetPaginationHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        Slice<T> slice,
+        Function<T, Long> idExtractor
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            List<T> content = slice.getContent();
+            String cursor = encodeCursor(idExtractor.apply(content.get(content.size() - 1)));
+            headers.add(NEXT_CURSOR_HEADER, cursor);
+            String link = uriBuilder
+                .replaceQueryParam(AFTER_PARAMETER, cursor)
+                .replaceQueryParam(SIZE_PARAMETER, slice.getSize())
+                .toUriString()
+                .replace(",", "%2C")
+                .replace(";", "%3B");
+            headers.add(HttpHeaders.LINK, String.format(HEADER_LINK_FORMAT, link));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Rest layer utilities.
+ */
+package org.springframework.samples.petclinic.web.rest.util;
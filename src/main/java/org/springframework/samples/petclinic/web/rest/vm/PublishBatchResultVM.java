@@ -0,0 +1,57 @@
+package org.springframework.samples.petclinic.web.rest.vm;
+
+/**
+ * View Model object for the aggregate acknowledgement of a batch of messages published to Kafka.
+ */
+public class PublishBatchResultVM {
+
+    private int received;
+
+    private int accepted;
+
+    private int rejected;
+
+    public PublishBatchResultVM() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public PublishBatchResultVM(int received, int accepted, int rejected) {
+        this.received = received;
+        this.accepted = accepted;
+        this.rejected = rejected;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PublishBatchResultVM{" +
+            "received=" + received +
+            ", accepted=" + accepted +
+            ", rejected=" + rejected +
+            "}";
+    }
+}
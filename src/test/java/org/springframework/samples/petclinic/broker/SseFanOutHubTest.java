@@ -0,0 +1,137 @@
+package org.springframework.samples.petclinic.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.config.ApplicationProperties.Sse.OverflowPolicy;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseFanOutHubTest {
+
+    private MeterRegistry meterRegistry;
+
+    private SseFanOutHub hub;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSse().setQueueCapacity(2);
+        applicationProperties.getSse().setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+        applicationProperties.getSse().setSendThreads(2);
+        applicationProperties.getSse().setHeartbeatInterval(Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new SseFanOutHub(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hub.destroy();
+    }
+
+    @Test
+    void publishesToEverySubscriber() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(2, new CountDownLatch(0));
+        RecordingEmitter second = new RecordingEmitter(2, new CountDownLatch(0));
+        hub.register("first", first);
+        hub.register("second", second);
+
+        hub.publish("message-1");
+        hub.publish("message-2");
+
+        assertThat(first.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.received).containsExactly("message-1", "message-2");
+        assertThat(second.received).containsExactly("message-1", "message-2");
+        assertThat(meterRegistry.get(SseFanOutHub.SUBSCRIBERS_METER_NAME).gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void slowSubscriberDoesNotDelayTheOthersAndDropsItsOldestMessages() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(3, release);
+        RecordingEmitter fast = new RecordingEmitter(4, new CountDownLatch(0));
+        hub.register("slow", slow);
+        hub.register("fast", fast);
+
+        hub.publish("message-1");
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        hub.publish("message-2");
+        hub.publish("message-3");
+        hub.publish("message-4");
+
+        assertThat(fast.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(fast.received).containsExactly("message-1", "message-2", "message-3", "message-4");
+        assertThat(meterRegistry.get(SseFanOutHub.DROPPED_METER_NAME).counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(SseFanOutHub.QUEUE_DEPTH_METER_NAME).gauge().value()).isEqualTo(2);
+
+        release.countDown();
+        assertThat(slow.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(slow.received).containsExactly("message-1", "message-3", "message-4");
+    }
+
+    @Test
+    void unregisterRemovesTheSubscriber() {
+        hub.register("user", new RecordingEmitter(0, new CountDownLatch(0)));
+        assertThat(hub.getSubscriberCount()).isEqualTo(1);
+
+        hub.unregister("user");
+
+        assertThat(hub.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void registerReplacesThePreviousSubscriberWithTheSameKey() throws Exception {
+        RecordingEmitter previous = new RecordingEmitter(1, new CountDownLatch(0));
+        RecordingEmitter current = new RecordingEmitter(1, new CountDownLatch(0));
+        hub.register("user", previous);
+        hub.register("user", current);
+
+        hub.publish("message");
+
+        assertThat(current.sent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(previous.received).isEmpty();
+        assertThat(hub.getSubscriberCount()).isEqualTo(1);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> received = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private final CountDownLatch sent;
+
+        private final CountDownLatch release;
+
+        RecordingEmitter(int expected, CountDownLatch release) {
+            this.sent = new CountDownLatch(expected);
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            String data = builder.build().stream().map(item -> String.valueOf(item.getData())).collect(Collectors.joining());
+            received.add(data.replace("data:", "").trim());
+            sent.countDown();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.springframework.samples.petclinic.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+class AsyncConfigurationTest {
+
+    @Test
+    void shouldRunTasksOnPlatformThreadsByDefault() throws Exception {
+        Executor executor = createExecutor(new MockEnvironment());
+
+        Thread thread = runOn(executor);
+
+        assertThat(thread.getName()).startsWith("test-task-");
+        assertThat(isVirtual(thread)).isFalse();
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void shouldRunTasksOnVirtualThreadsWhenEnabled() throws Exception {
+        Executor executor = createExecutor(new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+
+        Thread thread = runOn(executor);
+
+        assertThat(thread.getName()).startsWith("test-task-");
+        assertThat(isVirtual(thread)).isTrue();
+    }
+
+    private Executor createExecutor(MockEnvironment env) throws Exception {
+        TaskExecutionProperties properties = new TaskExecutionProperties();
+        properties.setThreadNamePrefix("test-task-");
+        Executor executor = new AsyncConfiguration(properties, env).getAsyncExecutor();
+        if (executor instanceof InitializingBean initializingBean) {
+            initializingBean.afterPropertiesSet();
+        }
+        return executor;
+    }
+
+    private Thread runOn(Executor executor) throws Exception {
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+        executor.execute(() -> thread.complete(Thread.currentThread()));
+        return thread.get(5, TimeUnit.SECONDS);
+    }
+
+    private boolean isVirtual(Thread thread) throws Exception {
+        // Thread.isVirtual() only exists since Java 21, while the sources target Java 17
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.springframework.samples.petclinic.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.domain.Pet;
+import org.springframework.samples.petclinic.domain.PetType;
+import org.springframework.samples.petclinic.domain.Visit;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Unit tests for the per region settings of {@link CacheConfiguration}.
+ */
+class CacheConfigurationTest {
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        jHipsterProperties.getCache().getEhcache().setTimeToLiveSeconds(3600);
+        applicationProperties = new ApplicationProperties();
+        cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName()).getCacheManager(
+            URI.create("cache-configuration-test"),
+            getClass().getClassLoader()
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void appliesRegionSettings() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setMaxEntries(50L);
+        region.setOffheap(DataSize.ofMegabytes(2));
+        region.setTimeToIdle(Duration.ofMinutes(5));
+        applicationProperties.getCache().getRegions().put("Visit", region);
+
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+
+        CacheRuntimeConfiguration<Object, Object> configuration = runtimeConfiguration(Visit.class.getName());
+        ResourcePools resourcePools = configuration.getResourcePools();
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(50);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(2);
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation("key", "value")).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void storesTheEntriesOffHeap() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setMaxEntries(10L);
+        region.setOffheap(DataSize.ofMegabytes(1));
+        applicationProperties.getCache().getRegions().put("Pet", region);
+
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+
+        // More entries than the heap tier holds, so that most of them are only kept serialized off-heap
+        Cache<Object, Object> cache = cacheManager.getCache(Pet.class.getName());
+        for (long id = 0; id < 100; id++) {
+            cache.put(id, new Pet().id(id).name("pet " + id));
+        }
+        for (long id = 0; id < 100; id++) {
+            assertThat(cache.get(id)).isInstanceOf(Pet.class).extracting("name").isEqualTo("pet " + id);
+        }
+    }
+
+    @Test
+    void fallsBackToJHipsterSettings() {
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+
+        CacheRuntimeConfiguration<Object, Object> configuration = runtimeConfiguration(PetType.class.getName());
+        ResourcePools resourcePools = configuration.getResourcePools();
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(resourcePools.getPoolForResource(ResourceType.Core.OFFHEAP)).isNull();
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation("key", "value")).isEqualTo(Duration.ofHours(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheRuntimeConfiguration<Object, Object> runtimeConfiguration(String cacheName) {
+        Eh107Configuration<Object, Object> configuration = cacheManager.getCache(cacheName).getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class);
+    }
+}
@@ -0,0 +1,199 @@
+package org.springframework.samples.petclinic.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import org.hibernate.cache.spi.RegionFactory;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.assertj.AssertableApplicationContext;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.domain.Owner;
+import org.springframework.samples.petclinic.domain.PetType;
+import org.springframework.samples.petclinic.security.PrincipalCache;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link InfinispanCacheConfiguration}: two nodes, started in the same JVM, form a cluster over the
+ * loopback interface and see the entries written by each other. The nodes share a PostgreSQL database, so that entities
+ * go through the second level cache as in production.
+ */
+class InfinispanCacheConfigurationIT {
+
+    private static final PostgreSqlTestContainer database = new PostgreSqlTestContainer();
+
+    private static final String OWNER_CACHE = Owner.class.getName();
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(CacheAutoConfiguration.class))
+        .withUserConfiguration(PropertiesConfiguration.class, CacheConfiguration.class, InfinispanCacheConfiguration.class)
+        .withPropertyValues(
+            "application.cache.provider=infinispan",
+            "application.cache.infinispan.cluster-name=petclinic-it",
+            "application.cache.infinispan.bind-address=127.0.0.1",
+            "application.cache.infinispan.bind-port=7900",
+            "application.cache.infinispan.initial-hosts=127.0.0.1:7900",
+            "application.cache.regions.Owner.near-cache=true",
+            "jhipster.cache.ehcache.max-entries=100",
+            "jhipster.cache.ehcache.time-to-live-seconds=3600"
+        );
+
+    @BeforeAll
+    static void startDatabase() {
+        database.afterPropertiesSet();
+    }
+
+    @Test
+    void nodesShareTheirEntries() {
+        contextRunner.run(first ->
+            contextRunner.run(second -> {
+                awaitClusterOf(2, first);
+
+                cacheOf(first, OWNER_CACHE).put(1L, "owner");
+                assertThat(cacheOf(second, OWNER_CACHE).get(1L)).isEqualTo("owner");
+
+                cacheOf(second, OWNER_CACHE).put(1L, "updated owner");
+                assertThat(cacheOf(first, OWNER_CACHE).get(1L)).isEqualTo("updated owner");
+
+                cacheOf(first, OWNER_CACHE).remove(1L);
+                assertThat(cacheOf(second, OWNER_CACHE).get(1L)).isNull();
+            })
+        );
+    }
+
+    @Test
+    void nodesRejectTheClassesNotAllowed() {
+        contextRunner.run(first ->
+            contextRunner.run(second -> {
+                awaitClusterOf(2, first);
+
+                // Serializable, but not a class the caches hold
+                assertThatThrownBy(() -> cacheOf(first, OWNER_CACHE).put(2L, new AtomicLong(2))).isInstanceOf(RuntimeException.class);
+                assertThat(cacheOf(second, OWNER_CACHE).get(2L)).isNull();
+            })
+        );
+    }
+
+    @Test
+    void nodesShareTheCachedEntitiesAndPrincipals() {
+        ApplicationContextRunner nodeRunner = contextRunner
+            .withConfiguration(
+                AutoConfigurations.of(DataSourceAutoConfiguration.class, LiquibaseAutoConfiguration.class, HibernateJpaAutoConfiguration.class)
+            )
+            .withPropertyValues(
+                "spring.datasource.url=" + database.getTestContainer().getJdbcUrl(),
+                "spring.datasource.username=" + database.getTestContainer().getUsername(),
+                "spring.datasource.password=" + database.getTestContainer().getPassword(),
+                "spring.liquibase.change-log=classpath:config/liquibase/master.xml",
+                "spring.liquibase.contexts=test",
+                "spring.jpa.hibernate.ddl-auto=none",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=true"
+            );
+        nodeRunner.run(first ->
+            nodeRunner.run(second -> {
+                awaitClusterOf(2, first);
+
+                Long petTypeId = inTransaction(first, em -> {
+                    PetType petType = new PetType().name("cached pet type");
+                    em.persist(petType);
+                    return petType;
+                }).getId();
+                try {
+                    // Bypasses Hibernate, so that only the second level cache still holds the former name
+                    new JdbcTemplate(first.getBean(DataSource.class)).update(
+                        "update pet_type set name = ? where id = ?",
+                        "renamed pet type",
+                        petTypeId
+                    );
+
+                    assertThat(second.getBean(EntityManagerFactory.class).getCache().contains(PetType.class, petTypeId)).isTrue();
+                    PetType cached = inTransaction(second, em -> em.find(PetType.class, petTypeId));
+                    assertThat(cached.getName()).isEqualTo("cached pet type");
+                } finally {
+                    new JdbcTemplate(first.getBean(DataSource.class)).update("delete from pet_type where id = ?", petTypeId);
+                }
+
+                PrincipalCache.CachedPrincipal principal = new PrincipalCache.CachedPrincipal(
+                    "user",
+                    "$2a$10$hash",
+                    true,
+                    List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                );
+                cacheOf(first, PrincipalCache.PRINCIPALS_CACHE).put("user", principal);
+                assertThat(cacheOf(second, PrincipalCache.PRINCIPALS_CACHE).get("user")).isEqualTo(principal);
+            })
+        );
+    }
+
+    @Test
+    void appliesRegionSettings() {
+        contextRunner.run(context -> {
+            EmbeddedCacheManager embeddedCacheManager = context.getBean(EmbeddedCacheManager.class);
+
+            org.infinispan.configuration.cache.Configuration owner = embeddedCacheManager.getCacheConfiguration(OWNER_CACHE);
+            assertThat(owner.clustering().cacheMode().isDistributed()).isTrue();
+            assertThat(owner.clustering().l1().enabled()).isTrue();
+            assertThat(owner.memory().maxCount()).isEqualTo(100);
+            assertThat(owner.expiration().lifespan()).isEqualTo(3600_000);
+
+            org.infinispan.configuration.cache.Configuration petType = embeddedCacheManager.getCacheConfiguration(PetType.class.getName());
+            assertThat(petType.clustering().l1().enabled()).isFalse();
+
+            org.infinispan.configuration.cache.Configuration timestamps = embeddedCacheManager.getCacheConfiguration(
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME
+            );
+            assertThat(timestamps.clustering().cacheMode()).isEqualTo(CacheMode.REPL_SYNC);
+            assertThat(timestamps.memory().maxCount()).isEqualTo(-1);
+            assertThat(timestamps.expiration().lifespan()).isEqualTo(-1);
+        });
+    }
+
+    private static void awaitClusterOf(int size, AssertableApplicationContext context) throws InterruptedException {
+        EmbeddedCacheManager embeddedCacheManager = context.getBean(EmbeddedCacheManager.class);
+        for (int attempt = 0; attempt < 100 && embeddedCacheManager.getMembers().size() < size; attempt++) {
+            Thread.sleep(100);
+        }
+        assertThat(embeddedCacheManager.getMembers()).hasSize(size);
+    }
+
+    private static <T> T inTransaction(AssertableApplicationContext context, Function<EntityManager, T> work) {
+        EntityManager em = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Cache<Object, Object> cacheOf(AssertableApplicationContext context, String cacheName) {
+        return context.getBean(CacheManager.class).getCache(cacheName);
+    }
+
+    @Configuration
+    @EntityScan(basePackageClasses = Owner.class)
+    @EnableConfigurationProperties({ ApplicationProperties.class, JHipsterProperties.class })
+    static class PropertiesConfiguration {}
+}
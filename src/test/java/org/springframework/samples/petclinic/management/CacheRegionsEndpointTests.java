@@ -0,0 +1,92 @@
+package org.springframework.samples.petclinic.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheRegionsEndpointTests {
+
+    private static final String IDLE_CACHE = "idle";
+
+    private static final String BUSY_CACHE = "busy";
+
+    private CacheManager cacheManager;
+
+    private CacheStatisticsService cacheStatisticsService;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider").getCacheManager();
+        MutableConfiguration<Object, Object> configuration = new MutableConfiguration<>().setStatisticsEnabled(true);
+        cacheManager.createCache(IDLE_CACHE, configuration);
+        cacheManager.createCache(BUSY_CACHE, configuration);
+        cacheStatisticsService = new CacheStatisticsService(cacheManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cacheManager.destroyCache(IDLE_CACHE);
+        cacheManager.destroyCache(BUSY_CACHE);
+        cacheManager.close();
+    }
+
+    @Test
+    void testStatisticsAreReadFromTheCache() {
+        Cache<Object, Object> busy = cacheManager.getCache(BUSY_CACHE);
+        busy.put(1L, "one");
+        busy.get(1L);
+        busy.get(1L);
+        busy.get(2L);
+
+        CacheRegionStatistics statistics = cacheStatisticsService.getStatistics(BUSY_CACHE).orElseThrow();
+
+        assertThat(statistics.hits()).isEqualTo(2);
+        assertThat(statistics.misses()).isEqualTo(1);
+        assertThat(statistics.hitRatio()).isEqualTo(2d / 3);
+        assertThat(statistics.puts()).isEqualTo(1);
+        assertThat(statistics.hitsPerPut()).isEqualTo(2);
+    }
+
+    @Test
+    void testRegionsAreRankedByWastedMemory() {
+        Cache<Object, Object> idle = cacheManager.getCache(IDLE_CACHE);
+        for (long key = 0; key < 10; key++) {
+            idle.put(key, "value");
+        }
+        Cache<Object, Object> busy = cacheManager.getCache(BUSY_CACHE);
+        busy.put(1L, "one");
+        busy.get(1L);
+
+        Map<String, List<CacheRegionStatistics>> rankings = new CacheRegionsEndpoint(cacheStatisticsService).regions();
+
+        assertThat(rankings.get("byWastedMemory")).extracting(CacheRegionStatistics::name).containsExactly(IDLE_CACHE, BUSY_CACHE);
+        assertThat(rankings.get("byWastedMemory").get(0).hitsPerPut()).isZero();
+        assertThat(rankings.get("byMissCost")).hasSize(2);
+    }
+
+    @Test
+    void testLatencyMetersAreBoundForEveryCache() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new CacheMetersBinder(cacheStatisticsService).bindTo(meterRegistry);
+
+        cacheManager.getCache(BUSY_CACHE).put(1L, "one");
+
+        assertThat(
+            meterRegistry.get(CacheMetersBinder.LATENCY_METER_NAME).tag("cache", BUSY_CACHE).tag("operation", "put").timeGauge().value(
+                TimeUnit.MICROSECONDS
+            )
+        ).isGreaterThanOrEqualTo(0);
+        assertThat(meterRegistry.find(CacheMetersBinder.LATENCY_METER_NAME).timeGauges()).hasSize(4);
+    }
+}
@@ -0,0 +1,82 @@
+package org.springframework.samples.petclinic.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests checking, with {@code EXPLAIN}, that the queries of the common criteria filters can use the indexes
+ * of the {@code 20240601120000_added_criteria_indexes} changelog.
+ * <p>
+ * The test tables are too small for PostgreSQL to prefer an index over a sequential scan, so the sequential scans are
+ * disabled: the plan then uses an index if, and only if, one matches the query.
+ */
+@IntegrationTest
+class CriteriaIndexesIT {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void visitsOfAPetUseTheForeignKeyIndex() {
+        assertThat(plan("select v.id, v.date from visit v where v.pet_id = 1")).contains("idx_visit__pet_id");
+    }
+
+    @Test
+    void visitsOfAVetUseTheForeignKeyIndex() {
+        assertThat(plan("select v.id, v.date from visit v where v.vet_id = 1")).contains("idx_visit__vet_id");
+    }
+
+    @Test
+    void petsOfAnOwnerUseTheForeignKeyIndex() {
+        assertThat(plan("select p.id, p.name from pet p where p.owner_id = 1")).contains("idx_pet__owner_id");
+    }
+
+    @Test
+    void petsOfATypeUseTheForeignKeyIndex() {
+        assertThat(plan("select p.id, p.name from pet p where p.type_id = 1")).contains("idx_pet__type_id");
+    }
+
+    @Test
+    void visitDateRangeUsesTheDateIndex() {
+        assertThat(plan("select v.id, v.date from visit v where v.date >= date '2024-01-01' and v.date <= date '2024-01-31'")).contains(
+            "idx_visit__date"
+        );
+    }
+
+    @Test
+    void ownerLastNameContainsUsesTheTrigramIndex() {
+        // The StringFilter.contains of the criteria is built as upper(column) like '%VALUE%'
+        assertThat(plan("select o.id from owner o where upper(o.last_name) like '%DAVIS%'")).contains("idx_owner__last_name_trgm");
+    }
+
+    @Test
+    void ownerCityContainsUsesTheTrigramIndex() {
+        assertThat(plan("select o.id from owner o where upper(o.city) like '%MADISON%'")).contains("idx_owner__city_trgm");
+    }
+
+    private String plan(String query) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            List<String> lines = jdbcTemplate.queryForList("explain " + query, String.class);
+            return String.join("\n", lines);
+        });
+    }
+}
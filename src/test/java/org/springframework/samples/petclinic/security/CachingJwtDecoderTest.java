@@ -0,0 +1,130 @@
+package org.springframework.samples.petclinic.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Test class for the {@link CachingJwtDecoder}.
+ */
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final MutableClock clock = new MutableClock();
+
+    private final Map<String, Integer> decodes = new HashMap<>();
+
+    private final JwtDecoder delegate = token -> {
+        decodes.merge(token, 1, Integer::sum);
+        if (token.startsWith("invalid")) {
+            throw new BadJwtException("Invalid signature");
+        }
+        Jwt.Builder jwt = Jwt.withTokenValue(token).header("alg", "HS512").subject("user").issuedAt(NOW);
+        if (!token.startsWith("eternal")) {
+            jwt.expiresAt(NOW.plus(Duration.ofMinutes(10)));
+        }
+        return jwt.build();
+    };
+
+    @Test
+    void testDecodesAValidTokenOnce() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, meterRegistry, clock);
+
+        Jwt first = decoder.decode("token");
+        Jwt second = decoder.decode("token");
+
+        assertThat(second).isSameAs(first);
+        assertThat(decodes).containsEntry("token", 1);
+        assertThat(requests("hit")).isEqualTo(1);
+        assertThat(requests("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void testDecodesAnExpiredTokenAgain() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, meterRegistry, clock);
+        decoder.decode("token");
+
+        clock.instant = NOW.plus(Duration.ofMinutes(10));
+        decoder.decode("token");
+
+        assertThat(decodes).containsEntry("token", 2);
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void testDoesNotCacheInvalidTokensNorTokensWithoutExpiry() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, meterRegistry, clock);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> decoder.decode("invalid")).isInstanceOf(BadJwtException.class);
+            decoder.decode("eternal");
+        }
+
+        assertThat(decodes).containsEntry("invalid", 2).containsEntry("eternal", 2);
+        assertThat(decoder.size()).isZero();
+    }
+
+    @Test
+    void testEvictsTheLeastRecentlyUsedTokens() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, meterRegistry, clock);
+        for (int i = 0; i < 10; i++) {
+            decoder.decode("token" + i);
+            clock.instant = clock.instant.plusMillis(1);
+        }
+        decoder.decode("token0");
+        clock.instant = clock.instant.plusMillis(1);
+
+        decoder.decode("token10");
+
+        assertThat(decoder.size()).isLessThanOrEqualTo(10);
+        assertThat(meterRegistry.get(CachingJwtDecoder.EVICTIONS_METER_NAME).counter().count()).isPositive();
+        decoder.decode("token0");
+        decoder.decode("token10");
+        decoder.decode("token1");
+        assertThat(decodes).containsEntry("token0", 1).containsEntry("token10", 1).containsEntry("token1", 2);
+    }
+
+    private double requests(String result) {
+        return meterRegistry
+            .get(CachingJwtDecoder.REQUESTS_METER_NAME)
+            .tag(CachingJwtDecoder.REQUESTS_METER_RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
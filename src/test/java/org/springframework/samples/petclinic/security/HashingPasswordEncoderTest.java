@@ -0,0 +1,130 @@
+package org.springframework.samples.petclinic.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Test class for the {@link HashingPasswordEncoder}.
+ */
+class HashingPasswordEncoderTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<HashingPasswordEncoder> encoders = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        encoders.forEach(HashingPasswordEncoder::destroy);
+    }
+
+    @Test
+    void testEncodesWithTheConfiguredAlgorithm() {
+        HashingPasswordEncoder bcrypt = encoder(ApplicationProperties.Security.Password.Algorithm.BCRYPT);
+        HashingPasswordEncoder pbkdf2 = encoder(ApplicationProperties.Security.Password.Algorithm.PBKDF2);
+
+        String bcryptHash = bcrypt.encode("password");
+        String pbkdf2Hash = pbkdf2.encode("password");
+
+        assertThat(bcryptHash).startsWith("{bcrypt}$2a$04$");
+        assertThat(pbkdf2Hash).startsWith("{pbkdf2@SpringSecurity_v5_8}").hasSizeLessThanOrEqualTo(255);
+        // Both algorithms are matched, whatever the configured one
+        assertThat(bcrypt.matches("password", pbkdf2Hash)).isTrue();
+        assertThat(pbkdf2.matches("password", bcryptHash)).isTrue();
+        assertThat(bcrypt.matches("wrong", bcryptHash)).isFalse();
+        assertThat(hashings("pbkdf2", "encode")).isEqualTo(1);
+        assertThat(hashings("pbkdf2", "matches")).isEqualTo(1);
+        assertThat(hashings("bcrypt", "matches")).isEqualTo(2);
+    }
+
+    @Test
+    void testMatchesHashesWithoutPrefix() {
+        HashingPasswordEncoder encoder = encoder(ApplicationProperties.Security.Password.Algorithm.BCRYPT);
+
+        assertThat(encoder.matches("password", new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+    }
+
+    @Test
+    void testUpgradesHashesOfFormerParameters() {
+        HashingPasswordEncoder bcrypt = encoder(ApplicationProperties.Security.Password.Algorithm.BCRYPT);
+        HashingPasswordEncoder pbkdf2 = encoder(ApplicationProperties.Security.Password.Algorithm.PBKDF2);
+        ApplicationProperties.Security.Password strongerProperties = properties(ApplicationProperties.Security.Password.Algorithm.BCRYPT);
+        strongerProperties.setBcryptStrength(5);
+        HashingPasswordEncoder strongerBcrypt = register(new HashingPasswordEncoder(strongerProperties, meterRegistry));
+
+        String bcryptHash = bcrypt.encode("password");
+
+        assertThat(bcrypt.upgradeEncoding(bcryptHash)).isFalse();
+        assertThat(bcrypt.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(pbkdf2.upgradeEncoding(bcryptHash)).isTrue();
+        assertThat(strongerBcrypt.upgradeEncoding(bcryptHash)).isTrue();
+        assertThat(meterRegistry.get(HashingPasswordEncoder.UPGRADES_METER_NAME).counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testRejectsHashingBeyondTheQueueCapacity() throws Exception {
+        ApplicationProperties.Security.Password properties = properties(ApplicationProperties.Security.Password.Algorithm.BCRYPT);
+        // Long enough for the queue to stay full while the next password is submitted
+        properties.setBcryptStrength(13);
+        properties.setHashingThreads(1);
+        properties.setHashingQueueCapacity(1);
+        HashingPasswordEncoder encoder = register(new HashingPasswordEncoder(properties, meterRegistry));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            List<CompletableFuture<String>> hashes = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                hashes.add(CompletableFuture.supplyAsync(() -> encoder.encode("password"), callers));
+            }
+            // Waits until one password is being hashed and one is waiting
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (encoder.activeHashings() != 1 || encoder.waitingHashings() != 1) {
+                assertThat(System.nanoTime() - deadline).as("time left to fill the hashing queue").isNegative();
+                Thread.sleep(1);
+            }
+
+            assertThatThrownBy(() -> encoder.encode("password")).isInstanceOf(PasswordHashingRejectedException.class);
+            assertThat(meterRegistry.get(HashingPasswordEncoder.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+            hashes.forEach(hash -> assertThat(encoder.matches("password", hash.join())).isTrue());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private HashingPasswordEncoder encoder(ApplicationProperties.Security.Password.Algorithm algorithm) {
+        return register(new HashingPasswordEncoder(properties(algorithm), meterRegistry));
+    }
+
+    private HashingPasswordEncoder register(HashingPasswordEncoder encoder) {
+        encoders.add(encoder);
+        return encoder;
+    }
+
+    private static ApplicationProperties.Security.Password properties(ApplicationProperties.Security.Password.Algorithm algorithm) {
+        ApplicationProperties.Security.Password properties = new ApplicationProperties.Security.Password();
+        properties.setAlgorithm(algorithm);
+        properties.setBcryptStrength(4);
+        properties.setPbkdf2Iterations(1000);
+        return properties;
+    }
+
+    private double hashings(String algorithm, String operation) {
+        return meterRegistry
+            .get(HashingPasswordEncoder.HASHING_METER_NAME)
+            .tag(HashingPasswordEncoder.HASHING_METER_ALGORITHM_DIMENSION, algorithm)
+            .tag(HashingPasswordEncoder.HASHING_METER_OPERATION_DIMENSION, operation)
+            .timer()
+            .count();
+    }
+}
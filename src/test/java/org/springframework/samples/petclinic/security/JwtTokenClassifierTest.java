@@ -0,0 +1,113 @@
+package org.springframework.samples.petclinic.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.samples.petclinic.security.SecurityUtils.JWT_ALGORITHM;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import org.springframework.samples.petclinic.security.JwtTokenClassifier.Outcome;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+/**
+ * Test class for the {@link JwtTokenClassifier}.
+ */
+class JwtTokenClassifierTest {
+
+    private static final String JWT_KEY =
+        "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final String OTHER_JWT_KEY =
+        "Xfd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private final JwtTokenClassifier classifier = new JwtTokenClassifier(secretKey(JWT_KEY), JWT_ALGORITHM, Duration.ofSeconds(60));
+
+    @Test
+    void testValidToken() {
+        assertThat(classifier.classify(token(JWT_KEY, Instant.now().plusSeconds(60)))).isEqualTo(Outcome.VALID);
+    }
+
+    @Test
+    void testTokenWithinTheClockSkew() {
+        assertThat(classifier.classify(token(JWT_KEY, Instant.now().minusSeconds(30)))).isEqualTo(Outcome.VALID);
+    }
+
+    @Test
+    void testExpiredToken() {
+        assertThat(classifier.classify(token(JWT_KEY, Instant.now().minusSeconds(600)))).isEqualTo(Outcome.EXPIRED);
+    }
+
+    @Test
+    void testExpiredTokenWithInvalidSignature() {
+        assertThat(classifier.classify(token(OTHER_JWT_KEY, Instant.now().minusSeconds(600)))).isEqualTo(Outcome.EXPIRED);
+    }
+
+    @Test
+    void testTokenWithInvalidSignature() {
+        assertThat(classifier.classify(token(OTHER_JWT_KEY, Instant.now().plusSeconds(60)))).isEqualTo(Outcome.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void testTamperedToken() {
+        String token = token(JWT_KEY, Instant.now().plusSeconds(60));
+        String[] parts = token.split("\\.");
+        String claims = encode("{\"sub\":\"admin\",\"exp\":" + Instant.now().plusSeconds(60).getEpochSecond() + "}");
+
+        assertThat(classifier.classify(parts[0] + "." + claims + "." + parts[2])).isEqualTo(Outcome.INVALID_SIGNATURE);
+    }
+
+    @Test
+    void testUnsecuredToken() {
+        String token = encode("{\"alg\":\"none\"}") + "." + encode("{\"sub\":\"admin\"}") + ".";
+
+        assertThat(classifier.classify(token)).isEqualTo(Outcome.UNSUPPORTED);
+    }
+
+    @Test
+    void testTokenWithOtherAlgorithm() {
+        String token = encode("{\"alg\":\"HS256\"}") + "." + encode("{\"sub\":\"admin\"}") + ".c2lnbmF0dXJl";
+
+        assertThat(classifier.classify(token)).isEqualTo(Outcome.UNSUPPORTED);
+    }
+
+    @Test
+    void testMalformedTokens() {
+        String token = token(JWT_KEY, Instant.now().plusSeconds(60));
+
+        assertThat(classifier.classify(null)).isEqualTo(Outcome.MALFORMED);
+        assertThat(classifier.classify("")).isEqualTo(Outcome.MALFORMED);
+        assertThat(classifier.classify("not a token")).isEqualTo(Outcome.MALFORMED);
+        assertThat(classifier.classify(token.substring(1))).isEqualTo(Outcome.MALFORMED);
+        assertThat(classifier.classify(token + ".")).isEqualTo(Outcome.MALFORMED);
+        assertThat(classifier.classify(token.replace('.', '+'))).isEqualTo(Outcome.MALFORMED);
+        assertThat(classifier.classify(encode("not json") + "." + encode("{}") + ".c2lnbmF0dXJl")).isEqualTo(Outcome.MALFORMED);
+    }
+
+    private static String token(String jwtKey, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuedAt(expiresAt.minusSeconds(3600))
+            .expiresAt(expiresAt)
+            .subject("user")
+            .build();
+        return new NimbusJwtEncoder(new ImmutableSecret<>(secretKey(jwtKey)))
+            .encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims))
+            .getTokenValue();
+    }
+
+    private static SecretKey secretKey(String jwtKey) {
+        byte[] keyBytes = Base64.from(jwtKey).decode();
+        return new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
+    }
+
+    private static String encode(String json) {
+        return java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,165 @@
+package org.springframework.samples.petclinic.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.domain.Authority;
+import org.springframework.samples.petclinic.domain.User;
+import org.springframework.samples.petclinic.repository.AuthorityRepository;
+import org.springframework.samples.petclinic.repository.UserRepository;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link PrincipalCache}, whose principals are evicted once the changes of their user are
+ * committed, so the tests are not transactional.
+ */
+@IntegrationTest
+class PrincipalCacheIT {
+
+    private static final String LOGIN = "principal-cache-user";
+    private static final String EMAIL = "principal-cache-user@localhost";
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    @Qualifier("userDetailsService")
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User();
+            user.setLogin(LOGIN);
+            user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+            user.setActivated(true);
+            user.setEmail(EMAIL);
+            user.setLangKey("en");
+            Set<Authority> authorities = new HashSet<>();
+            authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
+            authorityRepository.findById(AuthoritiesConstants.ADMIN).ifPresent(authorities::add);
+            user.setAuthorities(authorities);
+            userRepository.save(user);
+        });
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findOneByLogin(LOGIN).ifPresent(userRepository::delete);
+            userRepository.findOneByLogin("renamed-" + LOGIN).ifPresent(userRepository::delete);
+        });
+    }
+
+    @Test
+    void loadedPrincipalsAreCached() {
+        double hits = lookups("hit");
+
+        UserDetails first = userDetailsService.loadUserByUsername(LOGIN);
+        UserDetails second = userDetailsService.loadUserByUsername(LOGIN.toUpperCase());
+
+        assertThat(principalCache.getIfPresent(LOGIN)).hasValueSatisfying(principal -> {
+            assertThat(principal.login()).isEqualTo(LOGIN);
+            assertThat(principal.authorities()).containsExactly(
+                new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN),
+                new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+            );
+        });
+        assertThat(lookups("hit")).isEqualTo(hits + 1);
+        // Each authentication gets its own user, whose credentials can be erased
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo(first.getPassword());
+    }
+
+    @Test
+    void principalsAreEvictedWhenTheirUserIsUpdated() {
+        userDetailsService.loadUserByUsername(LOGIN);
+        userDetailsService.loadUserByUsername(EMAIL);
+
+        transactionTemplate.executeWithoutResult(status ->
+            userRepository.findOneByLogin(LOGIN).ifPresent(user -> user.setPassword(RandomStringUtils.randomAlphanumeric(60)))
+        );
+
+        assertThat(principalCache.getIfPresent(LOGIN)).isEmpty();
+        assertThat(principalCache.getIfPresent(EMAIL)).isEmpty();
+    }
+
+    @Test
+    void formerLoginIsEvictedWhenTheLoginChanges() {
+        userDetailsService.loadUserByUsername(LOGIN);
+
+        transactionTemplate.executeWithoutResult(status ->
+            userRepository.findOneByLogin(LOGIN).ifPresent(user -> user.setLogin("renamed-" + LOGIN))
+        );
+
+        assertThat(principalCache.getIfPresent(LOGIN)).isEmpty();
+    }
+
+    @Test
+    void principalsAreEvictedWhenTheAuthoritiesOfTheirUserChange() {
+        userDetailsService.loadUserByUsername(LOGIN);
+
+        transactionTemplate.executeWithoutResult(status ->
+            userRepository
+                .findOneWithAuthoritiesByLogin(LOGIN)
+                .ifPresent(user -> user.getAuthorities().removeIf(authority -> AuthoritiesConstants.ADMIN.equals(authority.getName())))
+        );
+
+        assertThat(principalCache.getIfPresent(LOGIN)).isEmpty();
+        assertThat(userDetailsService.loadUserByUsername(LOGIN).getAuthorities()).containsExactly(
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+        );
+    }
+
+    @Test
+    void principalsAreEvictedWhenTheirUserIsDeleted() {
+        userDetailsService.loadUserByUsername(LOGIN);
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.findOneByLogin(LOGIN).ifPresent(userRepository::delete));
+
+        assertThat(principalCache.getIfPresent(LOGIN)).isEmpty();
+    }
+
+    @Test
+    void principalsLoadedInReadWriteTransactionsAreNotCached() {
+        transactionTemplate.executeWithoutResult(status -> userDetailsService.loadUserByUsername(LOGIN));
+
+        assertThat(principalCache.getIfPresent(LOGIN)).isEmpty();
+    }
+
+    private double lookups(String result) {
+        return meterRegistry
+            .get(PrincipalCache.LOOKUP_METER_NAME)
+            .tag(PrincipalCache.LOOKUP_METER_RESULT_DIMENSION, result)
+            .timer()
+            .count();
+    }
+}
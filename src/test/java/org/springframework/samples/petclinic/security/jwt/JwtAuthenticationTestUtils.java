@@ -7,6 +7,7 @@ import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Collections;
 import javax.crypto.Mac;
@@ -83,6 +84,13 @@ public class JwtAuthenticationTestUtils {
         return createValidToken(jwtKey).substring(1);
     }
 
+    public static String createUnsecuredToken() {
+        java.util.Base64.Encoder encoder = java.util.Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString("{\"sub\":\"admin\"}".getBytes(StandardCharsets.UTF_8));
+        return header + "." + claims + ".";
+    }
+
     public static String createSignedInvalidJwt(String jwtKey) throws Exception {
         return calculateHMAC("foo", jwtKey);
     }
@@ -0,0 +1,169 @@
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+
+/**
+ * Tests for {@link MailQueueService}, against a GreenMail SMTP server.
+ */
+class MailQueueServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+        .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication())
+        .withPerMethodLifecycle(true);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MailQueueService mailQueueService;
+
+    private MimeMessage failing;
+
+    @AfterEach
+    void tearDown() {
+        if (mailQueueService != null) {
+            mailQueueService.destroy();
+        }
+    }
+
+    @Test
+    void shouldSendQueuedEmailsInBatches() throws Exception {
+        JavaMailSenderImpl javaMailSender = javaMailSender(greenMail.getSmtp().getPort());
+        mailQueueService = new MailQueueService(javaMailSender, properties(2), meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(mailQueueService.offer(message(javaMailSender, "user" + i + "@example.com"))).isTrue();
+        }
+
+        assertThat(greenMail.waitForIncomingEmail(5000, 5)).isTrue();
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+        await(() -> messages("sent") == 5);
+        assertThat(meterRegistry.get(MailQueueService.SEND_LATENCY_METER_NAME).timer().count()).isGreaterThanOrEqualTo(3);
+        assertThat(mailQueueService.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void shouldRejectEmailsWhenTheQueueIsFull() throws Exception {
+        // No SMTP server listens on this port, so that the messages stay queued
+        JavaMailSenderImpl javaMailSender = javaMailSender(greenMail.getSmtp().getPort() + 1);
+        ApplicationProperties applicationProperties = properties(1);
+        applicationProperties.getMail().setQueueCapacity(2);
+        applicationProperties.getMail().setInitialBackoff(Duration.ofMinutes(1));
+        mailQueueService = new MailQueueService(javaMailSender, applicationProperties, meterRegistry);
+
+        assertThat(mailQueueService.offer(message(javaMailSender, "user1@example.com"))).isTrue();
+        assertThat(mailQueueService.offer(message(javaMailSender, "user2@example.com"))).isTrue();
+        assertThat(mailQueueService.offer(message(javaMailSender, "user3@example.com"))).isFalse();
+        assertThat(messages("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMoveEmailsToDeadLettersAfterAllAttemptsAndRequeueThem() throws Exception {
+        int port = greenMail.getSmtp().getPort();
+        JavaMailSenderImpl javaMailSender = javaMailSender(port + 1);
+        mailQueueService = new MailQueueService(javaMailSender, properties(10), meterRegistry);
+
+        mailQueueService.offer(message(javaMailSender, "user@example.com"));
+
+        await(() -> mailQueueService.getDeadLetterCount() == 1);
+        assertThat(messages("retried")).isEqualTo(2);
+        assertThat(messages("dead")).isEqualTo(1);
+
+        javaMailSender.setPort(port);
+        assertThat(mailQueueService.requeueDeadLetters()).isEqualTo(1);
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(mailQueueService.getDeadLetterCount()).isZero();
+    }
+
+    @Test
+    void shouldRetryOnlyTheFailedEmailsOfABatch() throws Exception {
+        Map<MimeMessage, Integer> sends = new ConcurrentHashMap<>();
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl() {
+            @Override
+            public void send(MimeMessage... mimeMessages) {
+                Map<Object, Exception> failedMessages = new HashMap<>();
+                for (MimeMessage mimeMessage : mimeMessages) {
+                    if (sends.merge(mimeMessage, 1, Integer::sum) == 1 && mimeMessage == failing) {
+                        failedMessages.put(mimeMessage, new MessagingException("Mailbox unavailable"));
+                    }
+                }
+                // Thrown without failed messages when only closing the connection fails, once all were sent
+                throw new MailSendException("Failed to close server connection after message sending", null, failedMessages);
+            }
+        };
+        failing = message(javaMailSender, "user2@example.com");
+        MimeMessage other = message(javaMailSender, "user1@example.com");
+        mailQueueService = new MailQueueService(javaMailSender, properties(10), meterRegistry);
+
+        mailQueueService.offer(other);
+        mailQueueService.offer(failing);
+
+        await(() -> messages("sent") == 2);
+        assertThat(messages("retried")).isEqualTo(1);
+        assertThat(sends).containsEntry(other, 1).containsEntry(failing, 2);
+        assertThat(mailQueueService.getQueueDepth()).isZero();
+    }
+
+    private ApplicationProperties properties(int batchSize) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Mail mail = applicationProperties.getMail();
+        mail.setBatchSize(batchSize);
+        mail.setRateLimit(0);
+        mail.setMaxAttempts(3);
+        mail.setInitialBackoff(Duration.ofMillis(10));
+        mail.setMaxBackoff(Duration.ofMillis(50));
+        return applicationProperties;
+    }
+
+    private JavaMailSenderImpl javaMailSender(int port) {
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(port);
+        return javaMailSender;
+    }
+
+    private MimeMessage message(JavaMailSenderImpl javaMailSender, String to) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage);
+        message.setTo(to);
+        message.setFrom("test@localhost");
+        message.setSubject("testSubject");
+        message.setText("testContent");
+        return mimeMessage;
+    }
+
+    private double messages(String result) {
+        return meterRegistry
+            .get(MailQueueService.MESSAGES_METER_NAME)
+            .tag(MailQueueService.MESSAGES_METER_RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
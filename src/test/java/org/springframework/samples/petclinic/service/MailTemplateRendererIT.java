@@ -0,0 +1,71 @@
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.domain.User;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Integration tests for {@link MailTemplateRenderer}.
+ */
+@IntegrationTest
+class MailTemplateRendererIT {
+
+    @Autowired
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+
+    @Autowired
+    private JHipsterProperties jHipsterProperties;
+
+    @ParameterizedTest
+    @CsvSource(
+        {
+            "mail/activationEmail, en",
+            "mail/activationEmail, es",
+            "mail/creationEmail, en",
+            "mail/creationEmail, es",
+            "mail/passwordResetEmail, en",
+            "mail/passwordResetEmail, es",
+            "mail/testEmail, en",
+        }
+    )
+    void shouldRenderLikeThymeleaf(String templateName, String language) {
+        User user = new User();
+        user.setLogin("o'brien&<co>");
+        user.setEmail("o'brien@example.com");
+        user.setFirstName("\"Jo\"");
+        user.setActivationKey("activation&key");
+        user.setResetKey("reset<key>");
+        Locale locale = Locale.forLanguageTag(language);
+
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+
+        assertThat(mailTemplateRenderer.render(templateName, user, locale)).isEqualTo(templateEngine.process(templateName, context));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "mail/activationEmail", "mail/passwordResetEmail" })
+    void shouldRenderWithThymeleafWhenAFieldIsMissing(String templateName) {
+        User user = new User();
+        user.setLogin("john");
+        Locale locale = Locale.ENGLISH;
+
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", jHipsterProperties.getMail().getBaseUrl());
+
+        assertThat(mailTemplateRenderer.render(templateName, user, locale)).isEqualTo(templateEngine.process(templateName, context));
+    }
+}
@@ -0,0 +1,75 @@
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.cloud.stream.binder.test.OutputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.messaging.Message;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.repository.OutboxEventRepository;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+
+/**
+ * Integration tests for {@link OutboxRelayService}.
+ */
+@IntegrationTest
+@ImportAutoConfiguration(TestChannelBinderConfiguration.class)
+class OutboxRelayServiceIT {
+
+    private static final String DESTINATION = "petclinic-changes";
+
+    @Autowired
+    private OwnerService ownerService;
+
+    @Autowired
+    private OutboxRelayService outboxRelayService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutputDestination output;
+
+    @BeforeEach
+    public void init() {
+        // Relay the events left by other tests, and discard them
+        outboxRelayService.relay();
+        while (output.receive(100, DESTINATION) != null) {}
+    }
+
+    @Test
+    void relaysOwnerChangesInOrder() {
+        OwnerDTO ownerDTO = new OwnerDTO();
+        ownerDTO.setFirstName("AAAAAAAAAA");
+        ownerDTO.setLastName("BBBBBBBBBB");
+        OwnerDTO created = ownerService.save(ownerDTO);
+        ownerService.delete(created.getId());
+
+        assertThat(outboxRelayService.relay()).isEqualTo(2);
+
+        Message<byte[]> createdMessage = output.receive(1000, DESTINATION);
+        assertThat(createdMessage.getHeaders()).containsEntry(OutboxRelayService.EVENT_TYPE_HEADER, "CREATED");
+        assertThat(createdMessage.getHeaders()).containsEntry(OutboxRelayService.AGGREGATE_TYPE_HEADER, "Owner");
+        assertThat(createdMessage.getHeaders()).containsEntry(OutboxRelayService.AGGREGATE_ID_HEADER, created.getId());
+        assertThat(new String(createdMessage.getPayload(), StandardCharsets.UTF_8)).contains("\"lastName\":\"BBBBBBBBBB\"");
+
+        Message<byte[]> deletedMessage = output.receive(1000, DESTINATION);
+        assertThat(deletedMessage.getHeaders()).containsEntry(OutboxRelayService.EVENT_TYPE_HEADER, "DELETED");
+        assertThat(new String(deletedMessage.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":" + created.getId() + "}");
+
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void recordsNoEventForAMissingOwner() {
+        ownerService.delete(Long.MAX_VALUE);
+
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(outboxRelayService.relay()).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.samples.petclinic.service.dto.OwnerSuggestionDTO;
+
+/**
+ * Integration tests for the {@link OwnerAutocompleteService}. The owners are only known by their changes, not
+ * transactional, so that the suggestions change at once. Each test uses its own ids, which are not in the database.
+ */
+@IntegrationTest
+class OwnerAutocompleteServiceIT {
+
+    @Autowired
+    private OwnerAutocompleteService ownerAutocompleteService;
+
+    @Autowired
+    private OwnerChangeConsumer ownerChangeConsumer;
+
+    @Test
+    void keepsTheNewerVersionOfAnOwner() {
+        long id = Long.MAX_VALUE - 1;
+        ownerAutocompleteService.saved(ownerDTO(id, "Pennywhistle", 1L));
+        ownerAutocompleteService.saved(ownerDTO(id, "Quillsworth", 0L));
+
+        assertThat(suggestedIds("pennywhistle")).contains(id);
+        assertThat(suggestedIds("quillsworth")).doesNotContain(id);
+
+        ownerAutocompleteService.saved(ownerDTO(id, "Quillsworth", 2L));
+
+        assertThat(suggestedIds("pennywhistle")).doesNotContain(id);
+        assertThat(suggestedIds("quillsworth")).contains(id);
+    }
+
+    @Test
+    void neverSuggestsADeletedOwnerAgain() {
+        long id = Long.MAX_VALUE - 2;
+        ownerAutocompleteService.saved(ownerDTO(id, "Inkwhistle", 0L));
+        ownerAutocompleteService.deleted(id);
+        ownerAutocompleteService.saved(ownerDTO(id, "Inkwhistle", 1L));
+
+        assertThat(suggestedIds("inkwhistle")).doesNotContain(id);
+    }
+
+    @Test
+    void followsTheOwnerChangesOfAllTheNodes() {
+        long id = Long.MAX_VALUE - 3;
+        String payload = "{\"id\":" + id + ",\"firstName\":\"Ermengarde\",\"lastName\":\"Thistlewood\",\"version\":0}";
+        ownerChangeConsumer.accept(event("CREATED", payload));
+
+        assertThat(suggestedIds("ermengarde thistle")).contains(id);
+
+        ownerChangeConsumer.accept(event("DELETED", "{\"id\":" + id + "}"));
+
+        assertThat(suggestedIds("ermengarde thistle")).doesNotContain(id);
+    }
+
+    private List<Long> suggestedIds(String prefix) {
+        return ownerAutocompleteService.suggest(prefix, 20).stream().map(OwnerSuggestionDTO::getId).toList();
+    }
+
+    private static OwnerDTO ownerDTO(Long id, String lastName, Long version) {
+        OwnerDTO ownerDTO = new OwnerDTO();
+        ownerDTO.setId(id);
+        ownerDTO.setFirstName("Ermengarde");
+        ownerDTO.setLastName(lastName);
+        ownerDTO.setVersion(version);
+        return ownerDTO;
+    }
+
+    private static Message<byte[]> event(String eventType, String payload) {
+        return MessageBuilder.withPayload(payload.getBytes(StandardCharsets.UTF_8))
+            .setHeader(OutboxRelayService.AGGREGATE_TYPE_HEADER, OwnerChangeConsumer.OWNER_AGGREGATE_TYPE)
+            .setHeader(OutboxRelayService.EVENT_TYPE_HEADER, eventType)
+            .build();
+    }
+}
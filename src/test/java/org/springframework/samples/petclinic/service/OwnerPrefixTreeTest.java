@@ -0,0 +1,125 @@
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link OwnerPrefixTree}.
+ */
+class OwnerPrefixTreeTest {
+
+    private final OwnerPrefixTree tree = new OwnerPrefixTree();
+
+    @Test
+    void testCollectsTheKeysStartingWithThePrefix() {
+        tree.add("smith john", 1L);
+        tree.add("smithers waylon", 2L);
+        tree.add("smyth jane", 3L);
+        tree.add("jones mary", 4L);
+
+        assertThat(collect("smith", 10)).containsExactly(1L, 2L);
+        assertThat(collect("sm", 10)).containsExactly(1L, 3L, 2L);
+        assertThat(collect("smithers w", 10)).containsExactly(2L);
+        assertThat(collect("smithx", 10)).isEmpty();
+        assertThat(collect("smithers waylon smithers", 10)).isEmpty();
+        assertThat(collect("", 10)).containsExactly(4L, 1L, 3L, 2L);
+    }
+
+    @Test
+    void testCollectsTheShorterKeysFirst() {
+        tree.add("annabel", 1L);
+        tree.add("ann", 2L);
+        tree.add("anna", 3L);
+        tree.add("ann", 4L);
+        tree.add("abcdef", 5L);
+        tree.add("ac", 6L);
+
+        assertThat(collect("an", 10)).containsExactly(2L, 4L, 3L, 1L);
+        assertThat(collect("an", 2)).containsExactly(2L, 4L);
+        assertThat(collect("a", 10)).containsExactly(6L, 2L, 4L, 3L, 5L, 1L);
+        assertThat(collect("a", 3)).containsExactly(6L, 2L, 4L);
+    }
+
+    @Test
+    void testCollectsEachOwnerOnce() {
+        tree.add("lee lee", 1L);
+        tree.add("lee", 1L);
+        tree.add("lee", 1L);
+
+        assertThat(collect("le", 10)).containsExactly(1L);
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testRemovesTheKeysAndTheirNodes() {
+        tree.add("smith john", 1L);
+        tree.add("smithers waylon", 2L);
+        tree.add("smith", 3L);
+
+        assertThat(tree.remove("smith", 3L)).isTrue();
+        assertThat(tree.remove("smith", 3L)).isFalse();
+        assertThat(tree.remove("smit", 1L)).isFalse();
+        assertThat(tree.remove("smith john", 2L)).isFalse();
+        assertThat(collect("smith", 10)).containsExactly(1L, 2L);
+
+        assertThat(tree.remove("smith john", 1L)).isTrue();
+        assertThat(collect("smith", 10)).containsExactly(2L);
+        assertThat(collect("smithers", 10)).containsExactly(2L);
+
+        assertThat(tree.remove("smithers waylon", 2L)).isTrue();
+        assertThat(collect("", 10)).isEmpty();
+        assertThat(tree.size()).isZero();
+    }
+
+    @Test
+    void testMatchesAListOfKeysSortedByLength() {
+        Random random = new Random(42);
+        List<String> keys = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            String key = randomKey(random);
+            keys.add(key);
+            tree.add(key, id);
+        }
+        for (long id = 0; id < 2000; id += 3) {
+            assertThat(tree.remove(keys.get((int) id), id)).isTrue();
+        }
+
+        for (String prefix : List.of("a", "ab", "ba", "cab", "abc", "c", "bbb")) {
+            List<String> expected = new ArrayList<>();
+            for (int id = 0; id < keys.size(); id++) {
+                if (id % 3 != 0 && keys.get(id).startsWith(prefix)) {
+                    expected.add(keys.get(id));
+                }
+            }
+            List<String> collected = new ArrayList<>();
+            collect(prefix, Integer.MAX_VALUE).forEach(id -> collected.add(keys.get(id.intValue())));
+
+            assertThat(collected).containsExactlyInAnyOrderElementsOf(expected);
+            List<String> sorted = new ArrayList<>(collected);
+            sorted.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+            assertThat(collected).isEqualTo(sorted);
+        }
+    }
+
+    private Set<Long> collect(String prefix, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        tree.collect(prefix, limit, ids);
+        return ids;
+    }
+
+    private static String randomKey(Random random) {
+        StringBuilder key = new StringBuilder();
+        int length = 1 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            key.append((char) ('a' + random.nextInt(3)));
+        }
+        return key.toString();
+    }
+}
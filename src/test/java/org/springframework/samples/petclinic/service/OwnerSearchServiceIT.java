@@ -0,0 +1,259 @@
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.config.ApplicationProperties;
+import org.springframework.samples.petclinic.domain.Owner;
+import org.springframework.samples.petclinic.domain.Pet;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.repository.PetRepository;
+import org.springframework.samples.petclinic.service.dto.OwnerDTO;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link OwnerSearchService}, which indexes the owners once their changes are committed, so
+ * the tests are not transactional.
+ */
+@IntegrationTest
+class OwnerSearchServiceIT {
+
+    private static final Duration INDEXING_TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private OwnerSearchService ownerSearchService;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OwnerChangeConsumer ownerChangeConsumer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Owner owner;
+
+    private Pet pet;
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = ownerRepository.save(
+                new Owner()
+                    .firstName("Catherine")
+                    .lastName("Quillfeather")
+                    .email("catherine.quillfeather@example.com")
+                    .city("Madison")
+                    .telephone("608-555-1023")
+            );
+            pet = petRepository.save(new Pet().name("Bartholomew").owner(owner));
+        });
+        awaitIndexing();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            petRepository.findAll().stream().filter(pet -> owner.getId().equals(idOf(pet.getOwner()))).forEach(petRepository::delete);
+            ownerRepository.deleteById(owner.getId());
+        });
+        awaitIndexing();
+    }
+
+    @Test
+    void searchesByPrefix() {
+        assertThat(searchIds("quill")).containsExactly(owner.getId());
+        assertThat(searchIds("cath quill")).containsExactly(owner.getId());
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertThat(searchIds("Quilfeather")).containsExactly(owner.getId());
+    }
+
+    @Test
+    void matchesNamesWhichSoundAlike() {
+        assertThat(searchIds("Kathryn Quillfeather")).containsExactly(owner.getId());
+    }
+
+    @Test
+    void searchesByTelephoneEmailAndPetName() {
+        assertThat(searchIds("608 555 10")).containsExactly(owner.getId());
+        assertThat(searchIds("catherine.quillfeather@ex")).containsExactly(owner.getId());
+        assertThat(searchIds("bartholomew")).containsExactly(owner.getId());
+    }
+
+    @Test
+    void returnsTheOwnersAsIndexed() {
+        List<OwnerDTO> owners = ownerSearchService.search("quillfeather", PageRequest.of(0, 20)).getContent();
+
+        assertThat(owners).singleElement().satisfies(ownerDTO -> {
+            assertThat(ownerDTO.getFirstName()).isEqualTo("Catherine");
+            assertThat(ownerDTO.getTelephone()).isEqualTo("608-555-1023");
+            assertThat(ownerDTO.getVersion()).isEqualTo(owner.getVersion());
+        });
+    }
+
+    @Test
+    void indexesTheCommittedChanges() {
+        transactionTemplate.executeWithoutResult(status ->
+            ownerRepository.findById(owner.getId()).ifPresent(found -> found.setLastName("Inkwhistle"))
+        );
+        awaitIndexing();
+
+        assertThat(searchIds("quillfeather")).isEmpty();
+        assertThat(searchIds("inkwhistle")).containsExactly(owner.getId());
+    }
+
+    @Test
+    void indexesTheChangesOfThePets() {
+        transactionTemplate.executeWithoutResult(status ->
+            petRepository.findAll().stream().filter(pet -> "Bartholomew".equals(pet.getName())).forEach(pet -> pet.setName("Marmaduke"))
+        );
+        awaitIndexing();
+
+        assertThat(searchIds("bartholomew")).isEmpty();
+        assertThat(searchIds("marmaduke")).containsExactly(owner.getId());
+    }
+
+    @Test
+    void ignoresTheRolledBackChanges() {
+        transactionTemplate.executeWithoutResult(status -> {
+            ownerRepository.findById(owner.getId()).ifPresent(found -> found.setLastName("Inkwhistle"));
+            ownerRepository.flush();
+            status.setRollbackOnly();
+        });
+        awaitIndexing();
+
+        assertThat(searchIds("quillfeather")).containsExactly(owner.getId());
+        assertThat(searchIds("inkwhistle")).isEmpty();
+    }
+
+    @Test
+    void removesTheDeletedOwners() {
+        cleanup();
+
+        assertThat(searchIds("quillfeather")).isEmpty();
+    }
+
+    @Test
+    void indexesTheChangesOfTheOtherNodes() {
+        // Committed by another node, which this node only knows from its outbox events
+        jdbcTemplate.update("update owner set last_name = 'Inkwhistle', version = version + 1 where id = ?", owner.getId());
+        jdbcTemplate.update("delete from pet where id = ?", pet.getId());
+        entityManagerFactory.getCache().evictAll();
+
+        String ownerJson = String.format(
+            "{\"id\":%d,\"firstName\":\"Catherine\",\"lastName\":\"Inkwhistle\",\"version\":%d}",
+            owner.getId(),
+            owner.getVersion() + 1
+        );
+        ownerChangeConsumer.accept(event(OwnerChangeConsumer.OWNER_AGGREGATE_TYPE, "UPDATED", ownerJson));
+        ownerChangeConsumer.accept(event(OwnerChangeConsumer.PET_AGGREGATE_TYPE, "DELETED", "{\"id\":" + pet.getId() + "}"));
+        awaitIndexing();
+
+        assertThat(searchIds("inkwhistle")).containsExactly(owner.getId());
+        assertThat(searchIds("quillfeather")).isEmpty();
+        assertThat(searchIds("bartholomew")).isEmpty();
+    }
+
+    @Test
+    void reindexesTheChangesMissedWhileStopped(@TempDir Path indexDirectory) throws Exception {
+        OwnerSearchService stopped = openIndex(indexDirectory);
+        stopped.onApplicationReady();
+        assertThat(stopped.awaitIndexing(INDEXING_TIMEOUT)).isTrue();
+        stopped.destroy();
+        transactionTemplate.executeWithoutResult(status ->
+            ownerRepository.findById(owner.getId()).ifPresent(found -> found.setLastName("Inkwhistle"))
+        );
+
+        OwnerSearchService restarted = openIndex(indexDirectory);
+        try {
+            // Searchable as persisted, until the background reindex is done
+            assertThat(searchIds(restarted, "quillfeather")).containsExactly(owner.getId());
+            restarted.onApplicationReady();
+            assertThat(restarted.awaitIndexing(INDEXING_TIMEOUT)).isTrue();
+
+            assertThat(searchIds(restarted, "quillfeather")).isEmpty();
+            assertThat(searchIds(restarted, "inkwhistle")).containsExactly(owner.getId());
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    @Test
+    void ignoresBlankQueries() {
+        assertThat(searchIds(" ")).isEmpty();
+    }
+
+    private List<Long> searchIds(String query) {
+        return searchIds(ownerSearchService, query);
+    }
+
+    private static List<Long> searchIds(OwnerSearchService searchService, String query) {
+        List<Long> ids = new ArrayList<>();
+        searchService.search(query, PageRequest.of(0, 20)).forEach(ownerDTO -> ids.add(ownerDTO.getId()));
+        return ids;
+    }
+
+    /**
+     * Open the index of another node, kept in a directory.
+     */
+    private OwnerSearchService openIndex(Path indexDirectory) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSearch().setIndexDirectory(indexDirectory.toString());
+        OwnerSearchService searchService = new OwnerSearchService(
+            ownerRepository,
+            applicationProperties,
+            transactionManager,
+            entityManagerFactory,
+            new SimpleMeterRegistry()
+        );
+        return searchService;
+    }
+
+    private static Message<byte[]> event(String aggregateType, String eventType, String payload) {
+        return MessageBuilder.withPayload(payload.getBytes(StandardCharsets.UTF_8))
+            .setHeader(OutboxRelayService.AGGREGATE_TYPE_HEADER, aggregateType)
+            .setHeader(OutboxRelayService.EVENT_TYPE_HEADER, eventType)
+            .build();
+    }
+
+    private void awaitIndexing() {
+        assertThat(ownerSearchService.awaitIndexing(INDEXING_TIMEOUT)).isTrue();
+    }
+
+    private static Long idOf(Owner owner) {
+        return owner != null ? owner.getId() : null;
+    }
+}
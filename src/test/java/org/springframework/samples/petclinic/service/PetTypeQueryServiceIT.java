@@ -0,0 +1,84 @@
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.service.criteria.PetTypeCriteria;
+import org.springframework.samples.petclinic.service.dto.PetTypeDTO;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the query cache of {@link PetTypeQueryService}, which the test profiles disable.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+class PetTypeQueryServiceIT {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20, Sort.by("id"));
+
+    @Autowired
+    private PetTypeQueryService petTypeQueryService;
+
+    @Autowired
+    private PetTypeService petTypeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private PetTypeDTO created;
+
+    @BeforeEach
+    public void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (created != null) {
+            petTypeService.delete(created.getId());
+        }
+    }
+
+    @Test
+    void repeatedQueriesAreServedFromTheQueryCache() {
+        petTypeQueryService.findByCriteria(new PetTypeCriteria(), FIRST_PAGE);
+        petTypeQueryService.countByCriteria(new PetTypeCriteria());
+        long executions = statistics.getQueryExecutionCount();
+
+        petTypeQueryService.findByCriteria(new PetTypeCriteria(), FIRST_PAGE);
+        petTypeQueryService.countByCriteria(new PetTypeCriteria());
+
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(executions);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void writesInvalidateTheQueryCache() {
+        long count = petTypeQueryService.countByCriteria(new PetTypeCriteria());
+
+        PetTypeDTO petTypeDTO = new PetTypeDTO();
+        petTypeDTO.setName("query-cache-test");
+        created = petTypeService.save(petTypeDTO);
+
+        assertThat(petTypeQueryService.countByCriteria(new PetTypeCriteria())).isEqualTo(count + 1);
+    }
+}
@@ -0,0 +1,93 @@
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.domain.Pet;
+import org.springframework.samples.petclinic.repository.PetRepository;
+import org.springframework.samples.petclinic.repository.VisitRepository;
+import org.springframework.samples.petclinic.service.dto.BulkResultDTO;
+import org.springframework.samples.petclinic.service.dto.PetDTO;
+import org.springframework.samples.petclinic.service.dto.VisitDTO;
+
+/**
+ * Integration tests for {@link VisitBulkService}. They are not transactional, so that each chunk is committed on its own.
+ */
+@IntegrationTest
+class VisitBulkServiceIT {
+
+    private static final LocalDate DATE = LocalDate.of(2998, 1, 1);
+
+    @Autowired
+    private VisitBulkService visitBulkService;
+
+    @Autowired
+    private VisitRepository visitRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    private Pet pet;
+
+    private final List<Long> createdVisitIds = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        pet = petRepository.saveAndFlush(new Pet().name("AAAAAAAAAA"));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        visitRepository.deleteAllById(createdVisitIds);
+        petRepository.deleteById(pet.getId());
+    }
+
+    @Test
+    void commitsTheOtherChunksWhenOneFails() {
+        int size = 2 * VisitBulkService.CHUNK_SIZE + 1;
+        int failing = VisitBulkService.CHUNK_SIZE + 7;
+        List<VisitDTO> visitDTOs = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            // A pet which does not exist fails the foreign key, and with it the whole second chunk
+            visitDTOs.add(visitDTO(index == failing ? Long.MAX_VALUE : pet.getId()));
+        }
+        long countBefore = visitRepository.count();
+
+        List<BulkResultDTO> results = visitBulkService.createAll(visitDTOs);
+        results.stream().map(BulkResultDTO::getId).filter(Objects::nonNull).forEach(createdVisitIds::add);
+
+        assertThat(results).hasSize(size);
+        for (int index = 0; index < size; index++) {
+            BulkResultDTO result = results.get(index);
+            assertThat(result.getIndex()).isEqualTo(index);
+            if (index == failing) {
+                assertThat(result.getStatus()).isEqualTo(BulkResultDTO.Status.FAILED);
+                assertThat(result.getError()).isEqualTo("dataintegrity");
+                assertThat(result.getId()).isNull();
+            } else {
+                assertThat(result.getStatus()).isEqualTo(BulkResultDTO.Status.CREATED);
+                assertThat(result.getId()).isNotNull();
+            }
+        }
+        assertThat(createdVisitIds).doesNotHaveDuplicates().hasSize(size - 1);
+        assertThat(visitRepository.findAllById(createdVisitIds)).hasSize(size - 1);
+        assertThat(visitRepository.count()).isEqualTo(countBefore + size - 1);
+    }
+
+    private VisitDTO visitDTO(Long petId) {
+        PetDTO petDTO = new PetDTO();
+        petDTO.setId(petId);
+        VisitDTO visitDTO = new VisitDTO();
+        visitDTO.setDate(DATE);
+        visitDTO.setPet(petDTO);
+        return visitDTO;
+    }
+}
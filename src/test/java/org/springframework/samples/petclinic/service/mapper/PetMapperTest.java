@@ -1,8 +1,10 @@
 package org.springframework.samples.petclinic.service.mapper;
 
+import static org.mockito.Mockito.mock;
 import static org.springframework.samples.petclinic.domain.PetAsserts.*;
 import static org.springframework.samples.petclinic.domain.PetTestSamples.*;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,7 +14,7 @@ class PetMapperTest {
 
     @BeforeEach
     void setUp() {
-        petMapper = new PetMapperImpl();
+        petMapper = new PetMapperImpl(new EntityReferenceMapper(mock(EntityManager.class)));
     }
 
     @Test
@@ -1,8 +1,10 @@
 package org.springframework.samples.petclinic.service.mapper;
 
+import static org.mockito.Mockito.mock;
 import static org.springframework.samples.petclinic.domain.VetAsserts.*;
 import static org.springframework.samples.petclinic.domain.VetTestSamples.*;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,7 +14,7 @@ class VetMapperTest {
 
     @BeforeEach
     void setUp() {
-        vetMapper = new VetMapperImpl();
+        vetMapper = new VetMapperImpl(new EntityReferenceMapper(mock(EntityManager.class)));
     }
 
     @Test
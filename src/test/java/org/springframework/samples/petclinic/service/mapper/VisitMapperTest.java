@@ -1,8 +1,10 @@
 package org.springframework.samples.petclinic.service.mapper;
 
+import static org.mockito.Mockito.mock;
 import static org.springframework.samples.petclinic.domain.VisitAsserts.*;
 import static org.springframework.samples.petclinic.domain.VisitTestSamples.*;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,7 +14,7 @@ class VisitMapperTest {
 
     @BeforeEach
     void setUp() {
-        visitMapper = new VisitMapperImpl();
+        visitMapper = new VisitMapperImpl(new EntityReferenceMapper(mock(EntityManager.class)));
     }
 
     @Test
@@ -0,0 +1,65 @@
+package org.springframework.samples.petclinic.web.rest;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.domain.User;
+import org.springframework.samples.petclinic.repository.UserRepository;
+import org.springframework.samples.petclinic.security.AuthoritiesConstants;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link MailCampaignResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class MailCampaignResourceIT {
+
+    private static final String MAIL_API_URL = "/api/admin/mail";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restMailCampaignMockMvc;
+
+    @Test
+    @Transactional
+    void queueActivationReminders() throws Exception {
+        User user = UserResourceIT.createEntity(em);
+        user.setActivated(false);
+        user.setActivationKey("reminderkey");
+        userRepository.saveAndFlush(user);
+
+        restMailCampaignMockMvc
+            .perform(post(MAIL_API_URL + "/activation-reminders"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    void requeueDeadLetters() throws Exception {
+        restMailCampaignMockMvc
+            .perform(post(MAIL_API_URL + "/dead-letters/requeue"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(greaterThanOrEqualTo(0)));
+    }
+
+    @Test
+    @WithMockUser
+    void queueActivationRemindersIsForbiddenToUsers() throws Exception {
+        restMailCampaignMockMvc.perform(post(MAIL_API_URL + "/activation-reminders")).andExpect(status().isForbidden());
+    }
+}
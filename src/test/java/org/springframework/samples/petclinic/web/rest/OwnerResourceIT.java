@@ -15,6 +15,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.IntegrationTest;
 import org.springframework.samples.petclinic.domain.Owner;
@@ -227,6 +228,52 @@ class OwnerResourceIT {
             .andExpect(jsonPath("$.telephone").value(DEFAULT_TELEPHONE));
     }
 
+    @Test
+    @Transactional
+    void getOwnerNotModified() throws Exception {
+        // Initialize the database
+        ownerRepository.saveAndFlush(owner);
+
+        String etag = restOwnerMockMvc
+            .perform(get(ENTITY_API_URL_ID, owner.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + owner.getVersion() + "\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL_ID, owner.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getAllOwnersNotModified() throws Exception {
+        // Initialize the database
+        ownerRepository.saveAndFlush(owner);
+
+        String etag = restOwnerMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        // Updating an owner of the page changes the ETag
+        ownerRepository.saveAndFlush(owner.firstName(UPDATED_FIRST_NAME));
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
     @Test
     @Transactional
     void getOwnersByIdFiltering() throws Exception {
@@ -629,6 +676,30 @@ class OwnerResourceIT {
         assertPersistedOwnerToMatchAllProperties(updatedOwner);
     }
 
+    @Test
+    @Transactional
+    void putOwnerWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        ownerRepository.saveAndFlush(owner);
+        String staleEtag = "\"" + owner.getVersion() + "\"";
+        ownerRepository.saveAndFlush(owner.firstName(UPDATED_FIRST_NAME));
+
+        OwnerDTO ownerDTO = ownerMapper.toDto(owner);
+        ownerDTO.setLastName(UPDATED_LAST_NAME);
+
+        restOwnerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, ownerDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(ownerDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Owner in the database
+        assertThat(ownerRepository.findById(owner.getId()).orElseThrow().getLastName()).isEqualTo(DEFAULT_LAST_NAME);
+    }
+
     @Test
     @Transactional
     void putNonExistingOwner() throws Exception {
@@ -751,6 +822,56 @@ class OwnerResourceIT {
         assertOwnerUpdatableFieldsEquals(partialUpdatedOwner, getPersistedOwner(partialUpdatedOwner));
     }
 
+    @Test
+    @Transactional
+    void patchOwnerWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        ownerRepository.saveAndFlush(owner);
+        String staleEtag = "\"" + owner.getVersion() + "\"";
+        ownerRepository.saveAndFlush(owner.firstName(UPDATED_FIRST_NAME));
+
+        Owner partialUpdatedOwner = new Owner();
+        partialUpdatedOwner.setId(owner.getId());
+        partialUpdatedOwner.lastName(UPDATED_LAST_NAME);
+
+        restOwnerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedOwner.getId())
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedOwner))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Owner in the database
+        assertThat(ownerRepository.findById(owner.getId()).orElseThrow().getLastName()).isEqualTo(DEFAULT_LAST_NAME);
+    }
+
+    @Test
+    @Transactional
+    void patchOwnerWithStaleVersion() throws Exception {
+        // Initialize the database
+        ownerRepository.saveAndFlush(owner);
+        Long staleVersion = owner.getVersion();
+        ownerRepository.saveAndFlush(owner.firstName(UPDATED_FIRST_NAME));
+
+        OwnerDTO partialUpdatedOwnerDTO = new OwnerDTO();
+        partialUpdatedOwnerDTO.setId(owner.getId());
+        partialUpdatedOwnerDTO.setLastName(UPDATED_LAST_NAME);
+        partialUpdatedOwnerDTO.setVersion(staleVersion);
+
+        restOwnerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedOwnerDTO.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedOwnerDTO))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Owner in the database
+        assertThat(ownerRepository.findById(owner.getId()).orElseThrow().getLastName()).isEqualTo(DEFAULT_LAST_NAME);
+    }
+
     @Test
     @Transactional
     void patchNonExistingOwner() throws Exception {
@@ -830,6 +951,63 @@ class OwnerResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    @Test
+    void autocompleteOwners() throws Exception {
+        // Not transactional, the suggestions change once the owner changes are committed
+        OwnerDTO ownerDTO = ownerMapper.toDto(new Owner().firstName("Ermengarde").lastName("Pennywhistle").telephone("608-555-0199"));
+        OwnerDTO createdOwnerDTO = om.readValue(
+            restOwnerMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(ownerDTO)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            OwnerDTO.class
+        );
+        try {
+            restOwnerMockMvc
+                .perform(get(ENTITY_API_URL + "/_autocomplete?prefix=PENNYwh"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(createdOwnerDTO.getId().intValue())))
+                .andExpect(jsonPath("$.[*].firstName").value(hasItem("Ermengarde")))
+                .andExpect(jsonPath("$.[*].telephone").value(hasItem("608-555-0199")));
+            restOwnerMockMvc
+                .perform(get(ENTITY_API_URL + "/_autocomplete?prefix=Ermengarde Pen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(createdOwnerDTO.getId().intValue())));
+            restOwnerMockMvc
+                .perform(get(ENTITY_API_URL + "/_autocomplete?prefix=(608) 555-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(createdOwnerDTO.getId().intValue())));
+
+            createdOwnerDTO.setLastName("Quillsworth");
+            restOwnerMockMvc
+                .perform(
+                    put(ENTITY_API_URL_ID, createdOwnerDTO.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(createdOwnerDTO))
+                )
+                .andExpect(status().isOk());
+
+            restOwnerMockMvc
+                .perform(get(ENTITY_API_URL + "/_autocomplete?prefix=pennywhistle"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[?(@.id == %d)]", createdOwnerDTO.getId()).doesNotExist());
+            restOwnerMockMvc
+                .perform(get(ENTITY_API_URL + "/_autocomplete?prefix=quillsw"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(createdOwnerDTO.getId().intValue())));
+        } finally {
+            restOwnerMockMvc.perform(delete(ENTITY_API_URL_ID, createdOwnerDTO.getId())).andExpect(status().isNoContent());
+        }
+
+        restOwnerMockMvc
+            .perform(get(ENTITY_API_URL + "/_autocomplete?prefix=quillsw"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == %d)]", createdOwnerDTO.getId()).doesNotExist());
+    }
+
     protected long getRepositoryCount() {
         return ownerRepository.count();
     }
@@ -0,0 +1,75 @@
+package org.springframework.samples.petclinic.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.domain.Owner;
+import org.springframework.samples.petclinic.repository.OwnerRepository;
+import org.springframework.samples.petclinic.service.OwnerSearchService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link OwnerSearchResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class OwnerSearchResourceIT {
+
+    private static final String ENTITY_SEARCH_API_URL = "/api/_search/owners";
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private OwnerSearchService ownerSearchService;
+
+    @Autowired
+    private MockMvc restOwnerMockMvc;
+
+    private Owner owner;
+
+    @BeforeEach
+    public void initTest() {
+        owner = ownerRepository.save(new Owner().firstName("Ambrose").lastName("Thistlewood").city("Sun Prairie"));
+        assertThat(ownerSearchService.awaitIndexing(Duration.ofSeconds(10))).isTrue();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ownerRepository.deleteById(owner.getId());
+        assertThat(ownerSearchService.awaitIndexing(Duration.ofSeconds(10))).isTrue();
+    }
+
+    @Test
+    void searchOwners() throws Exception {
+        restOwnerMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=thistle&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(owner.getId().intValue()))
+            .andExpect(jsonPath("$.[0].lastName").value("Thistlewood"))
+            .andExpect(jsonPath("$.[0].city").value("Sun Prairie"));
+    }
+
+    @Test
+    void searchOwnersWithoutMatch() throws Exception {
+        restOwnerMockMvc
+            .perform(get(ENTITY_SEARCH_API_URL + "?query=zzyzx"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.cloud.stream.binder.test.InputDestination;
 import org.springframework.cloud.stream.binder.test.OutputDestination;
 import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.http.MediaType;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.GenericMessage;
@@ -47,6 +48,38 @@ class PetClinicKafkaResourceIT {
         assertThat(output.receive(1000, "binding-out-0").getPayload()).isEqualTo("value-produce".getBytes());
     }
 
+    @Test
+    void producesBatchOfJsonMessages() throws Exception {
+        restMockMvc
+            .perform(post("/api/pet-clinic-kafka/publish/batch").contentType(MediaType.APPLICATION_JSON).content("[\"value-1\",{\"a\":1}]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.received").value(2))
+            .andExpect(jsonPath("$.accepted").value(2))
+            .andExpect(jsonPath("$.rejected").value(0));
+        assertThat(output.receive(1000, "binding-out-0").getPayload()).isEqualTo("value-1".getBytes());
+        assertThat(output.receive(1000, "binding-out-0").getPayload()).isEqualTo("{\"a\":1}".getBytes());
+    }
+
+    @Test
+    void producesBatchOfNdjsonMessages() throws Exception {
+        restMockMvc
+            .perform(
+                post("/api/pet-clinic-kafka/publish/batch").contentType(MediaType.APPLICATION_NDJSON).content("\"value-1\"\n\"value-2\"\n")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.received").value(2))
+            .andExpect(jsonPath("$.accepted").value(2));
+        assertThat(output.receive(1000, "binding-out-0").getPayload()).isEqualTo("value-1".getBytes());
+        assertThat(output.receive(1000, "binding-out-0").getPayload()).isEqualTo("value-2".getBytes());
+    }
+
+    @Test
+    void rejectsInvalidNdjsonBatch() throws Exception {
+        restMockMvc
+            .perform(post("/api/pet-clinic-kafka/publish/batch").contentType(MediaType.APPLICATION_NDJSON).content("{not json"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void producesPooledMessages() throws Exception {
         assertThat(output.receive(1500, "kafkaProducer-out-0").getPayload()).isEqualTo("kakfa_producer".getBytes());
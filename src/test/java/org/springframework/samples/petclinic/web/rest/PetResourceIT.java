@@ -1,6 +1,7 @@
 package org.springframework.samples.petclinic.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.samples.petclinic.domain.PetAsserts.*;
 import static org.springframework.samples.petclinic.web.rest.TestUtil.createUpdateProxyForBean;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.IntegrationTest;
 import org.springframework.samples.petclinic.domain.Owner;
@@ -25,6 +27,7 @@ import org.springframework.samples.petclinic.domain.PetType;
 import org.springframework.samples.petclinic.repository.PetRepository;
 import org.springframework.samples.petclinic.service.dto.PetDTO;
 import org.springframework.samples.petclinic.service.mapper.PetMapper;
+import org.springframework.samples.petclinic.web.rest.util.KeysetPaginationUtil;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -167,6 +170,56 @@ class PetResourceIT {
             .andExpect(jsonPath("$.[*].birthDate").value(hasItem(DEFAULT_BIRTH_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllPetsWithOwnerId() throws Exception {
+        // Initialize the database
+        Owner owner = OwnerResourceIT.createEntity(em);
+        em.persist(owner);
+        pet.setOwner(owner);
+        petRepository.saveAndFlush(pet);
+
+        // Get all the petList, with the id of the owner read without loading it
+        restPetMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&id.equals=" + pet.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(pet.getId().intValue())))
+            .andExpect(jsonPath("$.[*].owner.id").value(contains(owner.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllPetsAfterCursor() throws Exception {
+        // Initialize the database
+        petRepository.saveAndFlush(pet);
+        Pet nextPet = petRepository.saveAndFlush(createEntity(em));
+
+        // Get the first slice, seeking right before the initialized pet
+        String nextCursor = restPetMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPaginationUtil.encodeCursor(pet.getId() - 1) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(pet.getId().intValue())))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn()
+            .getResponse()
+            .getHeader(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+
+        // Get the next slice, which is the last one
+        restPetMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + nextCursor + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(nextPet.getId().intValue())))
+            .andExpect(header().doesNotExist(KeysetPaginationUtil.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @Transactional
+    void getAllPetsWithInvalidCursor() throws Exception {
+        restPetMockMvc.perform(get(ENTITY_API_URL + "?after=invalid")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getPet() throws Exception {
@@ -183,6 +236,27 @@ class PetResourceIT {
             .andExpect(jsonPath("$.birthDate").value(DEFAULT_BIRTH_DATE.toString()));
     }
 
+    @Test
+    @Transactional
+    void getPetNotModified() throws Exception {
+        // Initialize the database
+        petRepository.saveAndFlush(pet);
+
+        String etag = restPetMockMvc
+            .perform(get(ENTITY_API_URL_ID, pet.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + pet.getVersion() + "\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restPetMockMvc
+            .perform(get(ENTITY_API_URL_ID, pet.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
     @Test
     @Transactional
     void getPetsByIdFiltering() throws Exception {
@@ -551,6 +625,80 @@ class PetResourceIT {
         assertPetUpdatableFieldsEquals(partialUpdatedPet, getPersistedPet(partialUpdatedPet));
     }
 
+    @Test
+    @Transactional
+    void putPetWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        petRepository.saveAndFlush(pet);
+        String staleEtag = "\"" + pet.getVersion() + "\"";
+        petRepository.saveAndFlush(pet.birthDate(UPDATED_BIRTH_DATE));
+
+        PetDTO petDTO = petMapper.toDto(pet);
+        petDTO.setName(UPDATED_NAME);
+
+        restPetMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, petDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(petDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Pet in the database
+        assertThat(petRepository.findById(pet.getId()).orElseThrow().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
+    @Test
+    @Transactional
+    void patchPetWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        petRepository.saveAndFlush(pet);
+        String staleEtag = "\"" + pet.getVersion() + "\"";
+        petRepository.saveAndFlush(pet.birthDate(UPDATED_BIRTH_DATE));
+
+        Pet partialUpdatedPet = new Pet();
+        partialUpdatedPet.setId(pet.getId());
+        partialUpdatedPet.name(UPDATED_NAME);
+
+        restPetMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedPet.getId())
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedPet))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Pet in the database
+        assertThat(petRepository.findById(pet.getId()).orElseThrow().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
+    @Test
+    @Transactional
+    void patchPetWithStaleVersion() throws Exception {
+        // Initialize the database
+        petRepository.saveAndFlush(pet);
+        Long staleVersion = pet.getVersion();
+        petRepository.saveAndFlush(pet.birthDate(UPDATED_BIRTH_DATE));
+
+        PetDTO partialUpdatedPetDTO = new PetDTO();
+        partialUpdatedPetDTO.setId(pet.getId());
+        partialUpdatedPetDTO.setName(UPDATED_NAME);
+        partialUpdatedPetDTO.setVersion(staleVersion);
+
+        restPetMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedPetDTO.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedPetDTO))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Pet in the database
+        assertThat(petRepository.findById(pet.getId()).orElseThrow().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
     @Test
     @Transactional
     void patchNonExistingPet() throws Exception {
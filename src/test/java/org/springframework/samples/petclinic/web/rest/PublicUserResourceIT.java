@@ -15,6 +15,7 @@ import org.springframework.samples.petclinic.IntegrationTest;
 import org.springframework.samples.petclinic.domain.User;
 import org.springframework.samples.petclinic.repository.UserRepository;
 import org.springframework.samples.petclinic.security.AuthoritiesConstants;
+import org.springframework.samples.petclinic.security.PrincipalCache;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,8 +46,7 @@ class PublicUserResourceIT {
 
     @BeforeEach
     public void setup() {
-        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
-        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).clear();
+        cacheManager.getCache(PrincipalCache.PRINCIPALS_CACHE).clear();
     }
 
     @BeforeEach
@@ -2,6 +2,8 @@ package org.springframework.samples.petclinic.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.samples.petclinic.domain.SpecialityAsserts.*;
 import static org.springframework.samples.petclinic.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.IntegrationTest;
 import org.springframework.samples.petclinic.domain.Speciality;
@@ -174,6 +177,36 @@ class SpecialityResourceIT {
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME));
     }
 
+    @Test
+    @Transactional
+    void getSpecialityNotModified() throws Exception {
+        // Initialize the database
+        specialityRepository.saveAndFlush(speciality);
+
+        String etag = restSpecialityMockMvc
+            .perform(get(ENTITY_API_URL_ID, speciality.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"" + speciality.getVersion() + "-")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restSpecialityMockMvc
+            .perform(get(ENTITY_API_URL_ID, speciality.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        // Adding a vet does not increment the version of the speciality, but changes its ETag
+        Vet vet = VetResourceIT.createEntity(em);
+        em.persist(vet);
+        speciality.addVet(vet);
+        em.flush();
+        restSpecialityMockMvc
+            .perform(get(ENTITY_API_URL_ID, speciality.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
     @Test
     @Transactional
     void getSpecialitiesByIdFiltering() throws Exception {
@@ -458,6 +491,80 @@ class SpecialityResourceIT {
         assertSpecialityUpdatableFieldsEquals(partialUpdatedSpeciality, getPersistedSpeciality(partialUpdatedSpeciality));
     }
 
+    @Test
+    @Transactional
+    void putSpecialityWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        specialityRepository.saveAndFlush(speciality);
+        String staleEtag = "\"" + speciality.getVersion() + "\"";
+        specialityRepository.saveAndFlush(speciality.name("CCCCCCCCCC"));
+
+        SpecialityDTO specialityDTO = specialityMapper.toDto(speciality);
+        specialityDTO.setName(UPDATED_NAME);
+
+        restSpecialityMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, specialityDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(specialityDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Speciality in the database
+        assertThat(specialityRepository.findById(speciality.getId()).orElseThrow().getName()).isEqualTo("CCCCCCCCCC");
+    }
+
+    @Test
+    @Transactional
+    void patchSpecialityWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        specialityRepository.saveAndFlush(speciality);
+        String staleEtag = "\"" + speciality.getVersion() + "\"";
+        specialityRepository.saveAndFlush(speciality.name("CCCCCCCCCC"));
+
+        Speciality partialUpdatedSpeciality = new Speciality();
+        partialUpdatedSpeciality.setId(speciality.getId());
+        partialUpdatedSpeciality.name(UPDATED_NAME);
+
+        restSpecialityMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedSpeciality.getId())
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedSpeciality))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Speciality in the database
+        assertThat(specialityRepository.findById(speciality.getId()).orElseThrow().getName()).isEqualTo("CCCCCCCCCC");
+    }
+
+    @Test
+    @Transactional
+    void patchSpecialityWithStaleVersion() throws Exception {
+        // Initialize the database
+        specialityRepository.saveAndFlush(speciality);
+        Long staleVersion = speciality.getVersion();
+        specialityRepository.saveAndFlush(speciality.name("CCCCCCCCCC"));
+
+        SpecialityDTO partialUpdatedSpecialityDTO = new SpecialityDTO();
+        partialUpdatedSpecialityDTO.setId(speciality.getId());
+        partialUpdatedSpecialityDTO.setName(UPDATED_NAME);
+        partialUpdatedSpecialityDTO.setVersion(staleVersion);
+
+        restSpecialityMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedSpecialityDTO.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedSpecialityDTO))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Speciality in the database
+        assertThat(specialityRepository.findById(speciality.getId()).orElseThrow().getName()).isEqualTo("CCCCCCCCCC");
+    }
+
     @Test
     @Transactional
     void patchNonExistingSpeciality() throws Exception {
@@ -1,6 +1,8 @@
 package org.springframework.samples.petclinic.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.samples.petclinic.domain.VisitAsserts.*;
 import static org.springframework.samples.petclinic.web.rest.TestUtil.createUpdateProxyForBean;
@@ -8,15 +10,18 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.persistence.EntityManager;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.samples.petclinic.IntegrationTest;
 import org.springframework.samples.petclinic.domain.Pet;
@@ -25,8 +30,10 @@ import org.springframework.samples.petclinic.domain.Visit;
 import org.springframework.samples.petclinic.repository.VisitRepository;
 import org.springframework.samples.petclinic.service.dto.VisitDTO;
 import org.springframework.samples.petclinic.service.mapper.VisitMapper;
+import org.springframework.samples.petclinic.web.rest.util.KeysetPaginationUtil;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -113,6 +120,62 @@ class VisitResourceIT {
         assertVisitUpdatableFieldsEquals(returnedVisit, getPersistedVisit(returnedVisit));
     }
 
+    @Test
+    @Transactional
+    void createVisitsInBulk() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        // Create a valid Visit and one with an existing ID
+        VisitDTO visitDTO = visitMapper.toDto(visit);
+        VisitDTO visitDTOWithId = visitMapper.toDto(createEntity(em));
+        visitDTOWithId.setId(1L);
+
+        restVisitMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(visitDTO, visitDTOWithId)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value("FAILED"))
+            .andExpect(jsonPath("$.[1].error").value("idexists"));
+
+        // Validate that only the valid Visit is in the database
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void updateVisitsInBulk() throws Exception {
+        // Initialize the database
+        visitRepository.saveAndFlush(visit);
+
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+
+        // Update the existing Visit, and one that does not exist
+        VisitDTO visitDTO = visitMapper.toDto(createUpdatedEntity(em));
+        visitDTO.setId(visit.getId());
+        VisitDTO unknownVisitDTO = visitMapper.toDto(createUpdatedEntity(em));
+        unknownVisitDTO.setId(longCount.incrementAndGet());
+
+        restVisitMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(visitDTO, unknownVisitDTO)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("UPDATED"))
+            .andExpect(jsonPath("$.[0].id").value(visit.getId().intValue()))
+            .andExpect(jsonPath("$.[1].status").value("FAILED"))
+            .andExpect(jsonPath("$.[1].error").value("idnotfound"));
+
+        // Validate the Visit in the database
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+        assertThat(visitRepository.findById(visit.getId()).orElseThrow().getDate()).isEqualTo(UPDATED_DATE);
+    }
+
     @Test
     @Transactional
     void createVisitWithExistingId() throws Exception {
@@ -146,6 +209,39 @@ class VisitResourceIT {
             .andExpect(jsonPath("$.[*].date").value(hasItem(DEFAULT_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllVisitsAfterCursor() throws Exception {
+        // Initialize the database
+        visitRepository.saveAndFlush(visit);
+        Visit nextVisit = visitRepository.saveAndFlush(createEntity(em));
+
+        // Get the first slice, seeking right before the initialized visit
+        String nextCursor = restVisitMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + KeysetPaginationUtil.encodeCursor(visit.getId() - 1) + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(contains(visit.getId().intValue())))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andReturn()
+            .getResponse()
+            .getHeader(KeysetPaginationUtil.NEXT_CURSOR_HEADER);
+
+        // Get the next slice, which is the last one
+        restVisitMockMvc
+            .perform(get(ENTITY_API_URL + "?after=" + nextCursor + "&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(nextVisit.getId().intValue())))
+            .andExpect(header().doesNotExist(KeysetPaginationUtil.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @Transactional
+    void getAllVisitsWithInvalidCursor() throws Exception {
+        restVisitMockMvc.perform(get(ENTITY_API_URL + "?after=invalid")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getVisit() throws Exception {
@@ -161,6 +257,27 @@ class VisitResourceIT {
             .andExpect(jsonPath("$.date").value(DEFAULT_DATE.toString()));
     }
 
+    @Test
+    @Transactional
+    void getVisitNotModified() throws Exception {
+        // Initialize the database
+        visitRepository.saveAndFlush(visit);
+
+        String etag = restVisitMockMvc
+            .perform(get(ENTITY_API_URL_ID, visit.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + visit.getVersion() + "\""))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restVisitMockMvc
+            .perform(get(ENTITY_API_URL_ID, visit.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
     @Test
     @Transactional
     void getVisitsByIdFiltering() throws Exception {
@@ -333,6 +450,28 @@ class VisitResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    void exportVisits() throws Exception {
+        // Initialize the database, outside of a test transaction as the export runs on another thread
+        visitRepository.saveAndFlush(visit);
+
+        try {
+            MvcResult mvcResult = restVisitMockMvc
+                .perform(get(ENTITY_API_URL + "/export?id.equals=" + visit.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+            restVisitMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"id\":" + visit.getId())))
+                .andExpect(content().string(containsString("\"date\":\"" + DEFAULT_DATE + "\"")));
+        } finally {
+            visitRepository.deleteById(visit.getId());
+        }
+    }
+
     @Test
     @Transactional
     void getNonExistingVisit() throws Exception {
@@ -366,6 +505,44 @@ class VisitResourceIT {
         assertPersistedVisitToMatchAllProperties(updatedVisit);
     }
 
+    @Test
+    @Transactional
+    void createAndUpdateVisitWithPetAndVetGivenById() throws Exception {
+        Pet pet = PetResourceIT.createEntity(em);
+        em.persist(pet);
+        Vet vet = VetResourceIT.createEntity(em);
+        em.persist(vet);
+        em.flush();
+
+        // The relationships as sent by the clients, without the versions of the pet and the vet
+        ObjectNode visitJson = om.createObjectNode().put("date", DEFAULT_DATE.toString());
+        visitJson.putObject("pet").put("id", pet.getId());
+        visitJson.putObject("vet").put("id", vet.getId());
+        VisitDTO createdVisitDTO = om.readValue(
+            restVisitMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(visitJson)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            VisitDTO.class
+        );
+
+        visitJson.put("id", createdVisitDTO.getId()).put("version", createdVisitDTO.getVersion()).put("date", UPDATED_DATE.toString());
+        restVisitMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, createdVisitDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(visitJson))
+            )
+            .andExpect(status().isOk());
+
+        Visit persistedVisit = visitRepository.findById(createdVisitDTO.getId()).orElseThrow();
+        assertThat(persistedVisit.getDate()).isEqualTo(UPDATED_DATE);
+        assertThat(persistedVisit.getPet().getId()).isEqualTo(pet.getId());
+        assertThat(persistedVisit.getVet().getId()).isEqualTo(vet.getId());
+    }
+
     @Test
     @Transactional
     void putNonExistingVisit() throws Exception {
@@ -480,6 +657,80 @@ class VisitResourceIT {
         assertVisitUpdatableFieldsEquals(partialUpdatedVisit, getPersistedVisit(partialUpdatedVisit));
     }
 
+    @Test
+    @Transactional
+    void putVisitWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        visitRepository.saveAndFlush(visit);
+        String staleEtag = "\"" + visit.getVersion() + "\"";
+        visitRepository.saveAndFlush(visit.date(SMALLER_DATE));
+
+        VisitDTO visitDTO = visitMapper.toDto(visit);
+        visitDTO.setDate(UPDATED_DATE);
+
+        restVisitMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, visitDTO.getId())
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(visitDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Visit in the database
+        assertThat(visitRepository.findById(visit.getId()).orElseThrow().getDate()).isEqualTo(SMALLER_DATE);
+    }
+
+    @Test
+    @Transactional
+    void patchVisitWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        visitRepository.saveAndFlush(visit);
+        String staleEtag = "\"" + visit.getVersion() + "\"";
+        visitRepository.saveAndFlush(visit.date(SMALLER_DATE));
+
+        Visit partialUpdatedVisit = new Visit();
+        partialUpdatedVisit.setId(visit.getId());
+        partialUpdatedVisit.date(UPDATED_DATE);
+
+        restVisitMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedVisit.getId())
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedVisit))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the Visit in the database
+        assertThat(visitRepository.findById(visit.getId()).orElseThrow().getDate()).isEqualTo(SMALLER_DATE);
+    }
+
+    @Test
+    @Transactional
+    void patchVisitWithStaleVersion() throws Exception {
+        // Initialize the database
+        visitRepository.saveAndFlush(visit);
+        Long staleVersion = visit.getVersion();
+        visitRepository.saveAndFlush(visit.date(SMALLER_DATE));
+
+        VisitDTO partialUpdatedVisitDTO = new VisitDTO();
+        partialUpdatedVisitDTO.setId(visit.getId());
+        partialUpdatedVisitDTO.setDate(UPDATED_DATE);
+        partialUpdatedVisitDTO.setVersion(staleVersion);
+
+        restVisitMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedVisitDTO.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedVisitDTO))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the Visit in the database
+        assertThat(visitRepository.findById(visit.getId()).orElseThrow().getDate()).isEqualTo(SMALLER_DATE);
+    }
+
     @Test
     @Transactional
     void patchNonExistingVisit() throws Exception {
@@ -0,0 +1,218 @@
+package org.springframework.samples.petclinic.web.rest;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.samples.petclinic.IntegrationTest;
+import org.springframework.samples.petclinic.domain.Owner;
+import org.springframework.samples.petclinic.domain.Pet;
+import org.springframework.samples.petclinic.domain.PetType;
+import org.springframework.samples.petclinic.domain.Vet;
+import org.springframework.samples.petclinic.service.VisitService;
+import org.springframework.samples.petclinic.service.VisitStatisticsService;
+import org.springframework.samples.petclinic.service.dto.PetDTO;
+import org.springframework.samples.petclinic.service.dto.VetDTO;
+import org.springframework.samples.petclinic.service.dto.VisitDTO;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link VisitStatisticsResource} REST controller. The visits are in the year 2999, so that
+ * they are counted alone.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class VisitStatisticsResourceIT {
+
+    private static final String STATS_API_URL = "/api/stats/visits";
+
+    private static final LocalDate MONDAY = LocalDate.of(2999, 1, 7);
+
+    private static final String CITY = "Maple Bluff";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private VisitService visitService;
+
+    @Autowired
+    private VisitStatisticsService visitStatisticsService;
+
+    @Autowired
+    private MockMvc restVisitStatisticsMockMvc;
+
+    private Vet vet;
+
+    private Vet otherVet;
+
+    private PetType petType;
+
+    private Pet pet;
+
+    @BeforeEach
+    public void initTest() {
+        vet = VetResourceIT.createEntity(em);
+        em.persist(vet);
+        otherVet = VetResourceIT.createEntity(em);
+        em.persist(otherVet);
+        petType = PetTypeResourceIT.createEntity(em);
+        em.persist(petType);
+        Owner owner = OwnerResourceIT.createEntity(em).city(CITY);
+        em.persist(owner);
+        pet = PetResourceIT.createEntity(em).type(petType).owner(owner);
+        em.persist(pet);
+        em.flush();
+    }
+
+    @Test
+    void countVisitsByVetPerWeek() throws Exception {
+        saveVisit(MONDAY, vet);
+        saveVisit(MONDAY.plusDays(2), vet);
+        saveVisit(MONDAY.plusDays(8), vet);
+        saveVisit(MONDAY.plusDays(8), otherVet);
+
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/vets?from=2999-01-01&to=2999-02-01&period=WEEK"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[?(@.id == %d)].period", vet.getId()).value(contains("2999-01-07", "2999-01-14")))
+            .andExpect(jsonPath("$.[?(@.id == %d)].visits", vet.getId()).value(contains(2, 1)))
+            .andExpect(jsonPath("$.[?(@.id == %d)].name", vet.getId()).value(contains(vetName(vet), vetName(vet))))
+            .andExpect(jsonPath("$.[?(@.id == %d)].visits", otherVet.getId()).value(contains(1)));
+    }
+
+    @Test
+    void countVisitsByPetTypePerMonth() throws Exception {
+        saveVisit(MONDAY, vet);
+        saveVisit(MONDAY.plusMonths(1), otherVet);
+
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/pet-types?from=2999-01-01&to=3000-01-01&period=MONTH"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == %d)].period", petType.getId()).value(contains("2999-01-01", "2999-02-01")))
+            .andExpect(jsonPath("$.[?(@.id == %d)].visits", petType.getId()).value(contains(1, 1)))
+            .andExpect(jsonPath("$.[?(@.id == %d)].name", petType.getId()).value(contains(petType.getName(), petType.getName())));
+    }
+
+    @Test
+    void findBusiestCities() throws Exception {
+        saveVisit(MONDAY, vet);
+        saveVisit(MONDAY.plusDays(1), otherVet);
+
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/cities?from=2999-01-01&to=3000-01-01&size=5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].name").value(CITY))
+            .andExpect(jsonPath("$.[0].visits").value(2));
+    }
+
+    @Test
+    void recountUpdatedAndDeletedVisits() throws Exception {
+        VisitDTO visit = saveVisit(MONDAY, vet);
+        VisitDTO deleted = saveVisit(MONDAY, vet);
+
+        visit.setDate(MONDAY.plusDays(1));
+        visit.setVet(vetDTO(otherVet));
+        visitService.update(visit);
+        visitService.delete(deleted.getId());
+
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/vets?from=2999-01-01&to=2999-02-01&period=DAY"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == %d)]", vet.getId()).doesNotExist())
+            .andExpect(jsonPath("$.[?(@.id == %d)].period", otherVet.getId()).value(contains("2999-01-08")))
+            .andExpect(jsonPath("$.[?(@.id == %d)].visits", otherVet.getId()).value(contains(1)));
+    }
+
+    @Test
+    void rebuildCountsTheVisitsAgain() throws Exception {
+        saveVisit(MONDAY, vet);
+        saveVisit(MONDAY, vet);
+        PetType otherPetType = changePetType();
+
+        // The rollups still count the visits by the former type of the pet
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/pet-types?from=2999-01-01&to=3000-01-01&period=YEAR"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == %d)].visits", petType.getId()).value(contains(2)))
+            .andExpect(jsonPath("$.[?(@.id == %d)]", otherPetType.getId()).doesNotExist());
+
+        visitStatisticsService.rebuild();
+
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/pet-types?from=2999-01-01&to=3000-01-01&period=YEAR"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == %d)]", petType.getId()).doesNotExist())
+            .andExpect(jsonPath("$.[?(@.id == %d)].period", otherPetType.getId()).value(contains("2999-01-01")))
+            .andExpect(jsonPath("$.[?(@.id == %d)].visits", otherPetType.getId()).value(contains(2)));
+    }
+
+    @Test
+    void rebuildIsSkippedWhileLocked() throws Exception {
+        saveVisit(MONDAY, vet);
+        // Another node rebuilt the rollups
+        visitStatisticsService.rebuild();
+        PetType otherPetType = changePetType();
+
+        visitStatisticsService.rebuild();
+
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/pet-types?from=2999-01-01&to=3000-01-01&period=YEAR"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == %d)].visits", petType.getId()).value(contains(1)))
+            .andExpect(jsonPath("$.[?(@.id == %d)]", otherPetType.getId()).doesNotExist());
+    }
+
+    @Test
+    void rejectInvalidRanges() throws Exception {
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/vets?from=2999-02-01&to=2999-01-01"))
+            .andExpect(status().isBadRequest());
+        restVisitStatisticsMockMvc
+            .perform(get(STATS_API_URL + "/pet-types?from=2000-01-01&to=2999-01-01&period=DAY"))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Change the type of the pet behind the rollups, as the pet services do not recount its visits.
+     */
+    private PetType changePetType() {
+        PetType otherPetType = PetTypeResourceIT.createEntity(em);
+        em.persist(otherPetType);
+        pet.setType(otherPetType);
+        em.flush();
+        return otherPetType;
+    }
+
+    private VisitDTO saveVisit(LocalDate date, Vet visitVet) {
+        VisitDTO visitDTO = new VisitDTO();
+        visitDTO.setDate(date);
+        visitDTO.setVet(vetDTO(visitVet));
+        PetDTO petDTO = new PetDTO();
+        petDTO.setId(pet.getId());
+        visitDTO.setPet(petDTO);
+        return visitService.save(visitDTO);
+    }
+
+    private static VetDTO vetDTO(Vet vet) {
+        VetDTO vetDTO = new VetDTO();
+        vetDTO.setId(vet.getId());
+        return vetDTO;
+    }
+
+    private static String vetName(Vet vet) {
+        return vet.getFirstName() + " " + vet.getLastName();
+    }
+}